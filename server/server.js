@@ -70,6 +70,26 @@ server.post("/ops/update-stock", (req, res) => {
   res.status(200).jsonp({ ok: true });
 });
 
+// Ops endpoint to reset test fixtures in one call: drop orders (all, or only for
+// productIds) without restoring stock, then apply stock updates; single db write
+server.post("/ops/reset", (req, res) => {
+  const db = router.db;
+  const { productIds, updates = [] } = req.body;
+  if (productIds !== undefined && !Array.isArray(productIds)) return res.status(400).jsonp({ error: "Invalid productIds" });
+  if (!Array.isArray(updates)) return res.status(400).jsonp({ error: "Invalid updates" });
+
+  const removed = db.get("orders")
+    .remove((o) => !productIds || productIds.includes(o.productId))
+    .value().length;
+
+  updates.forEach((u) => {
+    db.get("products").find({ id: u.productId }).assign({ stock: u.newStock }).value();
+  });
+
+  db.write();
+  res.status(200).jsonp({ ok: true, removedOrders: removed });
+});
+
 server.use(router);
 
 server.listen(5000, () => {
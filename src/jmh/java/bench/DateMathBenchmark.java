@@ -0,0 +1,75 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The date helpers from the order tests (effectiveNow, expectedDeliveryGivenNow,
+ * utcToLocal) as written, against versions that parse and build formatters once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class DateMathBenchmark {
+
+    private static final DateTimeFormatter LOCAL_WITH_ZONE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss z");
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    public String simulateNow = "2025-09-05T18:01:00Z";
+    public String requested = "2025-09-05";
+    public String createdAt = "2025-09-05T09:26:51.700Z";
+
+    private Instant simulateNowParsed;
+
+    @Setup
+    public void setup() {
+        simulateNowParsed = Instant.parse(simulateNow);
+    }
+
+    // ---------------- effectiveNow ----------------
+
+    @Benchmark
+    public LocalDateTime effectiveNowParseEachCall() {
+        Instant inst = Instant.parse(simulateNow);
+        return LocalDateTime.ofInstant(inst, ZoneId.systemDefault());
+    }
+
+    @Benchmark
+    public LocalDateTime effectiveNowParsedOnce() {
+        return LocalDateTime.ofInstant(simulateNowParsed, ZONE);
+    }
+
+    // ---------------- expectedDeliveryGivenNow ----------------
+
+    @Benchmark
+    public String expectedDeliveryWithFormatter() {
+        LocalDateTime now = LocalDateTime.ofInstant(simulateNowParsed, ZONE);
+        LocalDate d = LocalDate.parse(requested, DateTimeFormatter.ISO_LOCAL_DATE).plusDays(1);
+        if (now.getHour() >= 18) d = d.plusDays(1);
+        return d.format(DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
+    @Benchmark
+    public String expectedDeliveryManual() {
+        int hour = LocalDateTime.ofInstant(simulateNowParsed, ZONE).getHour();
+        LocalDate d = LocalDate.of(Integer.parseInt(requested, 0, 4, 10),
+                Integer.parseInt(requested, 5, 7, 10), Integer.parseInt(requested, 8, 10, 10));
+        return d.plusDays(hour >= 18 ? 2 : 1).toString();
+    }
+
+    // ---------------- utcToLocal ----------------
+
+    @Benchmark
+    public String utcToLocalPatternEachCall() {
+        ZonedDateTime local = Instant.parse(createdAt).atZone(ZoneId.systemDefault());
+        return local.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss z"));
+    }
+
+    @Benchmark
+    public String utcToLocalStaticFormatter() {
+        return Instant.parse(createdAt).atZone(ZONE).format(LOCAL_WITH_ZONE);
+    }
+}
@@ -0,0 +1,77 @@
+package bench;
+
+import client.EaFoodsClient;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the POST /orders body: the String.format the tests used to call per request
+ * against hand-written, Jackson and cached alternatives.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class RequestBodyBenchmark {
+
+    public record OrderRequest(String productId, int qty, String slot, String deliveryDate) {
+    }
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final ObjectWriter ORDER_WRITER = new ObjectMapper().writerFor(OrderRequest.class);
+
+    @Param({"p1", "p10"})
+    public String productId;
+
+    public int qty = 2;
+    public String slot = "afternoon";
+    public String deliveryDate = "2025-09-05";
+
+    @Benchmark
+    public byte[] stringFormat() {
+        return String.format("{\"productId\":\"%s\",\"qty\":%d,\"slot\":\"%s\",\"deliveryDate\":\"%s\"}",
+                productId, qty, slot, deliveryDate).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] stringBuilder() {
+        return new StringBuilder(96)
+                .append("{\"productId\":\"").append(productId)
+                .append("\",\"qty\":").append(qty)
+                .append(",\"slot\":\"").append(slot)
+                .append("\",\"deliveryDate\":\"").append(deliveryDate)
+                .append("\"}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] jacksonObjectWriter() throws IOException {
+        return ORDER_WRITER.writeValueAsBytes(new OrderRequest(productId, qty, slot, deliveryDate));
+    }
+
+    @Benchmark
+    public byte[] jacksonStreaming() throws IOException {
+        ByteArrayBuilder out = new ByteArrayBuilder(96);
+        try (JsonGenerator g = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+            g.writeStartObject();
+            g.writeStringField("productId", productId);
+            g.writeNumberField("qty", qty);
+            g.writeStringField("slot", slot);
+            g.writeStringField("deliveryDate", deliveryDate);
+            g.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] clientCachedBody() {
+        return EaFoodsClient.orderBody(productId, qty, slot, deliveryDate);
+    }
+}
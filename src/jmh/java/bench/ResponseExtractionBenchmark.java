@@ -0,0 +1,79 @@
+package bench;
+
+import client.Order;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.restassured.path.json.JsonPath;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pulling id / deliveryDate / createdAt out of a POST /orders response: RestAssured's
+ * JsonPath (what created.jsonPath() does) against Jackson databind and streaming.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ResponseExtractionBenchmark {
+
+    private static final String BODY = "{\n  \"id\": \"o1757064411701\",\n  \"productId\": \"p1\",\n  \"qty\": 1,\n"
+            + "  \"slot\": \"morning\",\n  \"deliveryDate\": \"2025-09-07\",\n  \"status\": \"delievred\",\n"
+            + "  \"createdAt\": \"2025-09-05T09:26:51.700Z\"\n}";
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final ObjectReader ORDER_READER = MAPPER.readerFor(Order.class);
+
+    private final byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+
+    @Benchmark
+    public void jsonPathGetMap(Blackhole bh) {
+        Map<String, Object> json = JsonPath.from(BODY).getMap("$");
+        bh.consume(json.get("id").toString());
+        bh.consume(json.get("deliveryDate").toString());
+        bh.consume(json.get("createdAt").toString());
+    }
+
+    @Benchmark
+    public void jsonPathGetString(Blackhole bh) {
+        JsonPath json = JsonPath.from(BODY);
+        bh.consume(json.getString("id"));
+        bh.consume(json.getString("deliveryDate"));
+        bh.consume(json.getString("createdAt"));
+    }
+
+    @Benchmark
+    public Order jacksonMapperToRecord() throws IOException {
+        return MAPPER.readValue(body, Order.class);
+    }
+
+    @Benchmark
+    public Order jacksonReaderToRecord() throws IOException {
+        return ORDER_READER.readValue(body);
+    }
+
+    @Benchmark
+    public void jacksonStreaming(Blackhole bh) throws IOException {
+        try (JsonParser p = JSON.createParser(body)) {
+            while (p.nextToken() != null) {
+                if (p.currentToken() != JsonToken.FIELD_NAME) continue;
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "id", "deliveryDate", "createdAt" -> bh.consume(p.getText());
+                    default -> p.skipChildren();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package backend;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory products/orders collections with the same rules as server/server.js.
+ *
+ * Every mutation runs under one write lock, so unlike the lowdb read-then-write in
+ * server.js the stock check and the decrement are atomic. When a write-ahead log is
+ * configured each mutation is appended (one JSON line) before it is applied, and the
+ * log is replayed on top of the seed data at startup.
+ *
+ * The seed file is read one row at a time, and POST /ops/bulk-load appends rows in
+ * batches, so generated catalogs and order histories load without one POST per row.
+ */
+public class BackendStore implements Closeable {
+
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final DateTimeFormatter JS_ISO = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+            .withZone(ZoneId.of("UTC"));
+
+    private final Map<String, ObjectNode> products = new LinkedHashMap<>();
+    private final Map<String, ObjectNode> orders = new LinkedHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ZoneId zone;
+    private final Writer wal;
+    private final boolean fsyncWal;
+    private final FileOutputStream walStream;
+    private long lastOrderMillis;
+
+    /** Result of a mutation: HTTP status plus the JSON body to send back. */
+    public record Result(int status, JsonNode body) {
+    }
+
+    public BackendStore(Path seedFile, ZoneId zone, Path walFile, boolean fsyncWal) throws IOException {
+        this.zone = zone;
+        this.fsyncWal = fsyncWal;
+        loadSeed(seedFile);
+
+        if (walFile == null) {
+            wal = null;
+            walStream = null;
+            return;
+        }
+        if (Files.exists(walFile)) {
+            int replayed = 0;
+            for (String line : Files.readAllLines(walFile, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) continue;
+                apply(MAPPER.readTree(line));
+                replayed++;
+            }
+            System.out.println("Embedded backend replayed " + replayed + " WAL records from " + walFile);
+        }
+        walStream = new FileOutputStream(walFile.toFile(), true);
+        wal = new BufferedWriter(new OutputStreamWriter(walStream, StandardCharsets.UTF_8));
+    }
+
+    // db.json is {"products":[...],"orders":[...],...}; only those two arrays are kept
+    private void loadSeed(Path dbJson) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(dbJson.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) throw new IOException(dbJson + " is not a JSON object");
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.START_ARRAY && hasCollection(field)) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        ObjectNode row = MAPPER.readTree(parser);
+                        insert(field, row);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    // ---------------- reads ----------------
+
+    /** One listing: the rows as a JSON array, and how many rows matched before paging. */
+    public record Page(byte[] json, int total) {
+    }
+
+    /**
+     * Rows of one collection (products or orders) filtered by field equality, json-server
+     * style, skipping {@code from} matches and keeping at most {@code size} ({@code -1} for
+     * all). Serialized under the read lock, so only the returned page is ever copied.
+     */
+    public Page query(String collection, Map<String, String> filters, int from, int size) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        lock.readLock().lock();
+        try (JsonGenerator json = MAPPER.getFactory().createGenerator(out)) {
+            json.writeStartArray();
+            int matched = 0;
+            for (ObjectNode row : table(collection).values()) {
+                if (!matches(row, filters)) continue;
+                if (matched >= from && (size < 0 || matched < from + size)) MAPPER.writeTree(json, row);
+                matched++;
+            }
+            json.writeEndArray();
+            json.flush();
+            return new Page(out.toByteArray(), matched);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public JsonNode get(String collection, String id) {
+        lock.readLock().lock();
+        try {
+            ObjectNode row = table(collection).get(id);
+            return row == null ? null : row.deepCopy();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean hasCollection(String collection) {
+        return "products".equals(collection) || "orders".equals(collection);
+    }
+
+    // ---------------- mutations ----------------
+
+    /** POST /orders: stock check, cutoff rule (same as server.js: 12:00 local), stock decrement. */
+    public Result placeOrder(JsonNode body, Instant now) throws IOException {
+        String productId = body.path("productId").asText(null);
+        int qty = body.path("qty").asInt(0);
+        lock.writeLock().lock();
+        try {
+            ObjectNode product = productId == null ? null : products.get(productId);
+            if (product == null) return error(404, "Product not found");
+            if (qty > product.path("stock").asInt()) return error(400, "Insufficient stock");
+
+            ZonedDateTime local = now.atZone(zone);
+            int days = local.getHour() >= 12 ? 2 : 1;
+            ObjectNode order = MAPPER.createObjectNode();
+            order.put("id", "o" + nextOrderMillis(now.toEpochMilli()));
+            order.put("productId", productId);
+            order.put("qty", qty);
+            order.set("slot", body.get("slot"));
+            order.put("deliveryDate", local.toLocalDate().plusDays(days).toString());
+            order.put("status", "delievred");
+            order.put("createdAt", JS_ISO.format(now));
+
+            ObjectNode record = MAPPER.createObjectNode().put("op", "place");
+            record.set("order", order);
+            log(record);
+            apply(record);
+            return new Result(201, order.deepCopy());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** DELETE /orders/:id: restore stock and drop the order. */
+    public Result cancelOrder(String id) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (!orders.containsKey(id)) return error(404, "Order not found");
+            ObjectNode record = MAPPER.createObjectNode().put("op", "cancel").put("id", id);
+            log(record);
+            apply(record);
+            return new Result(200, MAPPER.createObjectNode().put("message", "Order cancelled"));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** POST /ops/update-stock. */
+    public Result updateStock(JsonNode body) throws IOException {
+        JsonNode updates = body.get("updates");
+        if (updates == null || !updates.isArray()) return error(400, "Invalid updates");
+        lock.writeLock().lock();
+        try {
+            ObjectNode record = MAPPER.createObjectNode().put("op", "stock");
+            record.set("updates", updates);
+            log(record);
+            apply(record);
+            return new Result(200, MAPPER.createObjectNode().put("ok", true));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** POST /ops/reset: drop orders (all or for productIds) without restoring stock, then update stock. */
+    public Result reset(JsonNode body) throws IOException {
+        JsonNode productIds = body.get("productIds");
+        JsonNode updates = body.has("updates") ? body.get("updates") : MAPPER.createArrayNode();
+        if (productIds != null && !productIds.isArray()) return error(400, "Invalid productIds");
+        if (!updates.isArray()) return error(400, "Invalid updates");
+        lock.writeLock().lock();
+        try {
+            int before = orders.size();
+            ObjectNode record = MAPPER.createObjectNode().put("op", "reset");
+            if (productIds != null) record.set("productIds", productIds);
+            record.set("updates", updates);
+            log(record);
+            apply(record);
+            return new Result(200, MAPPER.createObjectNode().put("ok", true).put("removedOrders", before - orders.size()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * POST /ops/bulk-load: {"products":[...],"orders":[...]} rows inserted as they are
+     * (products replace rows with the same id; stock is not touched for orders).
+     */
+    public Result bulkLoad(JsonNode body) throws IOException {
+        JsonNode newProducts = body.has("products") ? body.get("products") : MAPPER.createArrayNode();
+        JsonNode newOrders = body.has("orders") ? body.get("orders") : MAPPER.createArrayNode();
+        if (!newProducts.isArray() || !newOrders.isArray()) return error(400, "Invalid rows");
+        lock.writeLock().lock();
+        try {
+            ObjectNode record = MAPPER.createObjectNode().put("op", "bulk");
+            record.set("products", newProducts);
+            record.set("orders", newOrders);
+            log(record);
+            apply(record);
+            return new Result(200, MAPPER.createObjectNode().put("ok", true)
+                    .put("products", products.size()).put("orders", orders.size()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (wal != null) wal.close();
+    }
+
+    // ---------------- internals ----------------
+
+    private void apply(JsonNode record) {
+        switch (record.path("op").asText()) {
+            case "place" -> {
+                ObjectNode order = (ObjectNode) record.get("order").deepCopy();
+                ObjectNode product = products.get(order.path("productId").asText());
+                if (product != null) product.put("stock", product.path("stock").asInt() - order.path("qty").asInt());
+                insert("orders", order);
+            }
+            case "bulk" -> {
+                for (JsonNode p : record.path("products")) insert("products", (ObjectNode) p.deepCopy());
+                for (JsonNode o : record.path("orders")) insert("orders", (ObjectNode) o.deepCopy());
+            }
+            case "cancel" -> {
+                ObjectNode order = orders.remove(record.path("id").asText());
+                if (order == null) return;
+                ObjectNode product = products.get(order.path("productId").asText());
+                if (product != null) product.put("stock", product.path("stock").asInt() + order.path("qty").asInt());
+            }
+            case "stock" -> applyStock(record.path("updates"));
+            case "reset" -> {
+                JsonNode ids = record.get("productIds");
+                if (ids == null) {
+                    orders.clear();
+                } else {
+                    Set<String> drop = new HashSet<>();
+                    for (JsonNode id : ids) drop.add(id.asText());
+                    orders.values().removeIf(o -> drop.contains(o.path("productId").asText()));
+                }
+                applyStock(record.path("updates"));
+            }
+            default -> throw new IllegalArgumentException("Unknown WAL record: " + record);
+        }
+    }
+
+    private void applyStock(JsonNode updates) {
+        for (JsonNode u : updates) {
+            ObjectNode product = products.get(u.path("productId").asText());
+            if (product != null) product.set("stock", u.get("newStock"));
+        }
+    }
+
+    private void log(JsonNode record) throws IOException {
+        if (wal == null) return;
+        wal.write(MAPPER.writeValueAsString(record));
+        wal.write('\n');
+        wal.flush();
+        if (fsyncWal) walStream.getFD().sync();
+    }
+
+    private void insert(String collection, ObjectNode row) {
+        String id = row.path("id").asText();
+        table(collection).put(id, row);
+        // loaded ids ("o" + millis) may lie ahead of the clock; new ones must not collide with them
+        if ("orders".equals(collection) && id.length() > 1 && id.charAt(0) == 'o') {
+            try {
+                lastOrderMillis = Math.max(lastOrderMillis, Long.parseLong(id, 1, id.length(), 10));
+            } catch (NumberFormatException ignored) {
+                // not a generated id
+            }
+        }
+    }
+
+    // server.js uses "o" + Date.now(), which collides under concurrent requests; keep the
+    // format but never hand out the same millisecond twice
+    private long nextOrderMillis(long nowMillis) {
+        lastOrderMillis = Math.max(lastOrderMillis + 1, nowMillis);
+        return lastOrderMillis;
+    }
+
+    private Map<String, ObjectNode> table(String collection) {
+        return "products".equals(collection) ? products : orders;
+    }
+
+    private static boolean matches(JsonNode row, Map<String, String> filters) {
+        for (Map.Entry<String, String> f : filters.entrySet()) {
+            JsonNode v = row.get(f.getKey());
+            if (v == null || !v.asText().equals(f.getValue())) return false;
+        }
+        return true;
+    }
+
+    private static Result error(int status, String message) {
+        return new Result(status, MAPPER.createObjectNode().put("error", message));
+    }
+}
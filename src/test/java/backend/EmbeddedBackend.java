@@ -0,0 +1,280 @@
+package backend;
+
+import client.AsyncEaFoodsClient;
+import client.EaFoodsClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static config.Settings.env;
+
+/**
+ * In-process stand-in for server/server.js (json-server + the custom order routes),
+ * built on the JDK's HttpServer so the suite can run without Node.
+ *
+ * Serves GET /products, /products/:id, /orders, /orders/:id (field filters and
+ * _page/_limit like json-server), POST /orders, DELETE /orders/:id, POST
+ * /ops/update-stock, POST /ops/reset and POST /ops/bulk-load. Unlike server.js it
+ * honours the X-Simulate-Now header, so cutoff scenarios are deterministic. Each
+ * instance listens on its own port (0 = any free port) and keeps its own data, so
+ * several can run side by side in one JVM.
+ */
+public class EmbeddedBackend implements AutoCloseable {
+
+    private static final String SIMULATE_NOW_HEADER = "X-Simulate-Now";
+    // HttpServer writes headers and body separately; without TCP_NODELAY every keep-alive
+    // response waits out the client's delayed ACK. The JDK reads this once, before the
+    // first HttpServer, so it belongs on the command line, not in start()
+    private static final String NODELAY = "sun.net.httpserver.nodelay";
+    private static final AtomicBoolean NODELAY_WARNED = new AtomicBoolean();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final BackendStore store;
+    private final Clock clock;
+
+    private EmbeddedBackend(HttpServer server, ExecutorService executor, BackendStore store, Clock clock) {
+        this.server = server;
+        this.executor = executor;
+        this.store = store;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts a backend seeded from EMBEDDED_DB (default server/db.json). EMBEDDED_PORT
+     * (default 0), EMBEDDED_THREADS (default 32), EMBEDDED_WAL (no log unless set) and
+     * EMBEDDED_WAL_FSYNC (default false) tune it.
+     */
+    public static EmbeddedBackend fromEnv() throws IOException {
+        String wal = env("EMBEDDED_WAL", "");
+        return start(Paths.get(env("EMBEDDED_DB", "server/db.json")),
+                Integer.parseInt(env("EMBEDDED_PORT", "0")),
+                Integer.parseInt(env("EMBEDDED_THREADS", "32")),
+                wal.isEmpty() ? null : Paths.get(wal),
+                Boolean.parseBoolean(env("EMBEDDED_WAL_FSYNC", "false")),
+                Clock.systemDefaultZone());
+    }
+
+    /**
+     * A private instance (EMBEDDED_DB seed, EMBEDDED_THREADS, no WAL) on a free port whose
+     * local time is {@code zone}, for checks that need servers in several zones at once.
+     */
+    public static EmbeddedBackend forZone(ZoneId zone) throws IOException {
+        return start(Paths.get(env("EMBEDDED_DB", "server/db.json")), 0,
+                Integer.parseInt(env("EMBEDDED_THREADS", "32")), null, false, Clock.system(zone));
+    }
+
+    public static EmbeddedBackend start(Path dbJson, int port, int threads, Path walFile, boolean fsyncWal,
+                                        Clock clock) throws IOException {
+        BackendStore store = new BackendStore(dbJson, clock.getZone(), walFile, fsyncWal);
+        if (!Boolean.getBoolean(NODELAY) && !NODELAY_WARNED.getAndSet(true)) {
+            System.out.println("Embedded backend without -D" + NODELAY + "=true: keep-alive responses may wait"
+                    + " ~40 ms for delayed ACKs (mvn -Pembedded sets it)");
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        AtomicInteger n = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "embedded-backend-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        EmbeddedBackend backend = new EmbeddedBackend(server, executor, store, clock);
+        server.createContext("/", backend::handle);
+        server.setExecutor(executor);
+        server.start();
+        return backend;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.stop(0);
+        // a backend per test or per zone would otherwise leave clients behind for every port
+        EaFoodsClient.release(baseUrl());
+        AsyncEaFoodsClient.release(baseUrl());
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        store.close();
+    }
+
+    // ---------------- routing ----------------
+
+    private void handle(HttpExchange ex) throws IOException {
+        try (ex) {
+            String[] path = segments(ex.getRequestURI());
+            String method = ex.getRequestMethod();
+            try {
+                route(ex, method, path);
+            } catch (DateTimeParseException e) {
+                send(ex, 400, error("Invalid " + SIMULATE_NOW_HEADER));
+            } catch (IOException e) {
+                if (e instanceof com.fasterxml.jackson.core.JsonProcessingException) {
+                    send(ex, 400, error("Invalid JSON"));
+                } else {
+                    throw e;
+                }
+            } catch (RuntimeException e) {
+                System.out.println("Embedded backend failed on " + method + " " + ex.getRequestURI() + ": " + e);
+                send(ex, 500, error(e.toString()));
+            }
+        }
+    }
+
+    private void route(HttpExchange ex, String method, String[] path) throws IOException {
+        if (path.length == 2 && "ops".equals(path[0]) && "POST".equals(method)) {
+            if ("update-stock".equals(path[1])) {
+                send(ex, store.updateStock(body(ex)));
+                return;
+            }
+            if ("reset".equals(path[1])) {
+                send(ex, store.reset(body(ex)));
+                return;
+            }
+            if ("bulk-load".equals(path[1])) {
+                send(ex, store.bulkLoad(body(ex)));
+                return;
+            }
+        }
+        if (path.length == 0 || path.length > 2 || !store.hasCollection(path[0])) {
+            send(ex, 404, BackendStore.MAPPER.createObjectNode());
+            return;
+        }
+        String collection = path[0];
+        boolean orders = "orders".equals(collection);
+
+        switch (method) {
+            case "GET" -> {
+                if (path.length == 2) {
+                    JsonNode row = store.get(collection, path[1]);
+                    send(ex, row == null ? 404 : 200, row == null ? BackendStore.MAPPER.createObjectNode() : row);
+                } else {
+                    list(ex, collection);
+                }
+            }
+            case "POST" -> {
+                if (orders && path.length == 1) send(ex, store.placeOrder(body(ex), now(ex)));
+                else send(ex, 404, BackendStore.MAPPER.createObjectNode());
+            }
+            case "DELETE" -> {
+                if (orders && path.length == 2) send(ex, store.cancelOrder(path[1]));
+                else send(ex, 404, BackendStore.MAPPER.createObjectNode());
+            }
+            default -> send(ex, 404, BackendStore.MAPPER.createObjectNode());
+        }
+    }
+
+    /** json-server collection GET: equality filters on any field plus _page/_limit with X-Total-Count. */
+    private void list(HttpExchange ex, String collection) throws IOException {
+        Map<String, String> filters = new LinkedHashMap<>();
+        int page = 0;
+        int limit = -1;
+        String query = ex.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                if (pair.isEmpty()) continue;
+                int eq = pair.indexOf('=');
+                String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+                String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+                switch (key) {
+                    case "_page" -> page = Integer.parseInt(value);
+                    case "_limit" -> limit = Integer.parseInt(value);
+                    default -> {
+                        if (!key.startsWith("_")) filters.put(key, value);
+                    }
+                }
+            }
+        }
+        boolean paged = page > 0 || limit >= 0;
+        int size = !paged ? -1 : limit >= 0 ? limit : 10;
+        BackendStore.Page rows = store.query(collection, filters, paged ? Math.max(0, page - 1) * size : 0, size);
+        if (paged) {
+            ex.getResponseHeaders().set("X-Total-Count", String.valueOf(rows.total()));
+            ex.getResponseHeaders().set("Access-Control-Expose-Headers", "X-Total-Count");
+        }
+        send(ex, 200, rows.json());
+    }
+
+    // ---------------- helpers ----------------
+
+    private Instant now(HttpExchange ex) {
+        String simulated = ex.getRequestHeaders().getFirst(SIMULATE_NOW_HEADER);
+        return simulated == null || simulated.isBlank() ? clock.instant() : Instant.parse(simulated.trim());
+    }
+
+    private static JsonNode body(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            byte[] bytes = in.readAllBytes();
+            return bytes.length == 0 ? BackendStore.MAPPER.createObjectNode() : BackendStore.MAPPER.readTree(bytes);
+        }
+    }
+
+    private static void send(HttpExchange ex, BackendStore.Result result) throws IOException {
+        send(ex, result.status(), result.body());
+    }
+
+    private static void send(HttpExchange ex, int status, JsonNode body) throws IOException {
+        send(ex, status, BackendStore.MAPPER.writeValueAsBytes(body));
+    }
+
+    private static void send(HttpExchange ex, int status, byte[] bytes) throws IOException {
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static JsonNode error(String message) {
+        return BackendStore.MAPPER.createObjectNode().put("error", message);
+    }
+
+    private static String[] segments(URI uri) {
+        String p = uri.getPath();
+        while (p.startsWith("/")) p = p.substring(1);
+        while (p.endsWith("/")) p = p.substring(0, p.length() - 1);
+        return p.isEmpty() ? new String[0] : p.split("/");
+    }
+
+    /** Standalone: {@code java backend.EmbeddedBackend} with the same EMBEDDED_* settings. */
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty(NODELAY) == null) System.setProperty(NODELAY, "true");
+        EmbeddedBackend backend = fromEnv();
+        System.out.println("Embedded backend running at " + backend.baseUrl());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                backend.close();
+            } catch (IOException e) {
+                System.out.println("Embedded backend close failed: " + e);
+            }
+        }));
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,49 @@
+package backend;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static config.Settings.env;
+
+/**
+ * With BACKEND=embedded, starts an {@link EmbeddedBackend} on a free port before the
+ * suite and points BASE_URL (as a system property, which EaFoodsClient reads first) at
+ * it, so the suite runs without json-server. Does nothing otherwise. Registered through
+ * META-INF/services/org.testng.ITestNGListener ahead of the stock snapshot listener.
+ */
+public class EmbeddedBackendListener implements ISuiteListener {
+
+    private EmbeddedBackend backend;
+    private String previousBaseUrl;
+
+    @Override
+    public void onStart(ISuite suite) {
+        String mode = env("BACKEND", "");
+        if (!"embedded".equalsIgnoreCase(mode) || backend != null) return;
+        long start = System.nanoTime();
+        try {
+            backend = EmbeddedBackend.fromEnv();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded backend", e);
+        }
+        previousBaseUrl = System.setProperty("BASE_URL", backend.baseUrl());
+        System.out.println(String.format("Embedded backend at %s started in %.1f ms",
+                backend.baseUrl(), (System.nanoTime() - start) / 1e6));
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (backend == null) return;
+        try {
+            backend.close();
+        } catch (IOException e) {
+            System.out.println("Embedded backend close failed: " + e);
+        }
+        if (previousBaseUrl == null) System.clearProperty("BASE_URL");
+        else System.setProperty("BASE_URL", previousBaseUrl);
+        backend = null;
+    }
+}
@@ -0,0 +1,144 @@
+package backend;
+
+import client.CallMetrics;
+import client.EaFoodsClient;
+import client.Order;
+import io.restassured.response.Response;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Checks the stand-in backend itself: server.js semantics, atomic stock checks, and
+ * that a restart replays the write-ahead log. Each test runs its own instance on a
+ * free port, so this class needs no external server.
+ */
+public class EmbeddedBackendTest {
+
+    private static final Path DB = Paths.get("server/db.json");
+    private static final Clock MORNING = Clock.fixed(Instant.parse("2025-09-05T09:00:00Z"), ZoneId.of("UTC"));
+
+    private Path wal;
+    private EmbeddedBackend backend;
+
+    @BeforeMethod
+    public void beforeEachTest() throws IOException {
+        wal = Files.createTempFile("embedded-backend", ".wal");
+        Files.delete(wal);
+        backend = EmbeddedBackend.start(DB, 0, 8, wal, false, MORNING);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void afterEachTest() throws IOException {
+        if (backend != null) backend.close();
+        Files.deleteIfExists(wal);
+    }
+
+    @Test
+    public void placeAndCancelFollowServerRules() {
+        EaFoodsClient client = EaFoodsClient.forBaseUrl(backend.baseUrl());
+        client.updateStock("p1", 2).then().statusCode(200);
+
+        Response created = client.placeOrder("p1", 2, "8-10", "ignored");
+        Assert.assertEquals(created.statusCode(), 201, created.asString());
+        Order order = Order.from(created);
+        Assert.assertEquals(order.deliveryDate(), "2025-09-06", "before 12:00 → next day");
+        Assert.assertEquals(order.createdAt(), "2025-09-05T09:00:00.000Z");
+        Assert.assertEquals(client.product("p1").stock(), 0);
+
+        Assert.assertEquals(client.placeOrder("p1", 1, "8-10", "ignored").statusCode(), 400);
+        Assert.assertEquals(client.placeOrder("nope", 1, "8-10", "ignored").statusCode(), 404);
+
+        Response afternoon = client.withSimulateNow("2025-09-05T13:00:00Z").placeOrder("p5", 1, "8-10", "ignored");
+        Assert.assertEquals(Order.from(afternoon).deliveryDate(), "2025-09-07", "after 12:00 → +2 days");
+
+        Assert.assertEquals(client.cancelOrder(order.id()).statusCode(), 200);
+        Assert.assertEquals(client.cancelOrder(order.id()).statusCode(), 404);
+        Assert.assertEquals(client.product("p1").stock(), 2);
+    }
+
+    @Test
+    public void concurrentOrdersNeverOversell() throws Exception {
+        EaFoodsClient client = EaFoodsClient.forBaseUrl(backend.baseUrl());
+        client.reset(List.of("p2"), Map.of("p2", 5)).then().statusCode(200);
+
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(CallMetrics.inCurrentTest(() -> {
+                    go.await();
+                    return client.placeOrder("p2", 1, "8-10", "ignored").statusCode();
+                })));
+            }
+            go.countDown();
+            int created = 0;
+            for (Future<Integer> f : results) if (f.get() == 201) created++;
+            Assert.assertEquals(created, 5);
+        } finally {
+            pool.shutdownNow();
+        }
+        Assert.assertEquals(client.product("p2").stock(), 0);
+        Assert.assertEquals(client.orders("p2").size(), 5);
+    }
+
+    @Test
+    public void restartReplaysWriteAheadLog() throws IOException {
+        EaFoodsClient client = EaFoodsClient.forBaseUrl(backend.baseUrl());
+        client.reset(null, Map.of("p3", 7)).then().statusCode(200);
+        String kept = Order.from(client.placeOrder("p3", 2, "8-10", "ignored")).id();
+        String cancelled = Order.from(client.placeOrder("p3", 1, "8-10", "ignored")).id();
+        client.cancelOrder(cancelled).then().statusCode(200);
+        backend.close();
+
+        backend = EmbeddedBackend.start(DB, 0, 8, wal, false, MORNING);
+        EaFoodsClient restarted = EaFoodsClient.forBaseUrl(backend.baseUrl());
+        Assert.assertEquals(restarted.product("p3").stock(), 5);
+        List<Order> orders = restarted.orders(null);
+        Assert.assertEquals(orders.size(), 1);
+        Assert.assertEquals(orders.get(0).id(), kept);
+    }
+
+    @Test
+    public void collectionPagingMatchesJsonServer() {
+        EaFoodsClient client = EaFoodsClient.forBaseUrl(backend.baseUrl());
+        Response page = client.request().queryParam("_page", 2).queryParam("_limit", 3).when().get("/products");
+        Assert.assertEquals(page.statusCode(), 200);
+        Assert.assertEquals(page.header("X-Total-Count"), "10");
+        Assert.assertEquals(page.jsonPath().getList("id"), List.of("p4", "p5", "p6"));
+        Assert.assertEquals(client.getProduct("missing").statusCode(), 404);
+    }
+
+    @Test
+    public void pagedStreamsVisitEveryRowOnce() {
+        EaFoodsClient client = EaFoodsClient.forBaseUrl(backend.baseUrl());
+        client.reset(null, Map.of("p1", 100)).then().statusCode(200);
+        List<String> placed = new ArrayList<>();
+        for (int i = 0; i < 7; i++) placed.add(Order.from(client.placeOrder("p1", 1, "8-10", "ignored")).id());
+
+        // a short last page, a page boundary that needs one empty page, and everything in one page
+        for (int pageSize : new int[]{3, 7, 50}) {
+            Assert.assertEquals(client.streamOrders(null, pageSize).map(Order::id).toList(), placed, "page size " + pageSize);
+        }
+        Assert.assertEquals(client.streamOrders("p2", 3).count(), 0);
+        Assert.assertEquals(client.streamProducts().count(), 10);
+    }
+}
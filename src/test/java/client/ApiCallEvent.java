@@ -0,0 +1,43 @@
+package client;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one HTTP exchange made through {@link EaFoodsClient}, timed at the
+ * innermost filter (request written to response body read), so its duration is network
+ * plus server time. Emitted whether or not the call is part of an {@link ApiStepEvent}.
+ */
+@Name(ApiCallEvent.NAME)
+@Label("API Call")
+@Category({"EA Foods", "API"})
+@Description("One HTTP exchange: network plus server time")
+@StackTrace(false)
+public class ApiCallEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "eafoods.ApiCall";
+
+    @Label("Test")
+    String test;
+
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Status")
+    int status;
+
+    @Label("Request Bytes")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Response Bytes")
+    @DataAmount
+    long responseBytes;
+}
@@ -0,0 +1,70 @@
+package client;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for one logical API step ("place order", "get product", ...); see
+ * {@link ApiSteps}. The time parts are inclusive of nested steps, and the HTTP fields
+ * describe the step's last call.
+ */
+@Name(ApiStepEvent.NAME)
+@Label("API Step")
+@Category({"EA Foods", "API"})
+@Description("One logical API step with its time split into body serialization, HTTP exchange, response parsing and client overhead")
+@StackTrace(false)
+public class ApiStepEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "eafoods.ApiStep";
+
+    @Label("Step")
+    String step;
+
+    @Label("Test")
+    String test;
+
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Status")
+    int status;
+
+    @Label("Calls")
+    int calls;
+
+    @Label("Request Bytes")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Response Bytes")
+    @DataAmount
+    long responseBytes;
+
+    @Label("Serialization Time")
+    @Description("Building request bodies")
+    @Timespan
+    long serializeNanos;
+
+    @Label("Network Time")
+    @Description("HTTP exchanges, measured at the innermost client filter: network plus server time")
+    @Timespan
+    long networkNanos;
+
+    @Label("Parse Time")
+    @Description("Binding response bodies to objects")
+    @Timespan
+    long parseNanos;
+
+    @Label("Client Time")
+    @Description("The rest of the step: RestAssured/Groovy request building, filters and response wrapping")
+    @Timespan
+    long clientNanos;
+}
@@ -0,0 +1,132 @@
+package client;
+
+import java.util.function.Supplier;
+
+/**
+ * Logical API steps as {@link ApiStepEvent}s, so a JFR recording shows where a slow
+ * step's time went: building the body, the HTTP exchange (network plus server, reported
+ * by the client's innermost filter), binding the response, or what is left over, which
+ * is RestAssured/Groovy overhead. Steps are thread-confined. A step begun inside another
+ * of the same name joins it; a differently named one nests and rolls its numbers up into
+ * the outer step. Nothing is measured unless a recording has the event enabled.
+ *
+ * <pre>
+ * try (ApiSteps.Step step = ApiSteps.begin("place order")) {
+ *     byte[] body = step.serialize(() -> orderBody(...));
+ *     return request().body(body).post("/orders");
+ * }
+ * return ApiSteps.run("cancel order", () -> request().delete("/orders/" + id));
+ * </pre>
+ */
+public final class ApiSteps {
+
+    private static final ThreadLocal<Step> CURRENT = new ThreadLocal<>();
+    private static final Step NONE = new Step(null, null);
+
+    private ApiSteps() {
+    }
+
+    public static Step begin(String name) {
+        Step current = CURRENT.get();
+        if (current != null && current.event.step.equals(name)) {
+            current.joined++;
+            return current;
+        }
+        ApiStepEvent event = new ApiStepEvent();
+        if (!event.isEnabled()) return NONE;
+        event.step = name;
+        event.test = CallMetrics.currentTest();
+        event.begin();
+        Step step = new Step(event, current);
+        CURRENT.set(step);
+        return step;
+    }
+
+    /** Runs {@code call} as one step; for steps that are just the HTTP exchange. */
+    public static <T> T run(String name, Supplier<T> call) {
+        Step step = begin(name);
+        try {
+            return call.get();
+        } finally {
+            step.close();
+        }
+    }
+
+    /** Innermost step of the calling thread, or null. */
+    static Step current() {
+        return CURRENT.get();
+    }
+
+    public static final class Step implements AutoCloseable {
+
+        private final ApiStepEvent event;
+        private final Step outer;
+        private final long startNanos = System.nanoTime();
+        private int joined;
+
+        private Step(ApiStepEvent event, Step outer) {
+            this.event = event;
+            this.outer = outer;
+        }
+
+        /** Runs {@code body} and counts its time as serialization. */
+        public <T> T serialize(Supplier<T> body) {
+            if (event == null) return body.get();
+            long start = System.nanoTime();
+            try {
+                return body.get();
+            } finally {
+                event.serializeNanos += System.nanoTime() - start;
+            }
+        }
+
+        /** Runs {@code read} and counts its time as response parsing. */
+        public <T> T parse(Supplier<T> read) {
+            if (event == null) return read.get();
+            long start = System.nanoTime();
+            try {
+                return read.get();
+            } finally {
+                event.parseNanos += System.nanoTime() - start;
+            }
+        }
+
+        void exchanged(String method, String endpoint, int status, long requestBytes, long responseBytes, long nanos) {
+            event.method = method;
+            event.endpoint = endpoint;
+            event.status = status;
+            event.calls++;
+            event.requestBytes += requestBytes;
+            event.responseBytes += responseBytes;
+            event.networkNanos += nanos;
+        }
+
+        @Override
+        public void close() {
+            if (event == null) return;
+            if (joined > 0) {
+                joined--;
+                return;
+            }
+            if (outer == null) CURRENT.remove();
+            else CURRENT.set(outer);
+            long total = System.nanoTime() - startNanos;
+            event.clientNanos = Math.max(0, total - event.serializeNanos - event.networkNanos - event.parseNanos);
+            event.commit();
+            if (outer != null) {
+                ApiStepEvent o = outer.event;
+                if (event.calls > 0) {
+                    o.method = event.method;
+                    o.endpoint = event.endpoint;
+                    o.status = event.status;
+                }
+                o.calls += event.calls;
+                o.requestBytes += event.requestBytes;
+                o.responseBytes += event.responseBytes;
+                o.serializeNanos += event.serializeNanos;
+                o.networkNanos += event.networkNanos;
+                o.parseNanos += event.parseNanos;
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs chains of {@link AsyncEaFoodsClient} calls. A chain is a supplier, so nothing is
+ * sent until the runner starts it; that is what lets {@link #runAll} hold back the
+ * rest of a large batch instead of queueing every request up front.
+ */
+public final class AsyncChains {
+
+    private AsyncChains() {
+    }
+
+    /**
+     * Starts the chains with at most {@code maxConcurrent} running at once, starting the
+     * next as one finishes, and completes with their results in the order given. A failed
+     * chain fails the whole batch, after the chains already started have finished.
+     */
+    public static <T> CompletableFuture<List<T>> runAll(List<Supplier<CompletableFuture<T>>> chains, int maxConcurrent) {
+        Batch<T> batch = new Batch<>(chains);
+        int started = 0;
+        while (started < Math.max(1, maxConcurrent) && batch.startNext()) started++;
+        return batch.done;
+    }
+
+    /** Runs the chains one after another, each starting when the previous one has completed. */
+    public static <T> CompletableFuture<List<T>> sequence(List<Supplier<CompletableFuture<T>>> chains) {
+        CompletableFuture<List<T>> all = CompletableFuture.completedFuture(new ArrayList<>());
+        for (Supplier<CompletableFuture<T>> chain : chains) {
+            all = all.thenCompose(results -> chain.get().thenApply(value -> {
+                results.add(value);
+                return results;
+            }));
+        }
+        return all;
+    }
+
+    private static final class Batch<T> {
+        private final List<Supplier<CompletableFuture<T>>> chains;
+        private final List<T> results;
+        private final List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private final CompletableFuture<List<T>> done = new CompletableFuture<>();
+
+        Batch(List<Supplier<CompletableFuture<T>>> chains) {
+            this.chains = chains;
+            this.results = Collections.synchronizedList(new ArrayList<>(Collections.nCopies(chains.size(), null)));
+        }
+
+        /** Starts the next chain unless all have started or one has failed; false if nothing was started. */
+        boolean startNext() {
+            // count it as running before claiming an index, so the batch can't look finished in between
+            running.incrementAndGet();
+            int i = failures.isEmpty() ? next.getAndIncrement() : chains.size();
+            if (i >= chains.size()) {
+                release();
+                return false;
+            }
+            CompletableFuture<T> chain;
+            try {
+                chain = chains.get(i).get();
+            } catch (RuntimeException e) {
+                chain = CompletableFuture.failedFuture(e);
+            }
+            chain.whenComplete((value, e) -> {
+                if (e == null) results.set(i, value);
+                else failures.add(e);
+                startNext();
+                release();
+            });
+            return true;
+        }
+
+        private void release() {
+            if (running.decrementAndGet() != 0) return;
+            if (failures.isEmpty()) done.complete(new ArrayList<>(results));
+            else done.completeExceptionally(failures.get(0));
+        }
+    }
+}
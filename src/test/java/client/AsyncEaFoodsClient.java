@@ -0,0 +1,207 @@
+package client;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static config.Settings.env;
+
+/**
+ * Non-blocking counterpart of {@link EaFoodsClient} on java.net.http's sendAsync: every
+ * call returns a CompletableFuture, so dependent steps are chained with thenCompose and
+ * thousands of chains share EA_ASYNC_THREADS threads (default 4).
+ *
+ * At most EA_ASYNC_MAX_IN_FLIGHT requests (default 64) are on the wire at once; further
+ * calls queue without holding a thread and are sent as earlier ones complete. Calls are
+ * timed into {@link CallMetrics} like the blocking client's, tagged with the test that
+ * made them. Timeouts come from EA_HTTP_CONNECT_TIMEOUT_MS / EA_HTTP_READ_TIMEOUT_MS.
+ * Traffic recording (EA_RECORD) only covers the blocking client.
+ */
+public final class AsyncEaFoodsClient {
+
+    private static final int THREADS = Integer.parseInt(env("EA_ASYNC_THREADS", "4"));
+    private static final int MAX_IN_FLIGHT = Integer.parseInt(env("EA_ASYNC_MAX_IN_FLIGHT", "64"));
+    private static final int CONNECT_TIMEOUT_MS = Integer.parseInt(env("EA_HTTP_CONNECT_TIMEOUT_MS", "5000"));
+    private static final int READ_TIMEOUT_MS = Integer.parseInt(env("EA_HTTP_READ_TIMEOUT_MS", "30000"));
+    private static final boolean METRICS = Boolean.parseBoolean(env("EA_HTTP_METRICS", "true"));
+
+    private static final Map<String, AsyncEaFoodsClient> BY_BASE_URL = new ConcurrentHashMap<>();
+
+    private final String baseUrl;
+    private final ExecutorService executor;
+    private final HttpClient http;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight;
+    private final ConcurrentLinkedQueue<Runnable> waiting;
+    private final String simulateNow;
+
+    private AsyncEaFoodsClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        AtomicInteger n = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(THREADS, r -> {
+            Thread t = new Thread(r, "ea-async-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(CONNECT_TIMEOUT_MS))
+                .executor(executor)
+                .build();
+        this.maxInFlight = MAX_IN_FLIGHT;
+        this.inFlight = new AtomicInteger();
+        this.waiting = new ConcurrentLinkedQueue<>();
+        this.simulateNow = "";
+    }
+
+    private AsyncEaFoodsClient(AsyncEaFoodsClient shared, String simulateNow) {
+        this.baseUrl = shared.baseUrl;
+        this.executor = shared.executor;
+        this.http = shared.http;
+        this.maxInFlight = shared.maxInFlight;
+        this.inFlight = shared.inFlight;
+        this.waiting = shared.waiting;
+        this.simulateNow = simulateNow == null ? "" : simulateNow.trim();
+    }
+
+    /** Client for BASE_URL (default http://localhost:5000), created once per JVM. */
+    public static AsyncEaFoodsClient shared() {
+        return forBaseUrl(env("BASE_URL", "http://localhost:5000"));
+    }
+
+    public static AsyncEaFoodsClient forBaseUrl(String baseUrl) {
+        return BY_BASE_URL.computeIfAbsent(baseUrl, AsyncEaFoodsClient::new);
+    }
+
+    /**
+     * Forgets the client for {@code baseUrl} and shuts down its threads once the calls
+     * already queued on them are done, for servers that go away before the JVM does
+     * (every EmbeddedBackend releases its URL on close). A later {@link #forBaseUrl}
+     * builds a fresh client.
+     */
+    public static void release(String baseUrl) {
+        AsyncEaFoodsClient client = BY_BASE_URL.remove(baseUrl);
+        if (client != null) client.executor.shutdown();
+    }
+
+    /** View of this client that sends X-Simulate-Now on every call; shares the same threads and in-flight cap. */
+    public AsyncEaFoodsClient withSimulateNow(String isoInstant) {
+        return new AsyncEaFoodsClient(this, isoInstant);
+    }
+
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    /** Requests on the wire right now. */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /** Requests waiting for an in-flight slot. */
+    public int queued() {
+        return waiting.size();
+    }
+
+    // ---------------- products ----------------
+
+    public CompletableFuture<HttpResponse<byte[]>> getProduct(String productId) {
+        return send("GET", "/products/" + productId, null, null);
+    }
+
+    public CompletableFuture<Product> product(String productId) {
+        return getProduct(productId).thenApply(r -> read(r, 200, Product.class, "GET /products/" + productId));
+    }
+
+    // ---------------- orders ----------------
+
+    public CompletableFuture<HttpResponse<byte[]>> placeOrder(String productId, int qty, String slot, String deliveryDate) {
+        return send("POST", "/orders", EaFoodsClient.orderBody(productId, qty, slot, deliveryDate), slot);
+    }
+
+    /** POST /orders that must be accepted (201). */
+    public CompletableFuture<Order> placedOrder(String productId, int qty, String slot, String deliveryDate) {
+        return placeOrder(productId, qty, slot, deliveryDate).thenApply(r -> read(r, 201, Order.class, "POST /orders"));
+    }
+
+    public CompletableFuture<HttpResponse<byte[]>> cancelOrder(String orderId) {
+        return send("DELETE", "/orders/" + orderId, null, null);
+    }
+
+    // ---------------- transport ----------------
+
+    /** Any call; {@code body} null for none. Completes exceptionally only when no status came back. */
+    public CompletableFuture<HttpResponse<byte[]>> send(String method, String path, byte[] body, String slot) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofMillis(READ_TIMEOUT_MS))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        if (body != null) request.header("Content-Type", "application/json");
+        if (!simulateNow.isEmpty()) request.header(EaFoodsClient.SIMULATE_NOW_HEADER, simulateNow);
+        HttpRequest built = request.build();
+        String test = CallMetrics.currentTest();
+
+        CompletableFuture<HttpResponse<byte[]>> result = new CompletableFuture<>();
+        waiting.add(() -> {
+            long start = System.nanoTime();
+            CompletableFuture<HttpResponse<byte[]>> sent;
+            try {
+                sent = http.sendAsync(built, HttpResponse.BodyHandlers.ofByteArray());
+            } catch (RuntimeException e) {
+                sent = CompletableFuture.failedFuture(e);
+            }
+            sent.whenComplete((r, e) -> {
+                if (METRICS) {
+                    CallMetrics.INSTANCE.record(method, path, test, slot, start, System.nanoTime(),
+                            e == null ? r.statusCode() : 0);
+                }
+                inFlight.decrementAndGet();
+                drain();
+                // dependent steps run inside complete(), so they send under the caller's test tag
+                String previous = CallMetrics.currentTest();
+                CallMetrics.tagTest(test);
+                try {
+                    if (e == null) result.complete(r);
+                    else result.completeExceptionally(e);
+                } finally {
+                    CallMetrics.tagTest(previous);
+                }
+            });
+        });
+        drain();
+        return result;
+    }
+
+    // start queued requests while there is room; runs after every enqueue and every completion
+    private void drain() {
+        while (!waiting.isEmpty()) {
+            int n = inFlight.get();
+            if (n >= maxInFlight) return;
+            if (!inFlight.compareAndSet(n, n + 1)) continue;
+            Runnable next = waiting.poll();
+            if (next == null) {
+                inFlight.decrementAndGet();
+                continue;
+            }
+            next.run();
+        }
+    }
+
+    private static <T> T read(HttpResponse<byte[]> response, int status, Class<T> type, String call) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException(call + " returned " + response.statusCode() + ": "
+                    + new String(response.body(), StandardCharsets.UTF_8));
+        }
+        return EaFoodsClient.read(response.body(), type);
+    }
+}
@@ -0,0 +1,198 @@
+package client;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-call latency of every request made through {@link EaFoodsClient}, kept in
+ * HdrHistograms (microseconds) keyed by method, endpoint template, test and slot.
+ *
+ * The filter only reads System.nanoTime() twice and records into a concurrent
+ * histogram, so it stays on even for load runs; EA_HTTP_METRICS=false removes it.
+ * The test tag comes from {@link CallMetricsListener}, the slot tag from the client.
+ */
+public final class CallMetrics implements Filter {
+
+    public static final CallMetrics INSTANCE = new CallMetrics();
+
+    static final String NO_TAG = "-";
+
+    // not inheritable: a pool thread would keep the tag of whichever test created it, so work
+    // handed to other threads carries the tag explicitly, see inCurrentTest
+    private static final ThreadLocal<String> TEST = new ThreadLocal<>();
+    private static final ThreadLocal<String> SLOT = new ThreadLocal<>();
+
+    private final Map<Key, Series> series = new ConcurrentHashMap<>();
+
+    /** What one histogram is for. */
+    public record Key(String method, String endpoint, String test, String slot) {
+    }
+
+    /** Latency histogram and outcome counters for one {@link Key}. */
+    public static final class Series {
+        private final Histogram latencyMicros = new ConcurrentHistogram(3);
+        private final LongAdder non2xx = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final AtomicLong firstNanos = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong lastNanos = new AtomicLong(Long.MIN_VALUE);
+
+        void record(long startNanos, long endNanos, int status) {
+            latencyMicros.recordValue(Math.max(1, (endNanos - startNanos) / 1_000));
+            if (status == 0) failures.increment();
+            else if (status < 200 || status >= 300) non2xx.increment();
+            firstNanos.accumulateAndGet(startNanos, Math::min);
+            lastNanos.accumulateAndGet(endNanos, Math::max);
+        }
+
+        public Histogram histogram() {
+            return latencyMicros;
+        }
+
+        public long count() {
+            return latencyMicros.getTotalCount();
+        }
+
+        /** Calls answered with a status outside 2xx (expected for many negative tests). */
+        public long non2xx() {
+            return non2xx.sum();
+        }
+
+        /** Calls that never got a status code (connect refused, timeout, ...). */
+        public long failures() {
+            return failures.sum();
+        }
+
+        /** Calls per second between the first call's start and the last call's end. */
+        public double throughput() {
+            long span = lastNanos.get() - firstNanos.get();
+            return span <= 0 ? 0 : count() / (span / 1e9);
+        }
+
+        public double percentileMs(double percentile) {
+            return latencyMicros.getValueAtPercentile(percentile) / 1_000.0;
+        }
+
+        public double meanMs() {
+            return latencyMicros.getMean() / 1_000.0;
+        }
+
+        public double maxMs() {
+            return latencyMicros.getMaxValue() / 1_000.0;
+        }
+    }
+
+    private CallMetrics() {
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                           FilterContext ctx) {
+        long start = System.nanoTime();
+        Response r;
+        try {
+            r = ctx.next(request, response);
+        } catch (Exception e) { // transport failure, see TimedCall
+            record(request, start, 0);
+            throw e;
+        }
+        record(request, start, r.statusCode());
+        return r;
+    }
+
+    private void record(FilterableRequestSpecification request, long start, int status) {
+        record(request.getMethod(), request.getUserDefinedPath(), TEST.get(), SLOT.get(), start, System.nanoTime(), status);
+    }
+
+    /** For calls that don't go through the filter; tags are passed in since they can't be read off the completing thread. */
+    void record(String method, String path, String test, String slot, long start, long end, int status) {
+        Key key = new Key(method, endpoint(path), test == null ? NO_TAG : test, slot == null ? NO_TAG : slot);
+        series.computeIfAbsent(key, k -> new Series()).record(start, end, status);
+    }
+
+    /** Snapshot of all series, sorted by endpoint, method, test, slot. */
+    public List<Map.Entry<Key, Series>> snapshot() {
+        List<Map.Entry<Key, Series>> out = new ArrayList<>(series.entrySet());
+        out.sort(Comparator.comparing((Map.Entry<Key, Series> e) -> e.getKey().endpoint())
+                .thenComparing(e -> e.getKey().method())
+                .thenComparing(e -> e.getKey().test())
+                .thenComparing(e -> e.getKey().slot()));
+        return out;
+    }
+
+    public void clear() {
+        series.clear();
+    }
+
+    // ---------------- tags ----------------
+
+    /**
+     * {@code task}, run under the calling thread's test tag wherever it ends up running.
+     * Wrap work handed to another thread with it; thread pools that live longer than one
+     * test would otherwise book their calls to no test, or to the wrong one.
+     */
+    public static Runnable inCurrentTest(Runnable task) {
+        String test = TEST.get();
+        return () -> {
+            String previous = TEST.get();
+            tagTest(test);
+            try {
+                task.run();
+            } finally {
+                tagTest(previous);
+            }
+        };
+    }
+
+    /** See {@link #inCurrentTest(Runnable)}. */
+    public static <T> Callable<T> inCurrentTest(Callable<T> task) {
+        String test = TEST.get();
+        return () -> {
+            String previous = TEST.get();
+            tagTest(test);
+            try {
+                return task.call();
+            } finally {
+                tagTest(previous);
+            }
+        };
+    }
+
+    static void tagTest(String test) {
+        if (test == null) TEST.remove();
+        else TEST.set(test);
+    }
+
+    static String currentTest() {
+        return TEST.get();
+    }
+
+    static void tagSlot(String slot) {
+        if (slot == null) SLOT.remove();
+        else SLOT.set(slot);
+    }
+
+    /** "/products/p1?x=y" becomes "/products/{id}"; "/ops/reset" is left alone. */
+    public static String endpoint(String path) {
+        if (path == null || path.isEmpty()) return "/";
+        int q = path.indexOf('?');
+        if (q >= 0) path = path.substring(0, q);
+        int second = path.indexOf('/', 1);
+        if (second < 0 || path.startsWith("/ops/")) return path;
+        int third = path.indexOf('/', second + 1);
+        return path.substring(0, second) + "/{id}" + (third < 0 ? "" : path.substring(third));
+    }
+}
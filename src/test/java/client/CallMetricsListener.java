@@ -0,0 +1,138 @@
+package client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tags every client call with the running test ("Class.method") and, once the run is
+ * over, prints a per-endpoint latency table and writes every {@link CallMetrics} series
+ * to api-latency.json and api-latency.csv in the TestNG output directory (test-output/,
+ * or target/surefire-reports under Maven). Registered through
+ * META-INF/services/org.testng.ITestNGListener.
+ */
+public class CallMetricsListener implements IInvokedMethodListener, IReporter {
+
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        CallMetrics.tagTest(testResult.getTestClass().getRealClass().getSimpleName() + "." + testResult.getName());
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        CallMetrics.tagTest(null);
+    }
+
+    @Override
+    public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+        List<Map.Entry<CallMetrics.Key, CallMetrics.Series>> series = CallMetrics.INSTANCE.snapshot();
+        if (series.isEmpty()) return;
+        printSummary(System.out, series);
+        try {
+            Path dir = Paths.get(outputDirectory);
+            Files.createDirectories(dir);
+            writeJson(dir.resolve("api-latency.json"), series);
+            writeCsv(dir.resolve("api-latency.csv"), series);
+            System.out.println("API latency written to " + dir.resolve("api-latency.json") + " and .csv");
+        } catch (IOException e) {
+            System.out.println("API latency export failed: " + e);
+        }
+    }
+
+    /** One row per method + endpoint, all tests and slots merged. */
+    static void printSummary(PrintStream out, List<Map.Entry<CallMetrics.Key, CallMetrics.Series>> series) {
+        Map<String, Histogram> merged = new TreeMap<>();
+        Map<String, long[]> counters = new TreeMap<>();
+        for (Map.Entry<CallMetrics.Key, CallMetrics.Series> e : series) {
+            String name = e.getKey().method() + " " + e.getKey().endpoint();
+            merged.computeIfAbsent(name, k -> new Histogram(3)).add(e.getValue().histogram());
+            long[] c = counters.computeIfAbsent(name, k -> new long[2]);
+            c[0] += e.getValue().non2xx();
+            c[1] += e.getValue().failures();
+        }
+        out.println("API latency by endpoint (all tests)");
+        out.println(String.format("%-24s %7s %7s %7s %9s %9s %9s %9s %9s",
+                "endpoint", "count", "non2xx", "failed", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Map.Entry<String, Histogram> e : merged.entrySet()) {
+            Histogram h = e.getValue();
+            long[] c = counters.get(e.getKey());
+            out.println(String.format("%-24s %7d %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f",
+                    e.getKey(), h.getTotalCount(), c[0], c[1], h.getMean() / 1_000.0,
+                    h.getValueAtPercentile(50) / 1_000.0, h.getValueAtPercentile(95) / 1_000.0,
+                    h.getValueAtPercentile(99) / 1_000.0, h.getMaxValue() / 1_000.0));
+        }
+    }
+
+    static void writeJson(Path file, List<Map.Entry<CallMetrics.Key, CallMetrics.Series>> series) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        ArrayNode rows = mapper.createArrayNode();
+        for (Map.Entry<CallMetrics.Key, CallMetrics.Series> e : series) {
+            CallMetrics.Key k = e.getKey();
+            CallMetrics.Series s = e.getValue();
+            ObjectNode row = rows.addObject()
+                    .put("method", k.method())
+                    .put("endpoint", k.endpoint())
+                    .put("test", k.test())
+                    .put("slot", k.slot())
+                    .put("count", s.count())
+                    .put("non2xx", s.non2xx())
+                    .put("failures", s.failures())
+                    .put("throughputPerSec", s.throughput())
+                    .put("meanMs", s.meanMs())
+                    .put("maxMs", s.maxMs());
+            ObjectNode percentiles = row.putObject("percentilesMs");
+            for (double p : PERCENTILES) percentiles.put(label(p), s.percentileMs(p));
+        }
+        ObjectNode root = mapper.createObjectNode().put("generatedAt", java.time.Instant.now().toString());
+        root.set("series", rows);
+        mapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), root);
+    }
+
+    static void writeCsv(Path file, List<Map.Entry<CallMetrics.Key, CallMetrics.Series>> series) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            StringBuilder header = new StringBuilder("method,endpoint,test,slot,count,non2xx,failures,throughput_per_s,mean_ms");
+            for (double p : PERCENTILES) header.append(',').append(label(p)).append("_ms");
+            out.println(header.append(",max_ms"));
+            for (Map.Entry<CallMetrics.Key, CallMetrics.Series> e : series) {
+                CallMetrics.Key k = e.getKey();
+                CallMetrics.Series s = e.getValue();
+                StringBuilder row = new StringBuilder()
+                        .append(k.method()).append(',').append(k.endpoint()).append(',')
+                        .append(csv(k.test())).append(',').append(csv(k.slot())).append(',')
+                        .append(s.count()).append(',').append(s.non2xx()).append(',').append(s.failures()).append(',')
+                        .append(String.format(Locale.ROOT, "%.2f,%.3f", s.throughput(), s.meanMs()));
+                for (double p : PERCENTILES) row.append(String.format(Locale.ROOT, ",%.3f", s.percentileMs(p)));
+                out.println(row.append(String.format(Locale.ROOT, ",%.3f", s.maxMs())));
+            }
+        }
+    }
+
+    private static String label(double percentile) {
+        return percentile == Math.rint(percentile) ? "p" + (int) percentile : "p" + String.valueOf(percentile).replace(".", "");
+    }
+
+    private static String csv(String v) {
+        return v.indexOf(',') < 0 && v.indexOf('"') < 0 ? v : '"' + v.replace("\"", "\"\"") + '"';
+    }
+}
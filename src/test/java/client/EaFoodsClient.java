@@ -0,0 +1,409 @@
+package client;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.CoreConnectionPNames;
+import replay.TrafficRecorder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static config.Settings.env;
+import static io.restassured.RestAssured.given;
+
+/**
+ * Typed client for the EA Foods API, shared by the functional tests, the fixtures and
+ * the load tooling.
+ *
+ * All calls go through one RestAssured spec whose HTTP client is created once and
+ * reused, backed by a pooled keep-alive connection manager, so concurrent callers
+ * share warm connections instead of opening one per request. Pool size and timeouts
+ * come from EA_HTTP_POOL_SIZE, EA_HTTP_CONNECT_TIMEOUT_MS and EA_HTTP_READ_TIMEOUT_MS.
+ * Every call is timed by {@link CallMetrics} unless EA_HTTP_METRICS=false, and recorded
+ * to a replayable traffic log when EA_RECORD names a file. Each typed method is also an
+ * {@link ApiSteps} step, and each exchange an {@link ApiCallEvent}, for JFR recordings.
+ *
+ * {@link #streamOrders} and {@link #streamProducts} walk a whole collection in
+ * json-server _page/_limit pages of EA_PAGE_SIZE rows, binding one row at a time, so
+ * memory stays bounded by the page size however large the collection grows.
+ */
+@SuppressWarnings("deprecation") // RestAssured still drives the HttpClient 4.x AbstractHttpClient API
+public final class EaFoodsClient {
+
+    public static final String SIMULATE_NOW_HEADER = "X-Simulate-Now";
+    public static final int PAGE_SIZE = Integer.parseInt(env("EA_PAGE_SIZE", "500"));
+
+    private static final int POOL_SIZE = Integer.parseInt(env("EA_HTTP_POOL_SIZE", "64"));
+    private static final int CONNECT_TIMEOUT_MS = Integer.parseInt(env("EA_HTTP_CONNECT_TIMEOUT_MS", "5000"));
+    private static final int READ_TIMEOUT_MS = Integer.parseInt(env("EA_HTTP_READ_TIMEOUT_MS", "30000"));
+    private static final boolean METRICS = Boolean.parseBoolean(env("EA_HTTP_METRICS", "true"));
+    private static final String RECORD_FILE = env("EA_RECORD", "");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final Map<String, EaFoodsClient> BY_BASE_URL = new ConcurrentHashMap<>();
+
+    // order bodies only vary in a handful of fields, so each distinct body is encoded once
+    private static final int MAX_CACHED_BODIES = 10_000;
+    private static final Map<String, byte[]> ORDER_BODIES = new ConcurrentHashMap<>();
+
+    private final String baseUrl;
+    private final RequestSpecification baseSpec;
+    private final PoolingClientConnectionManager connections;
+    private final String simulateNow;
+
+    private EaFoodsClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.connections = new PoolingClientConnectionManager();
+        connections.setMaxTotal(POOL_SIZE);
+        connections.setDefaultMaxPerRoute(POOL_SIZE);
+        HttpClientConfig httpClient = HttpClientConfig.httpClientConfig()
+                .setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, CONNECT_TIMEOUT_MS)
+                .setParam(CoreConnectionPNames.SO_TIMEOUT, READ_TIMEOUT_MS)
+                .httpClientFactory(() -> new DefaultHttpClient(connections))
+                .reuseHttpClientInstance();
+        RestAssuredConfig config = RestAssuredConfig.config()
+                .httpClient(httpClient)
+                // RestAssured re-registers the gzip interceptors on the client for every
+                // request; with a shared client that is not thread-safe, so keep them off
+                .decoderConfig(DecoderConfig.decoderConfig().noContentDecoders());
+        RequestSpecBuilder spec = new RequestSpecBuilder()
+                .setBaseUri(baseUrl)
+                .setContentType(ContentType.JSON)
+                .setConfig(config);
+        // metrics first, so the recorded latency includes reading the body
+        if (METRICS) spec.addFilter(CallMetrics.INSTANCE);
+        if (!RECORD_FILE.isEmpty()) spec.addFilter(TrafficRecorder.to(Paths.get(RECORD_FILE)));
+        this.baseSpec = spec.addFilter(EaFoodsClient::drainBody).build();
+        this.simulateNow = "";
+    }
+
+    private EaFoodsClient(EaFoodsClient shared, String simulateNow) {
+        this.baseUrl = shared.baseUrl;
+        this.baseSpec = shared.baseSpec;
+        this.connections = shared.connections;
+        this.simulateNow = simulateNow == null ? "" : simulateNow.trim();
+    }
+
+    /** Client for BASE_URL (default http://localhost:5000), created once per JVM. */
+    public static EaFoodsClient shared() {
+        return forBaseUrl(env("BASE_URL", "http://localhost:5000"));
+    }
+
+    public static EaFoodsClient forBaseUrl(String baseUrl) {
+        return BY_BASE_URL.computeIfAbsent(baseUrl, EaFoodsClient::new);
+    }
+
+    /**
+     * Forgets the client for {@code baseUrl} and closes its connection pool, for servers
+     * that go away before the JVM does (every EmbeddedBackend releases its URL on close).
+     * A later {@link #forBaseUrl} builds a fresh client.
+     */
+    public static void release(String baseUrl) {
+        EaFoodsClient client = BY_BASE_URL.remove(baseUrl);
+        if (client != null) client.connections.shutdown();
+    }
+
+    /** View of this client that sends X-Simulate-Now on every call; shares the same connection pool. */
+    public EaFoodsClient withSimulateNow(String isoInstant) {
+        return new EaFoodsClient(this, isoInstant);
+    }
+
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    public String simulateNow() {
+        return simulateNow;
+    }
+
+    /** A fresh request on the shared connection pool, for calls the typed methods don't cover. */
+    public RequestSpecification request() {
+        RequestSpecification spec = given().spec(baseSpec);
+        return simulateNow.isEmpty() ? spec : spec.header(SIMULATE_NOW_HEADER, simulateNow);
+    }
+
+    // ---------------- products ----------------
+
+    public Response getProduct(String productId) {
+        return ApiSteps.run("get product", () -> request().when().get("/products/" + productId));
+    }
+
+    public Product product(String productId) {
+        try (ApiSteps.Step step = ApiSteps.begin("get product")) {
+            Response r = expect(getProduct(productId), 200, "GET /products/" + productId);
+            return step.parse(() -> Product.from(r));
+        }
+    }
+
+    public Response getProducts() {
+        return ApiSteps.run("list products", () -> request().when().get("/products"));
+    }
+
+    public List<Product> products() {
+        try (ApiSteps.Step step = ApiSteps.begin("list products")) {
+            Response r = expect(getProducts(), 200, "GET /products");
+            return step.parse(() -> readList(r, Product.class));
+        }
+    }
+
+    public Response getProductsPage(int page, int limit) {
+        return ApiSteps.run("list products", () -> request().queryParam("_page", page).queryParam("_limit", limit).when().get("/products"));
+    }
+
+    /** Every product, read page by page; see {@link #streamOrders(String, int)}. */
+    public Stream<Product> streamProducts() {
+        return paged(page -> expect(getProductsPage(page, PAGE_SIZE), 200, "GET /products"), PAGE_SIZE, Product.class);
+    }
+
+    public Response updateStock(Map<String, Integer> stock) {
+        try (ApiSteps.Step step = ApiSteps.begin("update stock")) {
+            String body = step.serialize(() -> updatesBody(stock));
+            return request().body(body).when().post("/ops/update-stock");
+        }
+    }
+
+    public Response updateStock(String productId, int newStock) {
+        return updateStock(Map.of(productId, newStock));
+    }
+
+    /** POST /ops/reset: drops orders (every order when {@code productIds} is null) and applies the stock levels. */
+    public Response reset(Collection<String> productIds, Map<String, Integer> stock) {
+        try (ApiSteps.Step step = ApiSteps.begin("reset")) {
+            String body = step.serialize(() -> resetBody(productIds, stock));
+            return request().body(body).when().post("/ops/reset");
+        }
+    }
+
+    /** POST /ops/bulk-load (embedded backend only): one {"products":[...],"orders":[...]} batch of rows. */
+    public Response bulkLoad(byte[] rows) {
+        return ApiSteps.run("bulk load", () -> request().body(rows).when().post("/ops/bulk-load"));
+    }
+
+    // ---------------- orders ----------------
+
+    public Response placeOrder(String productId, int qty, String slot, String deliveryDate) {
+        CallMetrics.tagSlot(slot);
+        try (ApiSteps.Step step = ApiSteps.begin("place order")) {
+            byte[] body = step.serialize(() -> orderBody(productId, qty, slot, deliveryDate));
+            return request().body(body).when().post("/orders");
+        } finally {
+            CallMetrics.tagSlot(null);
+        }
+    }
+
+    public Response cancelOrder(String orderId) {
+        return ApiSteps.run("cancel order", () -> request().when().delete("/orders/" + orderId));
+    }
+
+    /** GET /orders, filtered to one product unless {@code productId} is null. */
+    public Response getOrders(String productId) {
+        return ApiSteps.run("list orders", () -> {
+            RequestSpecification spec = request();
+            if (productId != null) spec = spec.queryParam("productId", productId);
+            return spec.when().get("/orders");
+        });
+    }
+
+    public List<Order> orders(String productId) {
+        try (ApiSteps.Step step = ApiSteps.begin("list orders")) {
+            Response r = expect(getOrders(productId), 200, "GET /orders");
+            return step.parse(() -> readList(r, Order.class));
+        }
+    }
+
+    /** One json-server page (1-based) of GET /orders, filtered to one product unless {@code productId} is null. */
+    public Response getOrdersPage(String productId, int page, int limit) {
+        return ApiSteps.run("list orders", () -> {
+            RequestSpecification spec = request().queryParam("_page", page).queryParam("_limit", limit);
+            if (productId != null) spec = spec.queryParam("productId", productId);
+            return spec.when().get("/orders");
+        });
+    }
+
+    public List<Order> ordersPage(String productId, int page, int limit) {
+        try (ApiSteps.Step step = ApiSteps.begin("list orders")) {
+            Response r = expect(getOrdersPage(productId, page, limit), 200, "GET /orders");
+            return step.parse(() -> readList(r, Order.class));
+        }
+    }
+
+    public Stream<Order> streamOrders(String productId) {
+        return streamOrders(productId, PAGE_SIZE);
+    }
+
+    /**
+     * Every order (of one product unless {@code productId} is null), fetched lazily
+     * {@code pageSize} rows at a time and bound one row at a time. Pages are offsets, so
+     * orders placed or cancelled while the stream is consumed can be missed or seen
+     * twice; callers that delete as they go should re-read page 1 instead.
+     */
+    public Stream<Order> streamOrders(String productId, int pageSize) {
+        return paged(page -> expect(getOrdersPage(productId, page, pageSize), 200, "GET /orders"), pageSize, Order.class);
+    }
+
+    // ---------------- bodies ----------------
+
+    /** UTF-8 POST /orders body, encoded once per distinct value set. */
+    public static byte[] orderBody(String productId, int qty, String slot, String deliveryDate) {
+        String key = productId + '\u0000' + qty + '\u0000' + slot + '\u0000' + deliveryDate;
+        byte[] body = ORDER_BODIES.get(key);
+        if (body != null) return body;
+        body = new StringBuilder(96)
+                .append("{\"productId\":\"").append(productId)
+                .append("\",\"qty\":").append(qty)
+                .append(",\"slot\":\"").append(slot)
+                .append("\",\"deliveryDate\":\"").append(deliveryDate)
+                .append("\"}").toString().getBytes(StandardCharsets.UTF_8);
+        if (ORDER_BODIES.size() < MAX_CACHED_BODIES) ORDER_BODIES.put(key, body);
+        return body;
+    }
+
+    static String updatesBody(Map<String, Integer> stock) {
+        StringBuilder sb = new StringBuilder(32 + stock.size() * 40).append("{\"updates\":[");
+        int i = 0;
+        for (Map.Entry<String, Integer> e : stock.entrySet()) {
+            if (i++ > 0) sb.append(',');
+            sb.append("{\"productId\":\"").append(e.getKey()).append("\",\"newStock\":").append(e.getValue()).append('}');
+        }
+        return sb.append("]}").toString();
+    }
+
+    static String resetBody(Collection<String> productIds, Map<String, Integer> stock) {
+        StringBuilder sb = new StringBuilder("{");
+        if (productIds != null) {
+            sb.append("\"productIds\":[");
+            int i = 0;
+            for (String id : productIds) {
+                if (i++ > 0) sb.append(',');
+                sb.append('"').append(id).append('"');
+            }
+            sb.append("],");
+        }
+        String updates = updatesBody(stock);
+        return sb.append(updates, 1, updates.length()).toString();
+    }
+
+    // ---------------- json ----------------
+
+    /**
+     * With a reused HTTP client RestAssured only hands the connection back to the pool
+     * once the body has been read to the end; reading it here means callers that only
+     * look at the status code don't leak connections. Being the innermost filter, it is
+     * also where the exchange itself (network plus server) is timed for JFR.
+     */
+    private static Response drainBody(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                                      FilterContext ctx) {
+        ApiCallEvent call = new ApiCallEvent();
+        ApiSteps.Step step = ApiSteps.current();
+        if (!call.isEnabled() && step == null) {
+            Response r = ctx.next(request, response);
+            r.asByteArray();
+            return r;
+        }
+        long start = System.nanoTime();
+        call.begin();
+        Response r = ctx.next(request, response);
+        long responseBytes = r.asByteArray().length;
+        long nanos = System.nanoTime() - start;
+        String endpoint = CallMetrics.endpoint(request.getUserDefinedPath());
+        Object body = request.getBody();
+        long requestBytes = body instanceof byte[] ? ((byte[]) body).length : body instanceof String ? ((String) body).getBytes(StandardCharsets.UTF_8).length : 0;
+        if (step != null) step.exchanged(request.getMethod(), endpoint, r.statusCode(), requestBytes, responseBytes, nanos);
+        if (call.shouldCommit()) {
+            call.test = CallMetrics.currentTest();
+            call.method = request.getMethod();
+            call.endpoint = endpoint;
+            call.status = r.statusCode();
+            call.requestBytes = requestBytes;
+            call.responseBytes = responseBytes;
+            call.commit();
+        }
+        return r;
+    }
+
+    static <T> T read(Response response, Class<T> type) {
+        return read(response.asByteArray(), type);
+    }
+
+    static <T> T read(byte[] body, Class<T> type) {
+        try {
+            return MAPPER.readValue(body, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + type.getSimpleName() + " from response", e);
+        }
+    }
+
+    private static <T> List<T> readList(Response response, Class<T> type) {
+        try {
+            return MAPPER.readValue(response.asByteArray(),
+                    MAPPER.getTypeFactory().constructCollectionType(List.class, type));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read list of " + type.getSimpleName() + " from response", e);
+        }
+    }
+
+    /**
+     * Lazily fetches page 1, 2, ... and streams the rows of each. A page with fewer rows
+     * than {@code pageSize} is the last one; so is a larger one, which means the backend
+     * ignored _limit and sent the whole collection.
+     */
+    private static <T> Stream<T> paged(IntFunction<Response> fetch, int pageSize, Class<T> type) {
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private int page;
+            private boolean lastPage;
+            private JsonArrayReader<T> current;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                while (current == null || !current.hasNext()) {
+                    if (current != null) {
+                        lastPage = current.read() != pageSize;
+                        current.close();
+                        current = null;
+                    }
+                    if (lastPage) return false;
+                    // drainBody has already buffered the page, so this holds one page at most
+                    byte[] body = fetch.apply(++page).asByteArray();
+                    current = new JsonArrayReader<>(MAPPER, new ByteArrayInputStream(body), type);
+                }
+                action.accept(current.next());
+                return true;
+            }
+        };
+        return StreamSupport.stream(rows, false);
+    }
+
+    private static Response expect(Response response, int status, String call) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException(call + " returned " + response.statusCode() + ": " + response.asString());
+        }
+        return response;
+    }
+}
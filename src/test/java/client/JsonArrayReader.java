@@ -0,0 +1,87 @@
+package client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a top-level JSON array one element at a time with Jackson's {@link JsonParser},
+ * binding each element to {@code type} as it is reached. Only the current element is
+ * ever held, so the size of the array doesn't matter; the caller closes the reader (and
+ * with it the stream) when done.
+ */
+public final class JsonArrayReader<T> implements Iterator<T>, Closeable {
+
+    private final JsonParser parser;
+    private final ObjectMapper mapper;
+    private final Class<T> type;
+    private boolean advanced;
+    private boolean done;
+    private int read;
+
+    public JsonArrayReader(ObjectMapper mapper, InputStream in, Class<T> type) {
+        this.mapper = mapper;
+        this.type = type;
+        try {
+            this.parser = mapper.getFactory().createParser(in);
+            JsonToken first = parser.nextToken();
+            if (first != JsonToken.START_ARRAY) {
+                parser.close();
+                throw new IllegalStateException("Expected a JSON array of " + type.getSimpleName() + " but got " + first);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open array of " + type.getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (done) return false;
+        if (advanced) return true;
+        try {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                done = true;
+                return false;
+            }
+            advanced = true;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read array of " + type.getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        advanced = false;
+        try {
+            T value = mapper.readValue(parser, type);
+            read++;
+            return value;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + type.getSimpleName() + " #" + read, e);
+        }
+    }
+
+    /** Elements returned so far. */
+    public int read() {
+        return read;
+    }
+
+    @Override
+    public void close() {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
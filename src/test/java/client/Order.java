@@ -0,0 +1,20 @@
+package client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import io.restassured.response.Response;
+
+import java.net.http.HttpResponse;
+
+/** A row of /orders, as returned by POST /orders. */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record Order(String id, String productId, int qty, String slot, String deliveryDate, String status,
+                    String createdAt) {
+
+    public static Order from(Response response) {
+        return EaFoodsClient.read(response, Order.class);
+    }
+
+    public static Order from(HttpResponse<byte[]> response) {
+        return EaFoodsClient.read(response.body(), Order.class);
+    }
+}
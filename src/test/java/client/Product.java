@@ -0,0 +1,13 @@
+package client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import io.restassured.response.Response;
+
+/** A row of /products. */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record Product(String id, String name, int price, int stock) {
+
+    public static Product from(Response response) {
+        return EaFoodsClient.read(response, Product.class);
+    }
+}
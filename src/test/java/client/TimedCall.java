@@ -0,0 +1,47 @@
+package client;
+
+import io.restassured.response.Response;
+
+import java.util.function.Supplier;
+
+/**
+ * One timed client call: the response, or the exception that meant none came back.
+ *
+ * RestAssured rethrows ConnectException / SocketTimeoutException unchecked, so a
+ * transport failure can surface as any Exception; {@link #of} turns it into an outcome
+ * here, once, so load runners count it instead of losing the worker it escaped from.
+ */
+public record TimedCall(Response response, Exception failure, long startNanos, long endNanos) {
+
+    public static TimedCall of(Supplier<Response> call) {
+        return of(System.nanoTime(), call);
+    }
+
+    /** {@code startNanos}: when the call was meant to start, so open-loop runs count queueing delay. */
+    public static TimedCall of(long startNanos, Supplier<Response> call) {
+        try {
+            Response r = call.get();
+            return new TimedCall(r, null, startNanos, System.nanoTime());
+        } catch (Exception e) {
+            return new TimedCall(null, e, startNanos, System.nanoTime());
+        }
+    }
+
+    public boolean failed() {
+        return failure != null;
+    }
+
+    public long latencyNanos() {
+        return endNanos - startNanos;
+    }
+
+    /** Status code, or 0 when no response came back. */
+    public int status() {
+        return failure == null ? response.statusCode() : 0;
+    }
+
+    /** Status code, or the exception's simple name when no response came back. */
+    public String outcome() {
+        return failure == null ? String.valueOf(response.statusCode()) : failure.getClass().getSimpleName();
+    }
+}
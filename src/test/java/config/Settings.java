@@ -0,0 +1,28 @@
+package config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How every run mode reads its knobs: a -D system property wins over the environment
+ * variable of the same name, and a blank value means the default.
+ */
+public final class Settings {
+
+    private Settings() {
+    }
+
+    public static String env(String key, String def) {
+        String v = System.getProperty(key, System.getenv().getOrDefault(key, def));
+        return v == null || v.trim().isEmpty() ? def : v.trim();
+    }
+
+    /** The non-blank, trimmed entries of a comma-separated list. */
+    public static List<String> split(String csv) {
+        List<String> out = new ArrayList<>();
+        for (String s : csv.split(",")) {
+            if (!s.trim().isEmpty()) out.add(s.trim());
+        }
+        return out;
+    }
+}
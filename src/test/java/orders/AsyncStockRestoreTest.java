@@ -0,0 +1,105 @@
+package orders;
+
+import client.AsyncChains;
+import client.AsyncEaFoodsClient;
+import client.EaFoodsClient;
+import orders.async.StockRestoreChain;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static config.Settings.env;
+import static config.Settings.split;
+
+/**
+ * Cancel-restores-stock for every product and slot at once, on the async client.
+ *
+ * Chains for one product run one after another, since each reads that product's stock;
+ * products run side by side. ASYNC_PRODUCTS (default every product), ASYNC_SLOTS,
+ * ASYNC_REPEATS and ASYNC_MAX_CHAINS size the run. In a -Pparallel run, narrow
+ * ASYNC_PRODUCTS to products no other worker leases.
+ */
+public class AsyncStockRestoreTest {
+
+    private final int qty = Integer.parseInt(env("QTY", "2"));
+    private final String simulateNowEnv = env("SIMULATE_NOW", "");
+    private EaFoodsClient client;
+    private AsyncEaFoodsClient async;
+    private List<String> productIds;
+
+    @BeforeClass
+    public void beforeClass() {
+        client = EaFoodsClient.shared().withSimulateNow(simulateNowEnv);
+        async = AsyncEaFoodsClient.forBaseUrl(client.baseUrl()).withSimulateNow(simulateNowEnv);
+        System.out.println("Using BASE_URL = " + client.baseUrl());
+
+        // every product needs room for one order; StockSnapshotListener puts the old levels back
+        Map<String, Integer> topUp = new LinkedHashMap<>();
+        List<String> wanted = split(env("ASYNC_PRODUCTS", ""));
+        productIds = new ArrayList<>();
+        client.streamProducts().forEach(p -> {
+            if (!wanted.isEmpty() && !wanted.contains(p.id())) return;
+            productIds.add(p.id());
+            if (p.stock() < qty) topUp.put(p.id(), 10);
+        });
+        new FixtureReset(client).updateStock(topUp);
+    }
+
+    private String todayForRequest() {
+        if (!simulateNowEnv.isEmpty()) {
+            return Instant.parse(simulateNowEnv).atZone(ZoneId.systemDefault()).toLocalDate().toString();
+        }
+        return LocalDate.now().toString();
+    }
+
+    @Test
+    public void cancelRestoresStockForEveryProductAndSlot() throws Exception {
+        System.out.println("\n=== Test: cancelRestoresStockForEveryProductAndSlot (async) ===");
+
+        List<String> slots = split(env("ASYNC_SLOTS", "morning,afternoon,evening"));
+        int repeats = Integer.parseInt(env("ASYNC_REPEATS", "1"));
+        String requested = todayForRequest();
+
+        List<Supplier<CompletableFuture<List<StockRestoreChain.Result>>>> perProduct = new ArrayList<>();
+        for (String productId : productIds) {
+            List<Supplier<CompletableFuture<StockRestoreChain.Result>>> chains = new ArrayList<>();
+            for (int r = 0; r < repeats; r++) {
+                for (String slot : slots) {
+                    chains.add(() -> StockRestoreChain.run(async, productId, slot, qty, requested));
+                }
+            }
+            perProduct.add(() -> AsyncChains.sequence(chains));
+        }
+
+        long start = System.nanoTime();
+        List<List<StockRestoreChain.Result>> results = AsyncChains
+                .runAll(perProduct, Integer.parseInt(env("ASYNC_MAX_CHAINS", "256")))
+                .get(5, TimeUnit.MINUTES);
+        double ms = (System.nanoTime() - start) / 1e6;
+
+        List<String> problems = new ArrayList<>();
+        int chains = 0;
+        for (List<StockRestoreChain.Result> product : results) {
+            for (StockRestoreChain.Result r : product) {
+                chains++;
+                problems.addAll(r.problems());
+            }
+        }
+        System.out.println(String.format("%d chains (%d calls) over %d products x %d slots in %.0f ms",
+                chains, chains * 5, productIds.size(), slots.size(), ms));
+        Assert.assertTrue(problems.isEmpty(), "Stock not restored: " + problems);
+
+        System.out.println("=== End Test ===\n");
+    }
+}
@@ -0,0 +1,84 @@
+package orders;
+
+import client.EaFoodsClient;
+import orders.load.EndpointStats;
+import orders.load.LoadReport;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import workload.Feeder;
+import workload.PostmanCollection;
+import workload.RequestTemplate;
+import workload.WorkloadConfig;
+import workload.WorkloadEngine;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+import static config.Settings.env;
+
+/**
+ * Replays the Postman collection the ops team maintains as a weighted, multi-user
+ * workload. Skipped unless WORKLOAD_MODE=true; see {@link WorkloadConfig}.
+ */
+public class CollectionWorkloadTest {
+
+    private EaFoodsClient client;
+    private final String simulateNowEnv = env("SIMULATE_NOW", "");
+    private final WorkloadConfig config = WorkloadConfig.fromEnv();
+
+    @BeforeClass
+    public void beforeClass() {
+        if (!config.enabled) {
+            throw new SkipException("WORKLOAD_MODE not set; skipping collection workload.");
+        }
+        client = EaFoodsClient.shared().withSimulateNow(simulateNowEnv);
+        System.out.println("Using BASE_URL = " + client.baseUrl());
+        System.out.println("Workload config: " + config);
+    }
+
+    private String todayForRequest() {
+        if (!simulateNowEnv.isEmpty()) {
+            Instant inst = Instant.parse(simulateNowEnv);
+            return LocalDateTime.ofInstant(inst, ZoneId.systemDefault()).toLocalDate().format(DateTimeFormatter.ISO_LOCAL_DATE);
+        }
+        return LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
+    @Test
+    public void collectionReplaysWithoutTransportFailures() throws IOException, InterruptedException {
+        System.out.println("\n=== Workload: " + config.collection + " ===");
+
+        PostmanCollection collection = PostmanCollection.load(Paths.get(config.collection), config.parameterize);
+        Feeder feeder = config.feederFile.isEmpty()
+                ? Feeder.generated(config.productIds, config.slots, config.qty, todayForRequest())
+                : Feeder.csv(Paths.get(config.feederFile), config.feederRandom);
+        WorkloadEngine engine = new WorkloadEngine(client, collection, config, feeder);
+        for (RequestTemplate t : engine.templates()) {
+            System.out.println("  weight " + config.weight(t.name()) + ": " + t);
+        }
+
+        LoadReport report = engine.run(config.virtualUsers, config.durationSeconds, config.maxIterations,
+                config.thinkTimeMillis);
+        report.print(System.out);
+        if (!engine.skipped().isEmpty()) System.out.println("Skipped (no captured value yet): " + engine.skipped());
+
+        // 4xx answers are part of the recorded mix (stock runs out, cancel of a gone order);
+        // only calls that never got a status count against the run
+        for (EndpointStats s : report.endpoints()) {
+            long failures = 0;
+            for (Map.Entry<String, Long> o : s.outcomes().entrySet()) {
+                if (!Character.isDigit(o.getKey().charAt(0))) failures += o.getValue();
+            }
+            double rate = s.count() == 0 ? 0 : (double) failures / s.count();
+            Assert.assertTrue(rate <= config.maxFailureRate,
+                    String.format("%s: %d of %d calls failed without a response", s.endpoint(), failures, s.count()));
+        }
+
+        System.out.println("=== End of Workload ===\n");
+    }
+}
@@ -0,0 +1,99 @@
+package orders;
+
+import backend.EmbeddedBackend;
+import client.AsyncEaFoodsClient;
+import client.EaFoodsClient;
+import orders.cutoff.CutoffDiff;
+import orders.cutoff.CutoffMatrix;
+import orders.cutoff.CutoffMatrixConfig;
+import orders.cutoff.CutoffMatrixRunner;
+import orders.cutoff.CutoffOracle;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static config.Settings.env;
+
+/**
+ * Cutoff rule over a generated time matrix: thousands of X-Simulate-Now instants around
+ * the cutoff, midnight, month and year ends and DST transitions in several zones, placed
+ * concurrently and compared with {@link CutoffOracle}. Skipped unless MATRIX_MODE=true;
+ * see {@link CutoffMatrixConfig}.
+ *
+ * With BACKEND=embedded every zone gets its own in-process backend running in that
+ * zone. Against an external server only its own zone (MATRIX_SERVER_ZONE) can be
+ * checked.
+ */
+public class CutoffMatrixTest {
+
+    private final CutoffMatrixConfig config = CutoffMatrixConfig.fromEnv();
+    private final List<EmbeddedBackend> backends = new ArrayList<>();
+    private final Map<ZoneId, EaFoodsClient> clients = new LinkedHashMap<>();
+    private FixtureReset sharedFixtures;
+    private Map<String, Integer> stockBefore;
+
+    @BeforeClass
+    public void beforeClass() throws IOException {
+        if (!config.enabled) {
+            throw new SkipException("MATRIX_MODE not set; skipping cutoff matrix.");
+        }
+        System.out.println("Cutoff matrix config: " + config);
+        if ("embedded".equalsIgnoreCase(env("BACKEND", ""))) {
+            for (ZoneId zone : config.zones) {
+                EmbeddedBackend backend = EmbeddedBackend.forZone(zone);
+                backends.add(backend);
+                clients.put(zone, EaFoodsClient.forBaseUrl(backend.baseUrl()));
+            }
+        } else {
+            EaFoodsClient client = EaFoodsClient.shared();
+            System.out.println("Using BASE_URL = " + client.baseUrl() + " in zone " + config.serverZone
+                    + " (MATRIX_ZONES needs BACKEND=embedded to cover other zones)");
+            clients.put(config.serverZone, client);
+            sharedFixtures = new FixtureReset(client);
+            stockBefore = Map.of(config.productId, client.product(config.productId).stock());
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() throws IOException {
+        if (sharedFixtures != null) sharedFixtures.reset(List.of(config.productId), stockBefore);
+        for (EmbeddedBackend backend : backends) backend.close();
+    }
+
+    @Test
+    public void deliveryDatesMatchOracleAcrossMatrix() throws InterruptedException {
+        System.out.println("\n=== Cutoff matrix ===");
+
+        List<CutoffMatrix.Point> points = CutoffMatrix.generate(new ArrayList<>(clients.keySet()), config);
+        for (EaFoodsClient client : clients.values()) {
+            client.updateStock(config.productId, points.size() + 10).then().statusCode(200);
+        }
+
+        Map<ZoneId, AsyncEaFoodsClient> async = new LinkedHashMap<>();
+        clients.forEach((zone, client) -> async.put(zone, AsyncEaFoodsClient.forBaseUrl(client.baseUrl())));
+        CutoffMatrixRunner runner = new CutoffMatrixRunner(async, new CutoffOracle(config.oracleCutoffHour),
+                config.productId, config.concurrency);
+        long start = System.nanoTime();
+        List<CutoffMatrixRunner.Outcome> outcomes = runner.run(points);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("Placed %d orders in %.1f s (%.0f/s)", points.size(), seconds,
+                points.size() / seconds));
+
+        CutoffDiff diff = new CutoffDiff(outcomes);
+        diff.print(System.out, config.diffLimit);
+        Assert.assertTrue(diff.mismatches() <= config.maxMismatches,
+                diff.mismatches() + " of " + outcomes.size() + " instants disagree with the "
+                        + config.oracleCutoffHour + ":00 cutoff oracle in " + diff.ranges().size() + " range(s)");
+
+        System.out.println("=== End of Cutoff matrix ===\n");
+    }
+}
@@ -0,0 +1,90 @@
+package orders;
+
+import client.EaFoodsClient;
+import orders.dist.Coordinator;
+import orders.dist.DistConfig;
+import orders.dist.DistributedReport;
+import orders.load.LoadConfig;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import results.ResultReport;
+import results.ResultsConfig;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static config.Settings.env;
+
+/**
+ * Order storm from several worker JVMs at once, merged into one report. Skipped unless
+ * DIST_MODE=true; the storm itself is configured by the LOAD_* settings ({@link LoadConfig})
+ * and split across workers by {@link DistConfig}. Spawned workers' samples are reported
+ * on together in DIST_OUTPUT_DIR/report ({@link ResultsConfig}).
+ */
+public class DistributedLoadTest {
+
+    private EaFoodsClient client;
+    private final String simulateNowEnv = env("SIMULATE_NOW", "");
+    private final LoadConfig load = LoadConfig.fromEnv();
+    private final DistConfig config = DistConfig.fromEnv();
+    private final ResultsConfig results = ResultsConfig.fromEnv();
+
+    @BeforeClass
+    public void beforeClass() {
+        if (!config.enabled) {
+            throw new SkipException("DIST_MODE not set; skipping distributed load run.");
+        }
+        client = EaFoodsClient.shared().withSimulateNow(simulateNowEnv);
+        System.out.println("Using BASE_URL = " + client.baseUrl());
+        System.out.println("Load config: " + load);
+        System.out.println("Dist config: " + config);
+
+        Map<String, Integer> stock = new LinkedHashMap<>();
+        for (String productId : load.productIds) {
+            stock.put(productId, load.startingStock);
+        }
+        client.updateStock(stock).then().statusCode(200);
+    }
+
+    // ---------------- helpers ----------------
+
+    private String todayForRequest() {
+        if (!simulateNowEnv.isEmpty()) {
+            Instant inst = Instant.parse(simulateNowEnv);
+            LocalDate d = LocalDateTime.ofInstant(inst, ZoneId.systemDefault()).toLocalDate();
+            return d.format(DateTimeFormatter.ISO_LOCAL_DATE);
+        }
+        return LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
+    // ---------------- tests ----------------
+
+    @Test
+    public void distributedOrderStormMeetsSlo() throws Exception {
+        System.out.println("\n=== Distributed load: order storm ===");
+
+        DistributedReport report = new Coordinator(config, load, results).run(client.baseUrl(), simulateNowEnv, todayForRequest());
+        report.print(System.out);
+        System.out.println("Workers cancelled " + report.leftoversCancelled() + " leftover load orders; max start skew "
+                + report.maxStartSkewMillis() + " ms");
+        if (!report.samplesFiles().isEmpty()) {
+            Path reportDir = Paths.get(config.outputDir, "report");
+            ResultReport.read(report.samplesFiles(), results).write(reportDir);
+            System.out.println("Report on the workers' samples in " + reportDir.resolve("report.html"));
+        }
+
+        Assert.assertEquals(report.workers().size(), config.workers, "workers that reported back");
+        Assert.assertEquals(report.merged().scheduled(), load.totalOperations(), "operations scheduled across workers");
+        List<String> breaches = report.merged().sloBreaches(load);
+        Assert.assertTrue(breaches.isEmpty(), "SLO breached: " + breaches);
+
+        System.out.println("=== End of Distributed load ===\n");
+    }
+}
@@ -0,0 +1,141 @@
+package orders;
+
+import client.ApiSteps;
+import client.CallMetrics;
+import client.EaFoodsClient;
+import client.Order;
+import io.restassured.response.Response;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static config.Settings.env;
+
+/**
+ * Puts the backend into a known state between tests.
+ *
+ * Prefers the bulk POST /ops/reset endpoint (one call drops the orders and sets the
+ * stock). Against a backend without it, falls back to reading the orders one
+ * EA_PAGE_SIZE page at a time and cancelling each page concurrently on
+ * FIXTURE_DELETE_THREADS threads, followed by one /ops/update-stock call, so the
+ * fallback runs in bounded memory however many orders have piled up.
+ *
+ * Resets, stock updates and order clearing show up as "reset fixtures", "reset stock"
+ * and "clear orders" {@link ApiSteps} steps in JFR recordings.
+ */
+public class FixtureReset {
+
+    private static final int DELETE_THREADS = Integer.parseInt(env("FIXTURE_DELETE_THREADS", "16"));
+    // shared by every reset; threads start on the first cancel, so a reset with no orders starts none
+    private static final ExecutorService DELETE_POOL = Executors.newFixedThreadPool(DELETE_THREADS, r -> {
+        Thread t = new Thread(r, "fixture-delete");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final EaFoodsClient client;
+    private volatile boolean bulkResetAvailable = true;
+
+    public FixtureReset(EaFoodsClient client) {
+        this.client = client;
+    }
+
+    /** Drops every order of {@code productId} and sets its stock to {@code stock}. */
+    public void reset(String productId, int stock) {
+        reset(Collections.singletonList(productId), Collections.singletonMap(productId, stock));
+    }
+
+    /**
+     * Drops the orders of the given products ({@code null} means all orders) and applies
+     * the stock levels.
+     */
+    public void reset(Collection<String> productIds, Map<String, Integer> stock) {
+        ApiSteps.Step step = ApiSteps.begin("reset fixtures");
+        try {
+            if (bulkResetAvailable) {
+                Response r = client.reset(productIds, stock);
+                if (r.statusCode() == 200) return;
+                if (r.statusCode() != 404) {
+                    throw new IllegalStateException("POST /ops/reset failed: " + r.statusCode() + " " + r.asString());
+                }
+                System.out.println("POST /ops/reset not available; falling back to per-order DELETE");
+                bulkResetAvailable = false;
+            }
+            deleteOrdersConcurrently(productIds);
+            updateStock(stock);
+        } finally {
+            step.close();
+        }
+    }
+
+    /** Current stock of every product, streamed page by page from GET /products. */
+    public Map<String, Integer> snapshotStock() {
+        Map<String, Integer> stock = new LinkedHashMap<>();
+        client.streamProducts().forEach(p -> stock.put(p.id(), p.stock()));
+        return stock;
+    }
+
+    /** Sets the stock of every product in {@code stock} with one /ops/update-stock call. */
+    public void updateStock(Map<String, Integer> stock) {
+        if (stock.isEmpty()) return;
+        ApiSteps.Step step = ApiSteps.begin("reset stock");
+        try {
+            client.updateStock(stock).then().statusCode(200);
+        } finally {
+            step.close();
+        }
+    }
+
+    private void deleteOrdersConcurrently(Collection<String> productIds) {
+        // the cancels run on the pool and are "cancel order" steps of their own; this step only counts the page reads
+        ApiSteps.Step step = ApiSteps.begin("clear orders");
+        try {
+            if (productIds == null) {
+                deletePages(null);
+            } else {
+                for (String productId : productIds) deletePages(productId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while clearing orders", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Clearing orders failed", e.getCause());
+        } finally {
+            step.close();
+        }
+    }
+
+    // cancelling shifts every later order forward a page, so keep taking page 1 until it is empty
+    private void deletePages(String productId) throws InterruptedException, ExecutionException {
+        while (true) {
+            List<String> ids = new ArrayList<>();
+            for (Order o : client.ordersPage(productId, 1, EaFoodsClient.PAGE_SIZE)) ids.add(o.id());
+            if (ids.isEmpty()) return;
+
+            List<Future<Integer>> pending = new ArrayList<>();
+            int cancelled = 0;
+            try {
+                for (String id : ids) {
+                    pending.add(DELETE_POOL.submit(CallMetrics.inCurrentTest(() -> client.cancelOrder(id).statusCode())));
+                }
+                for (int i = 0; i < pending.size(); i++) {
+                    int status = pending.get(i).get();
+                    if (status == 200) {
+                        cancelled++;
+                    } else if (status != 404) {
+                        throw new IllegalStateException("DELETE /orders/" + ids.get(i) + " returned " + status);
+                    }
+                }
+            } finally {
+                // no-op once every cancel is done; on a failure, the rest of the page is not sent
+                for (Future<Integer> f : pending) f.cancel(true);
+            }
+            if (cancelled == 0) {
+                throw new IllegalStateException("GET /orders still lists orders that DELETE cannot find: " + ids);
+            }
+        }
+    }
+}
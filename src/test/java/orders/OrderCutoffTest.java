@@ -1,36 +1,31 @@
 package orders;
 
-import io.restassured.builder.RequestSpecBuilder;
-import io.restassured.http.ContentType;
+import client.EaFoodsClient;
+import client.Order;
+import client.Product;
 import io.restassured.response.Response;
-import io.restassured.specification.RequestSpecification;
+import orders.cutoff.CutoffOracle;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.lang.reflect.Method;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.Map;
-
-import static io.restassured.RestAssured.given;
 
 public class OrderCutoffTest {
 
-    private RequestSpecification baseSpec;
-    private final String baseUrl = System.getenv().getOrDefault("BASE_URL", "http://localhost:5000");
-    private final String productId = System.getenv().getOrDefault("PRODUCT_ID", "p1");
+    private EaFoodsClient client;
+    private FixtureReset fixtures;
     private final int qty = Integer.parseInt(System.getenv().getOrDefault("QTY", "1"));
     private final String simulateNowEnv = System.getenv().getOrDefault("SIMULATE_NOW", "").trim();
 
     @BeforeClass
     public void beforeClass() {
-        baseSpec = new RequestSpecBuilder()
-                .setBaseUri(baseUrl)
-                .setContentType(ContentType.JSON)
-                .build();
-        System.out.println("Using BASE_URL = " + baseUrl);
+        client = EaFoodsClient.shared().withSimulateNow(simulateNowEnv);
+        fixtures = new FixtureReset(client);
+        System.out.println("Using BASE_URL = " + client.baseUrl());
         if (!simulateNowEnv.isEmpty()) {
             System.out.println("SIMULATE_NOW detected: " + simulateNowEnv);
         } else {
@@ -39,16 +34,17 @@ public class OrderCutoffTest {
     }
 
     @BeforeMethod
-    public void beforeEachTest() {
-        resetStockTo(10);
-        clearAllOrders();
+    public void beforeEachTest(Method method) {
+        long start = System.nanoTime();
+        fixtures.reset(productId(), 10);
+        System.out.println(String.format("Setup for %s took %.1f ms", method.getName(), (System.nanoTime() - start) / 1e6));
     }
 
     // ---------------- helpers ----------------
 
-    private RequestSpecification specWithSimHeader() {
-        if (simulateNowEnv.isEmpty()) return baseSpec;
-        return baseSpec.header("X-Simulate-Now", simulateNowEnv);
+    // product owned by this worker thread, see WorkerProducts
+    private String productId() {
+        return WorkerProducts.forCurrentThread();
     }
 
     private String todayForRequest() {
@@ -70,9 +66,7 @@ public class OrderCutoffTest {
 
     private String expectedDeliveryGivenNow(LocalDateTime now, String requestedDateStr) {
         LocalDate requested = LocalDate.parse(requestedDateStr, DateTimeFormatter.ISO_LOCAL_DATE);
-        LocalDate d = requested.plusDays(1); // base +1
-        if (now.getHour() >= 18) d = d.plusDays(1); // +1 extra after cutoff
-        return d.format(DateTimeFormatter.ISO_LOCAL_DATE);
+        return CutoffOracle.DEFAULT.expectedDelivery(now, requested).format(DateTimeFormatter.ISO_LOCAL_DATE);
     }
 
     private String utcToLocal(String utcIso) {
@@ -82,40 +76,6 @@ public class OrderCutoffTest {
         return local.format(fmt);
     }
 
-    private Response getProduct() {
-        return given().spec(specWithSimHeader()).when().get("/products/" + productId);
-    }
-
-    private Response placeOrder(String slot, String deliveryDate) {
-        String body = String.format("{\"productId\":\"%s\",\"qty\":%d,\"slot\":\"%s\",\"deliveryDate\":\"%s\"}",
-                productId, qty, slot, deliveryDate);
-        return given().spec(specWithSimHeader()).body(body).when().post("/orders");
-    }
-
-    private Response cancelOrder(String id) {
-        return given().spec(specWithSimHeader()).when().delete("/orders/" + id);
-    }
-
-    private void resetStockTo(int newStock) {
-        String body = String.format("{\"updates\":[{\"productId\":\"%s\",\"newStock\":%d}]}", productId, newStock);
-        given().spec(specWithSimHeader()).body(body).when().post("/ops/update-stock").then().statusCode(200);
-    }
-
-    @SuppressWarnings("unchecked")
-    private void clearAllOrders() {
-        Response r = given().spec(specWithSimHeader()).when().get("/orders");
-        if (r.statusCode() != 200) return;
-        List<Map<String, Object>> list = r.jsonPath().getList("$");
-        if (list == null) return;
-        for (Map<String, Object> o : list) {
-            Object idObj = o.get("id");
-            if (idObj == null) continue;
-            String id = idObj.toString();
-            given().spec(specWithSimHeader()).when().delete("/orders/" + id)
-                    .then().statusCode(org.hamcrest.Matchers.anyOf(org.hamcrest.Matchers.is(200), org.hamcrest.Matchers.is(404)));
-        }
-    }
-
     // ---------------- tests ----------------
 
     @Test(priority = 1)
@@ -126,14 +86,14 @@ public class OrderCutoffTest {
         String requested = todayForRequest();
         String expected = expectedDeliveryGivenNow(now, requested);
 
-        Response created = placeOrder("morning", requested);
+        Response created = client.placeOrder(productId(), qty, "morning", requested);
         System.out.println("Response (Scenario 1): " + created.statusCode());
         System.out.println(created.asPrettyString());
         Assert.assertEquals(created.statusCode(), 201);
 
-        Map<String, Object> json = created.jsonPath().getMap("$");
-        String actualDelivery = json.get("deliveryDate").toString();
-        String createdAt = json.get("createdAt").toString();
+        Order order = Order.from(created);
+        String actualDelivery = order.deliveryDate();
+        String createdAt = order.createdAt();
 
         System.out.println("Expected delivery: " + expected + " | Actual delivery: " + actualDelivery);
         System.out.println("CreatedAt (UTC): " + createdAt);
@@ -141,7 +101,7 @@ public class OrderCutoffTest {
 
         Assert.assertEquals(actualDelivery, expected);
 
-        cancelOrder(json.get("id").toString());
+        client.cancelOrder(order.id());
         System.out.println("=== End of Scenario 1 ===\n");
     }
 
@@ -150,7 +110,7 @@ public class OrderCutoffTest {
         System.out.println("\n=== Scenario 2: Order after cut-off ===");
 
         String requested = todayForRequest();
-        Response created = placeOrder("evening", requested);
+        Response created = client.placeOrder(productId(), qty, "evening", requested);
         System.out.println("Response (Scenario 2): " + created.statusCode());
         System.out.println(created.asPrettyString());
         Assert.assertEquals(created.statusCode(), 201);
@@ -162,7 +122,7 @@ public class OrderCutoffTest {
         System.out.println("CreatedAt (UTC): " + createdAt);
         System.out.println("CreatedAt (Local): " + utcToLocal(createdAt));
 
-        cancelOrder(created.jsonPath().getString("id"));
+        client.cancelOrder(created.jsonPath().getString("id"));
         System.out.println("=== End of Scenario 2 ===\n");
     }
 
@@ -170,11 +130,11 @@ public class OrderCutoffTest {
     public void cancelRestoresStock() {
         System.out.println("\n=== Scenario 3: Cancel restores stock ===");
 
-        Response pBefore = getProduct();
-        int beforeStock = pBefore.jsonPath().getInt("stock");
+        Response pBefore = client.getProduct(productId());
+        int beforeStock = Product.from(pBefore).stock();
         System.out.println("Before stock: " + beforeStock);
 
-        Response created = placeOrder("afternoon", todayForRequest());
+        Response created = client.placeOrder(productId(), qty, "afternoon", todayForRequest());
         System.out.println("Response (Scenario 3 - Create): " + created.statusCode());
         System.out.println(created.asPrettyString());
         Assert.assertEquals(created.statusCode(), 201);
@@ -184,15 +144,15 @@ public class OrderCutoffTest {
         System.out.println("CreatedAt (UTC): " + createdAt);
         System.out.println("CreatedAt (Local): " + utcToLocal(createdAt));
 
-        Response pAfterPlace = getProduct();
-        System.out.println("After place stock: " + pAfterPlace.jsonPath().getInt("stock"));
+        Response pAfterPlace = client.getProduct(productId());
+        System.out.println("After place stock: " + Product.from(pAfterPlace).stock());
 
-        Response cancel = cancelOrder(id);
+        Response cancel = client.cancelOrder(id);
         System.out.println("Response (Scenario 3 - Cancel): " + cancel.statusCode());
         System.out.println(cancel.asPrettyString());
 
-        Response pAfterCancel = getProduct();
-        System.out.println("After cancel stock: " + pAfterCancel.jsonPath().getInt("stock"));
+        Response pAfterCancel = client.getProduct(productId());
+        System.out.println("After cancel stock: " + Product.from(pAfterCancel).stock());
 
         System.out.println("=== End of Scenario 3 ===\n");
     }
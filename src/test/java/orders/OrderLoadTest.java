@@ -0,0 +1,113 @@
+package orders;
+
+import client.EaFoodsClient;
+import io.restassured.response.Response;
+import orders.load.LoadConfig;
+import orders.load.LoadGenerator;
+import orders.load.LoadReport;
+import orders.load.OrderOps;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import results.ResultReport;
+import results.ResultsConfig;
+import results.SampleStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static config.Settings.env;
+
+/**
+ * Order-storm load run. Skipped unless LOAD_MODE=true; see {@link LoadConfig} for the
+ * rate, duration, worker and SLO settings. Every call also goes to
+ * RESULTS_DIR/load.samples, reported on in RESULTS_DIR/load-report ({@link ResultsConfig}).
+ */
+public class OrderLoadTest {
+
+    private EaFoodsClient client;
+    private final String simulateNowEnv = env("SIMULATE_NOW", "");
+    private final LoadConfig config = LoadConfig.fromEnv();
+    private final ResultsConfig results = ResultsConfig.fromEnv();
+    private LoadGenerator generator;
+
+    @BeforeClass
+    public void beforeClass() {
+        if (!config.enabled) {
+            throw new SkipException("LOAD_MODE not set; skipping order load run.");
+        }
+        client = EaFoodsClient.shared().withSimulateNow(simulateNowEnv);
+        System.out.println("Using BASE_URL = " + client.baseUrl());
+        System.out.println("Load config: " + config);
+
+        Map<String, Integer> stock = new LinkedHashMap<>();
+        for (String productId : config.productIds) {
+            stock.put(productId, config.startingStock);
+        }
+        client.updateStock(stock).then().statusCode(200);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() throws InterruptedException {
+        if (generator == null) return;
+        System.out.println("Cancelled " + generator.cancelLeftovers() + " leftover load orders");
+    }
+
+    // ---------------- helpers ----------------
+
+    private String todayForRequest() {
+        if (!simulateNowEnv.isEmpty()) {
+            Instant inst = Instant.parse(simulateNowEnv);
+            LocalDate d = LocalDateTime.ofInstant(inst, ZoneId.systemDefault()).toLocalDate();
+            return d.format(DateTimeFormatter.ISO_LOCAL_DATE);
+        }
+        return LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
+    // ---------------- tests ----------------
+
+    @Test
+    public void orderStormMeetsSlo() throws InterruptedException, IOException {
+        System.out.println("\n=== Load: order storm ===");
+
+        String requested = todayForRequest();
+        Path samplesFile = results.dir.resolve("load.samples");
+        SampleStore samples = results.record ? SampleStore.create(samplesFile, "OrderLoadTest " + config, results.blockRows) : null;
+        generator = new LoadGenerator(config, new OrderOps() {
+            @Override
+            public Response placeOrder(String productId, String slot) {
+                return client.placeOrder(productId, config.qty, slot, requested);
+            }
+
+            @Override
+            public Response cancelOrder(String id) {
+                return client.cancelOrder(id);
+            }
+        }, samples);
+
+        LoadReport report;
+        try {
+            report = generator.run();
+        } finally {
+            if (samples != null) samples.close();
+        }
+        report.print(System.out);
+        if (samples != null) {
+            Path reportDir = results.dir.resolve("load-report");
+            ResultReport.read(List.of(samplesFile), results).write(reportDir);
+            System.out.println(samples.rows() + " samples in " + samplesFile + ", report in " + reportDir.resolve("report.html"));
+        }
+
+        List<String> breaches = report.sloBreaches(config);
+        Assert.assertTrue(breaches.isEmpty(), "SLO breached: " + breaches);
+
+        System.out.println("=== End of Load ===\n");
+    }
+}
@@ -0,0 +1,198 @@
+package orders;
+
+import client.CallMetrics;
+import client.EaFoodsClient;
+import io.restassured.response.Response;
+import orders.race.RaceSchedule;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+
+import static config.Settings.env;
+
+/**
+ * Concurrency-correctness check for the read-check-write stock update in POST /orders
+ * and DELETE /orders/:id. Each round resets one product, places the seed orders, then
+ * releases a burst of parallel place/cancel calls from a start barrier and checks the
+ * stock invariants. A failing round is shrunk to the smallest schedule that still
+ * reproduces before the test fails.
+ */
+public class OversellRaceTest {
+
+    private EaFoodsClient client;
+    private String productId;
+    private final int startStock = Integer.parseInt(env("RACE_START_STOCK", "1"));
+    private final int seedOrders = Integer.parseInt(env("RACE_SEED_ORDERS", "1"));
+    private final int threads = Integer.parseInt(env("RACE_THREADS", "8"));
+    private final int rounds = Integer.parseInt(env("RACE_ROUNDS", "20"));
+    private final double cancelRatio = Double.parseDouble(env("RACE_CANCEL_RATIO", "0.3"));
+    private final long maxJitterMicros = Long.parseLong(env("RACE_MAX_JITTER_MICROS", "2000"));
+    private final int shrinkAttempts = Integer.parseInt(env("RACE_SHRINK_ATTEMPTS", "5"));
+    private final long baseSeed = Long.parseLong(env("RACE_SEED", String.valueOf(System.nanoTime())));
+
+    private ExecutorService pool;
+    // held for the whole class, unlike the per-test leases of the other tests
+    private String leasedProduct;
+
+    @BeforeClass
+    public void beforeClass() {
+        // pinned via RACE_PRODUCT_ID, otherwise this worker's own product so parallel runs don't collide
+        productId = env("RACE_PRODUCT_ID", "");
+        if (productId.isEmpty()) leasedProduct = productId = WorkerProducts.lease();
+        client = EaFoodsClient.shared();
+        pool = Executors.newFixedThreadPool(threads);
+        System.out.println("Using BASE_URL = " + client.baseUrl());
+        System.out.println("Race config: product=" + productId + " startStock=" + startStock + " seedOrders=" + seedOrders
+                + " threads=" + threads + " rounds=" + rounds + " RACE_SEED=" + baseSeed);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() {
+        if (pool != null) pool.shutdownNow();
+        WorkerProducts.release(leasedProduct);
+    }
+
+    // ---------------- helpers ----------------
+
+    private Response placeOrder() {
+        return client.placeOrder(productId, 1, "morning", LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE));
+    }
+
+    private void resetStockTo(int newStock) {
+        client.updateStock(productId, newStock).then().statusCode(200);
+    }
+
+    private Set<String> liveOrderIds() {
+        Set<String> ids = new HashSet<>();
+        client.streamOrders(productId).forEach(o -> ids.add(o.id()));
+        return ids;
+    }
+
+    /** Runs one schedule against the backend and returns the invariant violations it produced. */
+    private List<String> runRound(RaceSchedule schedule) throws Exception {
+        resetStockTo(schedule.startStock);
+        List<String> seedIds = new ArrayList<>();
+        for (int i = 0; i < schedule.seedOrders; i++) {
+            Response seed = placeOrder();
+            Assert.assertEquals(seed.statusCode(), 201, "Seed order must be accepted; RACE_START_STOCK too low?");
+            seedIds.add(seed.jsonPath().getString("id"));
+        }
+
+        int n = schedule.steps.size();
+        CountDownLatch ready = new CountDownLatch(n);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Response>> futures = new ArrayList<>();
+        for (RaceSchedule.Step step : schedule.steps) {
+            futures.add(pool.submit(CallMetrics.inCurrentTest(() -> {
+                ready.countDown();
+                go.await();
+                if (step.delayMicros > 0) LockSupport.parkNanos(step.delayMicros * 1_000);
+                return step.op == RaceSchedule.Op.PLACE ? placeOrder() : client.cancelOrder(seedIds.get(step.target));
+            })));
+        }
+        ready.await();
+        go.countDown();
+
+        Set<String> ours = new HashSet<>(seedIds);
+        int placesOk = 0;
+        Map<String, Integer> cancelsOk = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            RaceSchedule.Step step = schedule.steps.get(i);
+            Response r = futures.get(i).get(30, TimeUnit.SECONDS);
+            if (step.op == RaceSchedule.Op.PLACE && r.statusCode() == 201) {
+                placesOk++;
+                ours.add(r.jsonPath().getString("id"));
+            } else if (step.op == RaceSchedule.Op.CANCEL && r.statusCode() == 200) {
+                cancelsOk.merge(seedIds.get(step.target), 1, Integer::sum);
+            }
+        }
+
+        int finalStock = client.product(productId).stock();
+        Set<String> live = liveOrderIds();
+        live.retainAll(ours);
+
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, Integer> e : cancelsOk.entrySet()) {
+            if (e.getValue() > 1) violations.add("order " + e.getKey() + " cancelled " + e.getValue() + " times");
+        }
+        if (live.size() > schedule.startStock) {
+            violations.add("oversold: " + live.size() + " live orders for starting stock " + schedule.startStock
+                    + " (" + placesOk + " racing places accepted)");
+        }
+        if (finalStock != schedule.startStock - live.size()) {
+            violations.add("final stock " + finalStock + " != start " + schedule.startStock + " - live " + live.size());
+        }
+        if (finalStock < 0) {
+            violations.add("negative stock " + finalStock);
+        }
+
+        for (String id : live) {
+            client.cancelOrder(id);
+        }
+        return violations;
+    }
+
+    private boolean reproduces(RaceSchedule schedule) throws Exception {
+        for (int i = 0; i < shrinkAttempts; i++) {
+            if (!runRound(schedule).isEmpty()) return true;
+        }
+        return false;
+    }
+
+    /** Greedily drops steps (and jitter) while the violation still reproduces. */
+    private RaceSchedule shrink(RaceSchedule failing) throws Exception {
+        RaceSchedule current = failing;
+        if (current.hasJitter() && reproduces(current.withoutJitter())) {
+            current = current.withoutJitter();
+        }
+        boolean progress = true;
+        while (progress && current.steps.size() > 1) {
+            progress = false;
+            for (int i = 0; i < current.steps.size(); i++) {
+                RaceSchedule candidate = current.without(i);
+                if (reproduces(candidate)) {
+                    current = candidate;
+                    progress = true;
+                    break;
+                }
+            }
+        }
+        return current;
+    }
+
+    // ---------------- tests ----------------
+
+    @Test
+    public void parallelOrdersNeverOversell() throws Exception {
+        System.out.println("\n=== Race: parallel place/cancel on " + productId + " ===");
+
+        int originalStock = client.product(productId).stock();
+        try {
+            for (int round = 0; round < rounds; round++) {
+                RaceSchedule schedule = RaceSchedule.random(baseSeed + round, threads, startStock, seedOrders,
+                        cancelRatio, maxJitterMicros);
+                List<String> violations = runRound(schedule);
+                if (violations.isEmpty()) continue;
+
+                System.out.println("Round " + round + " violated stock invariants: " + violations);
+                System.out.println("Failing schedule: " + schedule);
+                RaceSchedule smallest = shrink(schedule);
+                System.out.println("Smallest reproducing schedule: " + smallest);
+                Assert.fail("Stock invariant broken in round " + round + ": " + violations
+                        + "\nSmallest reproducing schedule: " + smallest);
+            }
+            System.out.println(rounds + " rounds passed");
+        } finally {
+            resetStockTo(originalStock);
+        }
+
+        System.out.println("=== End of Race ===\n");
+    }
+}
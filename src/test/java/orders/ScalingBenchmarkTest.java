@@ -0,0 +1,48 @@
+package orders;
+
+import orders.scale.ScaleConfig;
+import orders.scale.ScalePoint;
+import orders.scale.ScalingBenchmark;
+import orders.scale.ScalingReport;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import seed.SeedConfig;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Scaling benchmark: endpoint latency at growing catalog and order-history sizes, each
+ * loaded into its own embedded backend. Skipped unless SCALE_MODE=true; see
+ * {@link ScaleConfig} and {@link SeedConfig}.
+ */
+public class ScalingBenchmarkTest {
+
+    private final ScaleConfig config = ScaleConfig.fromEnv();
+
+    @BeforeClass
+    public void beforeClass() {
+        if (!config.enabled) {
+            throw new SkipException("SCALE_MODE not set; skipping scaling benchmark.");
+        }
+        System.out.println("Scale config: " + config);
+    }
+
+    @Test
+    public void endpointLatencyAgainstDataSize() throws IOException {
+        System.out.println("\n=== Scaling benchmark ===");
+
+        List<ScalePoint> points = new ScalingBenchmark(config, SeedConfig.fromEnv()).run();
+        ScalingReport report = new ScalingReport(points);
+        report.print(System.out);
+        Path dir = Paths.get(config.outputDir);
+        report.writeCsv(dir.resolve("scale-results.csv"));
+        report.writeHtml(dir.resolve("scale.html"));
+        System.out.println("Scaling results and chart written to " + dir);
+
+        System.out.println("=== End of Scaling benchmark ===\n");
+    }
+}
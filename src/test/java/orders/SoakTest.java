@@ -0,0 +1,90 @@
+package orders;
+
+import client.EaFoodsClient;
+import orders.soak.DriftReport;
+import orders.soak.SoakConfig;
+import orders.soak.SoakRunner;
+import orders.soak.SoakSample;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static config.Settings.env;
+
+/**
+ * Soak run: hours of place/cancel traffic while latency, /orders payload size and,
+ * when configured, server RSS and backing file size are sampled. Skipped unless
+ * SOAK_MODE=true; see {@link SoakConfig}.
+ */
+public class SoakTest {
+
+    private EaFoodsClient client;
+    private final String simulateNowEnv = env("SIMULATE_NOW", "");
+    private final SoakConfig config = SoakConfig.fromEnv();
+    private SoakRunner runner;
+
+    @BeforeClass
+    public void beforeClass() {
+        if (!config.enabled) {
+            throw new SkipException("SOAK_MODE not set; skipping soak run.");
+        }
+        client = EaFoodsClient.shared().withSimulateNow(simulateNowEnv);
+        System.out.println("Using BASE_URL = " + client.baseUrl());
+        System.out.println("Soak config: " + config);
+
+        Map<String, Integer> stock = new LinkedHashMap<>();
+        for (String productId : config.productIds) {
+            stock.put(productId, config.startingStock);
+        }
+        client.updateStock(stock).then().statusCode(200);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() throws InterruptedException {
+        if (runner == null || !config.cleanup) return;
+        System.out.println("Cancelled " + runner.cancelLeftovers() + " leftover soak orders");
+    }
+
+    private String todayForRequest() {
+        if (!simulateNowEnv.isEmpty()) {
+            Instant inst = Instant.parse(simulateNowEnv);
+            return LocalDateTime.ofInstant(inst, ZoneId.systemDefault()).toLocalDate().format(DateTimeFormatter.ISO_LOCAL_DATE);
+        }
+        return LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
+    @Test
+    public void soakHasNoLatencyDrift() throws InterruptedException, IOException {
+        System.out.println("\n=== Soak: place/cancel for " + config.durationSeconds + "s ===");
+
+        runner = new SoakRunner(config, client, todayForRequest());
+        List<SoakSample> samples = runner.run();
+
+        DriftReport report = new DriftReport(samples, config.warmupSeconds);
+        report.print(System.out);
+        Path dir = Paths.get(config.outputDir);
+        report.writeCsv(dir.resolve("soak-samples.csv"));
+        report.writeHtml(dir.resolve("soak-drift.html"));
+        System.out.println("Soak samples and drift charts written to " + dir);
+
+        if (config.maxP95SlopeMsPer1kOrders >= 0) {
+            DriftReport.Fit fit = report.placeP95ByOrders();
+            Assert.assertTrue(fit.slope() <= config.maxP95SlopeMsPer1kOrders,
+                    String.format("place p95 grows %.3f ms per 1k stored orders (limit %.3f, R2=%.2f)",
+                            fit.slope(), config.maxP95SlopeMsPer1kOrders, fit.r2()));
+        }
+
+        System.out.println("=== End of Soak ===\n");
+    }
+}
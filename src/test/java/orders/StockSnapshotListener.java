@@ -0,0 +1,44 @@
+package orders;
+
+import client.EaFoodsClient;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.util.Map;
+
+/**
+ * Snapshots the stock of every product when a suite starts and puts all of it back
+ * with one /ops/update-stock call when the suite ends, so a run leaves the catalog as
+ * it found it. Registered through META-INF/services/org.testng.ITestNGListener.
+ */
+public class StockSnapshotListener implements ISuiteListener {
+
+    private FixtureReset fixtures;
+    private Map<String, Integer> snapshot;
+
+    @Override
+    public void onStart(ISuite suite) {
+        fixtures = new FixtureReset(EaFoodsClient.shared());
+        long start = System.nanoTime();
+        try {
+            snapshot = fixtures.snapshotStock();
+            System.out.println(String.format("Stock snapshot of %d products took %.1f ms",
+                    snapshot.size(), (System.nanoTime() - start) / 1e6));
+        } catch (Exception e) { // no backend yet: leave the catalog alone at the end too
+            System.out.println("Stock snapshot skipped: " + e);
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (snapshot == null) return;
+        long start = System.nanoTime();
+        try {
+            fixtures.updateStock(snapshot);
+            System.out.println(String.format("Stock restore of %d products took %.1f ms",
+                    snapshot.size(), (System.nanoTime() - start) / 1e6));
+        } catch (Exception e) {
+            System.out.println("Stock restore failed: " + e);
+        }
+    }
+}
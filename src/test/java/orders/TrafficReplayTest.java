@@ -0,0 +1,58 @@
+package orders;
+
+import client.EaFoodsClient;
+import orders.load.LoadReport;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import replay.TrafficLog;
+import replay.TrafficReplayer;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import static config.Settings.env;
+
+/**
+ * Replays a traffic log recorded with EA_RECORD against BASE_URL. Skipped unless
+ * REPLAY_LOG names a log. REPLAY_SPEED is 1 (recorded pace), N (N times faster) or
+ * max; REPLAY_MAX_STATUS_MISMATCHES (off by default) fails the run when more
+ * replayed statuses than that differ from the recording.
+ */
+public class TrafficReplayTest {
+
+    private final String log = env("REPLAY_LOG", "");
+    private final String speed = env("REPLAY_SPEED", "1");
+    private final int concurrency = Integer.parseInt(env("REPLAY_CONCURRENCY", "64"));
+    private final long maxMismatches = Long.parseLong(env("REPLAY_MAX_STATUS_MISMATCHES", "-1"));
+
+    @BeforeClass
+    public void beforeClass() {
+        if (log.isEmpty()) {
+            throw new SkipException("REPLAY_LOG not set; skipping traffic replay.");
+        }
+    }
+
+    @Test
+    public void replayRecordedTraffic() throws IOException, InterruptedException {
+        TrafficLog.Contents contents = TrafficLog.read(Paths.get(log));
+        System.out.println("\n=== Replay: " + contents.exchanges().size() + " exchanges from " + log + " at " + speed + " ===");
+
+        TrafficReplayer replayer = new TrafficReplayer(contents.exchanges());
+        System.out.println("Recorded:");
+        replayer.recorded().print(System.out);
+
+        double s = "max".equalsIgnoreCase(speed) ? 0 : Double.parseDouble(speed);
+        LoadReport report = replayer.replay(EaFoodsClient.shared(), s, concurrency);
+        System.out.println("Replayed:");
+        report.print(System.out);
+        System.out.println("Status mismatches vs recording: " + replayer.statusMismatches());
+
+        if (maxMismatches >= 0) {
+            Assert.assertTrue(replayer.statusMismatches() <= maxMismatches,
+                    replayer.statusMismatches() + " replayed statuses differ from the recording");
+        }
+        System.out.println("=== End of Replay ===\n");
+    }
+}
@@ -0,0 +1,71 @@
+package orders;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static config.Settings.env;
+import static config.Settings.split;
+
+/**
+ * Hands every running test its own product ID so parallel test methods never reset
+ * stock or clear orders that belong to another worker.
+ *
+ * PRODUCT_ID pins one product for every thread (the old serial behaviour); otherwise
+ * a test leases the next free ID from PRODUCT_POOL (default p1..p10) on first use and
+ * {@link WorkerProductsListener} returns it once the test and its @AfterMethods are
+ * done. With more threads than products, a test waits up to
+ * PRODUCT_LEASE_TIMEOUT_SECONDS (default 300) for another test to finish.
+ */
+public final class WorkerProducts {
+
+    private static final String PINNED = env("PRODUCT_ID", "");
+    private static final BlockingQueue<String> FREE = new LinkedBlockingQueue<>(
+            split(env("PRODUCT_POOL", "p1,p2,p3,p4,p5,p6,p7,p8,p9,p10")));
+    private static final long LEASE_TIMEOUT_SECONDS = Long.parseLong(env("PRODUCT_LEASE_TIMEOUT_SECONDS", "300"));
+    private static final ThreadLocal<String> LEASED = new ThreadLocal<>();
+
+    private WorkerProducts() {
+    }
+
+    /** Product owned by the test running on the calling thread. */
+    public static String forCurrentThread() {
+        String id = LEASED.get();
+        if (id == null) {
+            id = lease();
+            LEASED.set(id);
+            System.out.println(Thread.currentThread().getName() + " leased product " + id);
+        }
+        return id;
+    }
+
+    /** Returns the calling thread's product, if it holds one; called when its test is done. */
+    static void releaseCurrentThread() {
+        String id = LEASED.get();
+        if (id == null) return;
+        LEASED.remove();
+        release(id);
+    }
+
+    /** A product for a caller that outlives one test (e.g. a whole class); hand it back with {@link #release}. */
+    public static String lease() {
+        if (!PINNED.isEmpty()) return PINNED;
+        String id;
+        try {
+            id = FREE.poll(LEASE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a free product", e);
+        }
+        if (id == null) {
+            throw new IllegalStateException("No product in PRODUCT_POOL came free within " + LEASE_TIMEOUT_SECONDS
+                    + " s; add products to PRODUCT_POOL or lower the TestNG thread count");
+        }
+        return id;
+    }
+
+    public static void release(String id) {
+        if (!PINNED.isEmpty() || id == null) return;
+        FREE.add(id);
+    }
+}
@@ -0,0 +1,32 @@
+package orders;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestClass;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+/**
+ * Returns a test's {@link WorkerProducts} lease once nothing of that test is left to
+ * run: after its last @AfterMethod, after the test method itself when the class has
+ * none, or after a failed @BeforeMethod (TestNG then skips the rest). Registered
+ * through META-INF/services/org.testng.ITestNGListener.
+ */
+public class WorkerProductsListener implements IInvokedMethodListener {
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        ITestNGMethod m = method.getTestMethod();
+        ITestClass testClass = m.getTestClass();
+        ITestNGMethod[] after = testClass == null ? new ITestNGMethod[0] : testClass.getAfterTestMethods();
+        boolean done;
+        if (method.isTestMethod()) {
+            done = after.length == 0;
+        } else if (m.isAfterMethodConfiguration()) {
+            done = after.length == 0 || m.getConstructorOrMethod().equals(after[after.length - 1].getConstructorOrMethod());
+        } else {
+            done = m.isBeforeMethodConfiguration() && result.getStatus() != ITestResult.SUCCESS;
+        }
+        if (done) WorkerProducts.releaseCurrentThread();
+    }
+}
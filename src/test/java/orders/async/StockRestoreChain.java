@@ -0,0 +1,50 @@
+package orders.async;
+
+import client.AsyncEaFoodsClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The cancel-restores-stock scenario as one non-blocking chain: read stock, place an
+ * order, read stock, cancel it, read stock. Each step starts when the one it depends on
+ * completes; no thread waits in between.
+ */
+public final class StockRestoreChain {
+
+    /** Stock seen at each step of one chain. */
+    public record Result(String productId, String slot, int qty, int before, int afterPlace, int cancelStatus,
+                         int afterCancel) {
+
+        /** What went wrong, empty when the chain behaved. */
+        public List<String> problems() {
+            List<String> out = new ArrayList<>();
+            String at = productId + "/" + slot + ": ";
+            if (afterPlace != before - qty) {
+                out.add(at + "stock " + before + " -> " + afterPlace + " after placing " + qty);
+            }
+            if (cancelStatus != 200 && cancelStatus != 202 && cancelStatus != 204) {
+                out.add(at + "cancel returned " + cancelStatus);
+            }
+            if (afterCancel != before) {
+                out.add(at + "stock " + afterCancel + " after cancel, expected " + before);
+            }
+            return out;
+        }
+    }
+
+    private StockRestoreChain() {
+    }
+
+    public static CompletableFuture<Result> run(AsyncEaFoodsClient client, String productId, String slot, int qty,
+                                                String deliveryDate) {
+        return client.product(productId).thenCompose(before ->
+                client.placedOrder(productId, qty, slot, deliveryDate).thenCompose(order ->
+                        client.product(productId).thenCompose(afterPlace ->
+                                client.cancelOrder(order.id()).thenCompose(cancel ->
+                                        client.product(productId).thenApply(afterCancel ->
+                                                new Result(productId, slot, qty, before.stock(), afterPlace.stock(),
+                                                        cancel.statusCode(), afterCancel.stock()))))));
+    }
+}
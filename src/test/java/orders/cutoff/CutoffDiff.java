@@ -0,0 +1,94 @@
+package orders.cutoff;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Folds matrix outcomes into ranges: consecutive points of one zone that fail the same
+ * way become one row, bounded by the nearest passing points on either side, so a
+ * wrong cutoff hour shows up as one line per day instead of hundreds of failures.
+ */
+public class CutoffDiff {
+
+    private static final DateTimeFormatter LOCAL = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm xxx");
+
+    /**
+     * Mismatching points {@code first}..{@code last} ({@code count} of them);
+     * {@code passBefore} / {@code passAfter} are the neighbouring points that matched,
+     * null at the edge of the matrix or next to a different mismatch.
+     */
+    public record Range(ZoneId zone, String kind, Instant first, Instant last, int count,
+                        Instant passBefore, Instant passAfter) {
+    }
+
+    private final List<CutoffMatrixRunner.Outcome> outcomes;
+    private final List<Range> ranges = new ArrayList<>();
+    private final int mismatches;
+
+    /** {@code outcomes} grouped by zone and sorted by instant, as {@link CutoffMatrix#generate} produces them. */
+    public CutoffDiff(List<CutoffMatrixRunner.Outcome> outcomes) {
+        this.outcomes = outcomes;
+        int start = -1;
+        for (int i = 0; i <= outcomes.size(); i++) {
+            CutoffMatrixRunner.Outcome o = i < outcomes.size() ? outcomes.get(i) : null;
+            if (start >= 0) {
+                CutoffMatrixRunner.Outcome s = outcomes.get(start);
+                boolean same = o != null && !o.matches() && o.point().zone().equals(s.point().zone())
+                        && o.kind().equals(s.kind());
+                if (same) continue;
+                ranges.add(range(start, i - 1));
+                start = -1;
+            }
+            if (o != null && !o.matches()) start = i;
+        }
+        this.mismatches = (int) outcomes.stream().filter(o -> !o.matches()).count();
+    }
+
+    public int mismatches() {
+        return mismatches;
+    }
+
+    public List<Range> ranges() {
+        return ranges;
+    }
+
+    public void print(PrintStream out, int limit) {
+        long zones = outcomes.stream().map(o -> o.point().zone()).distinct().count();
+        out.println("Cutoff matrix: " + outcomes.size() + " instants in " + zones + " zone(s), "
+                + mismatches + " mismatch(es) in " + ranges.size() + " range(s)");
+        if (ranges.isEmpty()) return;
+        out.println(String.format("%-20s %-24s %-24s %6s  %-24s %-24s  %s",
+                "zone", "first (local)", "last (local)", "n", "passes before", "passes after", "mismatch"));
+        int shown = 0;
+        for (Range r : ranges) {
+            if (shown++ == limit) {
+                out.println("... " + (ranges.size() - limit) + " more range(s)");
+                break;
+            }
+            out.println(String.format("%-20s %-24s %-24s %6d  %-24s %-24s  %s",
+                    r.zone().getId(), local(r.first(), r.zone()), local(r.last(), r.zone()), r.count(),
+                    local(r.passBefore(), r.zone()), local(r.passAfter(), r.zone()), r.kind()));
+        }
+    }
+
+    private Range range(int from, int to) {
+        CutoffMatrixRunner.Outcome first = outcomes.get(from);
+        ZoneId zone = first.point().zone();
+        return new Range(zone, first.kind(), first.point().now(), outcomes.get(to).point().now(), to - from + 1,
+                passing(from - 1, zone), passing(to + 1, zone));
+    }
+
+    private Instant passing(int i, ZoneId zone) {
+        if (i < 0 || i >= outcomes.size()) return null;
+        CutoffMatrixRunner.Outcome o = outcomes.get(i);
+        return o.matches() && o.point().zone().equals(zone) ? o.point().now() : null;
+    }
+
+    private static String local(Instant instant, ZoneId zone) {
+        return instant == null ? "-" : LOCAL.format(instant.atZone(zone));
+    }
+}
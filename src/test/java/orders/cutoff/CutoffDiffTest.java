@@ -0,0 +1,100 @@
+package orders.cutoff;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Checks how outcomes fold into mismatch ranges: runs of the same kind within a zone,
+ * their passing neighbours, and the breaks at a different mismatch or another zone.
+ * Needs no server.
+ */
+public class CutoffDiffTest {
+
+    private static final ZoneId UTC = ZoneId.of("UTC");
+    private static final ZoneId LONDON = ZoneId.of("Europe/London");
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 31);
+
+    private static Instant at(String time) {
+        return Instant.parse("2025-01-31T" + time + ":00Z");
+    }
+
+    private static CutoffMatrixRunner.Outcome pass(ZoneId zone, String time) {
+        return new CutoffMatrixRunner.Outcome(new CutoffMatrix.Point(zone, at(time)), DAY, DAY.plusDays(1),
+                DAY.plusDays(1), 201, false, null);
+    }
+
+    // delivered +1 day where the oracle expected +2
+    private static CutoffMatrixRunner.Outcome early(ZoneId zone, String time) {
+        return new CutoffMatrixRunner.Outcome(new CutoffMatrix.Point(zone, at(time)), DAY, DAY.plusDays(2),
+                DAY.plusDays(1), 201, false, null);
+    }
+
+    private static CutoffMatrixRunner.Outcome status(ZoneId zone, String time, int status) {
+        return new CutoffMatrixRunner.Outcome(new CutoffMatrix.Point(zone, at(time)), DAY, DAY.plusDays(1),
+                null, status, false, null);
+    }
+
+    private static CutoffMatrixRunner.Outcome transport(ZoneId zone, String time) {
+        return new CutoffMatrixRunner.Outcome(new CutoffMatrix.Point(zone, at(time)), DAY, DAY.plusDays(1),
+                null, 0, false, "ConnectException");
+    }
+
+    @Test
+    public void allPassingGivesNoRanges() {
+        CutoffDiff diff = new CutoffDiff(List.of(pass(UTC, "11:59"), pass(UTC, "12:00")));
+        Assert.assertEquals(diff.mismatches(), 0);
+        Assert.assertTrue(diff.ranges().isEmpty());
+    }
+
+    @Test
+    public void sameMismatchFoldsIntoOneRangeBetweenPasses() {
+        CutoffDiff diff = new CutoffDiff(List.of(
+                pass(UTC, "11:58"),
+                early(UTC, "11:59"),
+                early(UTC, "12:00"),
+                early(UTC, "12:01"),
+                pass(UTC, "12:02")));
+
+        Assert.assertEquals(diff.mismatches(), 3);
+        Assert.assertEquals(diff.ranges(), List.of(new CutoffDiff.Range(UTC, "expected +2d, got +1d",
+                at("11:59"), at("12:01"), 3, at("11:58"), at("12:02"))));
+    }
+
+    @Test
+    public void differentKindOrZoneStartsANewRange() {
+        CutoffDiff diff = new CutoffDiff(List.of(
+                pass(UTC, "11:58"),
+                early(UTC, "11:59"),
+                status(UTC, "12:00", 400),
+                transport(UTC, "12:01"),
+                transport(LONDON, "12:02"),
+                pass(LONDON, "12:03")));
+
+        Assert.assertEquals(diff.mismatches(), 4);
+        Assert.assertEquals(diff.ranges(), List.of(
+                new CutoffDiff.Range(UTC, "expected +2d, got +1d", at("11:59"), at("11:59"), 1, at("11:58"), null),
+                new CutoffDiff.Range(UTC, "HTTP 400", at("12:00"), at("12:00"), 1, null, null),
+                new CutoffDiff.Range(UTC, "transport: ConnectException", at("12:01"), at("12:01"), 1, null, null),
+                new CutoffDiff.Range(LONDON, "transport: ConnectException", at("12:02"), at("12:02"), 1, null,
+                        at("12:03"))));
+    }
+
+    @Test
+    public void mismatchAtTheEdgesHasNoPassingNeighbour() {
+        List<CutoffDiff.Range> ranges = new CutoffDiff(List.of(
+                early(UTC, "11:59"),
+                pass(UTC, "12:00"),
+                early(UTC, "12:01"))).ranges();
+
+        Assert.assertEquals(ranges.size(), 2);
+        Assert.assertNull(ranges.get(0).passBefore());
+        Assert.assertEquals(ranges.get(0).passAfter(), at("12:00"));
+        Assert.assertEquals(ranges.get(1).passBefore(), at("12:00"));
+        Assert.assertNull(ranges.get(1).passAfter());
+    }
+}
@@ -0,0 +1,82 @@
+package orders.cutoff;
+
+import java.time.*;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.*;
+
+/**
+ * The instants a cutoff matrix run places orders at, per server time zone.
+ *
+ * Anchor dates are the last day of every month of the year (so the windows reach into
+ * the next month, and across New Year in December) plus each DST transition day of the
+ * zone. On every anchor date the matrix takes each full hour, every minute within the
+ * window around each edge hour and around the following midnight, and every minute
+ * within the window around the DST transition itself (in instant time, so skipped and
+ * repeated local hours are both covered).
+ */
+public final class CutoffMatrix {
+
+    /** One order to place: the simulated instant, read as local time in {@code zone}. */
+    public record Point(ZoneId zone, Instant now) {
+    }
+
+    private CutoffMatrix() {
+    }
+
+    /** Points grouped by zone (in the order of {@code config.zones}) and sorted by instant within a zone. */
+    public static List<Point> generate(List<ZoneId> zones, CutoffMatrixConfig config) {
+        List<Point> points = new ArrayList<>();
+        for (ZoneId zone : zones) {
+            for (Instant now : instants(zone, config)) points.add(new Point(zone, now));
+        }
+        return points;
+    }
+
+    static SortedSet<Instant> instants(ZoneId zone, CutoffMatrixConfig config) {
+        return instants(zone, config.year, config.windowMinutes, config.edgeHours);
+    }
+
+    static SortedSet<Instant> instants(ZoneId zone, int year, int windowMinutes, List<Integer> edgeHours) {
+        SortedSet<Instant> out = new TreeSet<>();
+        Duration window = Duration.ofMinutes(windowMinutes);
+
+        Set<LocalDate> anchors = new TreeSet<>();
+        for (int month = 1; month <= 12; month++) {
+            anchors.add(YearMonth.of(year, month).atEndOfMonth());
+        }
+        for (ZoneOffsetTransition t : transitions(zone, year)) {
+            anchors.add(t.getDateTimeBefore().toLocalDate());
+            minuteWindow(out, t.getInstant(), window);
+        }
+
+        for (LocalDate date : anchors) {
+            for (int hour = 0; hour < 24; hour++) {
+                out.add(date.atTime(hour, 0).atZone(zone).toInstant());
+            }
+            for (int hour : edgeHours) {
+                minuteWindow(out, date.atTime(hour, 0).atZone(zone).toInstant(), window);
+            }
+            minuteWindow(out, date.plusDays(1).atStartOfDay(zone).toInstant(), window);
+        }
+        return out;
+    }
+
+    private static void minuteWindow(Set<Instant> out, Instant center, Duration window) {
+        for (Instant t = center.minus(window); !t.isAfter(center.plus(window)); t = t.plusSeconds(60)) {
+            out.add(t);
+        }
+    }
+
+    private static List<ZoneOffsetTransition> transitions(ZoneId zone, int year) {
+        ZoneRules rules = zone.getRules();
+        Instant end = LocalDate.of(year + 1, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        List<ZoneOffsetTransition> out = new ArrayList<>();
+        ZoneOffsetTransition t = rules.nextTransition(LocalDate.of(year, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        while (t != null && t.getInstant().isBefore(end)) {
+            out.add(t);
+            t = rules.nextTransition(t.getInstant());
+        }
+        return out;
+    }
+}
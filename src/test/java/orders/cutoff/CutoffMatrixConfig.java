@@ -0,0 +1,58 @@
+package orders.cutoff;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static config.Settings.env;
+import static config.Settings.split;
+
+/**
+ * Knobs for a cutoff matrix run, from environment variables (or -D system properties)
+ * like {@link orders.load.LoadConfig}.
+ */
+public class CutoffMatrixConfig {
+
+    public final boolean enabled;
+    public final List<ZoneId> zones;
+    public final int year;
+    // minutes either side of each edge hour (and DST transition) probed minute by minute
+    public final int windowMinutes;
+    // local hours probed minute by minute on every anchor date, besides the next midnight
+    public final List<Integer> edgeHours;
+    public final int oracleCutoffHour;
+    public final int concurrency;
+    public final String productId;
+    // zone the external server runs in; only used when the backend isn't embedded
+    public final ZoneId serverZone;
+    public final int maxMismatches;
+    public final int diffLimit;
+
+    private CutoffMatrixConfig() {
+        enabled = Boolean.parseBoolean(env("MATRIX_MODE", "false"));
+        zones = new ArrayList<>();
+        for (String z : split(env("MATRIX_ZONES", "UTC,Europe/London,America/New_York,Asia/Kolkata,Australia/Sydney"))) {
+            zones.add(ZoneId.of(z));
+        }
+        year = Integer.parseInt(env("MATRIX_YEAR", "2025"));
+        windowMinutes = Integer.parseInt(env("MATRIX_WINDOW_MINUTES", "10"));
+        edgeHours = new ArrayList<>();
+        for (String h : split(env("MATRIX_EDGE_HOURS", "12,18"))) edgeHours.add(Integer.parseInt(h));
+        oracleCutoffHour = Integer.parseInt(env("MATRIX_CUTOFF_HOUR", String.valueOf(CutoffOracle.DEFAULT.cutoffHour())));
+        concurrency = Integer.parseInt(env("MATRIX_CONCURRENCY", "32"));
+        productId = env("MATRIX_PRODUCT", "p10");
+        serverZone = ZoneId.of(env("MATRIX_SERVER_ZONE", ZoneId.systemDefault().getId()));
+        maxMismatches = Integer.parseInt(env("MATRIX_MAX_MISMATCHES", "0"));
+        diffLimit = Integer.parseInt(env("MATRIX_DIFF_LIMIT", "100"));
+    }
+
+    public static CutoffMatrixConfig fromEnv() {
+        return new CutoffMatrixConfig();
+    }
+
+    @Override
+    public String toString() {
+        return "zones=" + zones + " year=" + year + " window=+/-" + windowMinutes + "min edgeHours=" + edgeHours
+                + " oracleCutoff=" + oracleCutoffHour + ":00 concurrency=" + concurrency + " product=" + productId;
+    }
+}
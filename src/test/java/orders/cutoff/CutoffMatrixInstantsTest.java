@@ -0,0 +1,75 @@
+package orders.cutoff;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.SortedSet;
+
+/**
+ * Checks which instants the cutoff matrix probes: month-end anchors with their edge-hour
+ * and midnight windows, the window across New Year, and DST transitions (skipped and
+ * repeated hours). Needs no server.
+ */
+public class CutoffMatrixInstantsTest {
+
+    // the MATRIX_* defaults: +/-10 minutes around 12:00, 18:00 and the next midnight
+    private static final List<Integer> EDGE_HOURS = List.of(12, 18);
+
+    private static SortedSet<Instant> instants(String zone) {
+        return CutoffMatrix.instants(ZoneId.of(zone), 2025, 10, EDGE_HOURS);
+    }
+
+    private static void assertMinuteWindow(SortedSet<Instant> instants, String from, String to) {
+        for (Instant t = Instant.parse(from); !t.isAfter(Instant.parse(to)); t = t.plusSeconds(60)) {
+            Assert.assertTrue(instants.contains(t), "missing " + t);
+        }
+    }
+
+    @Test
+    public void zoneWithoutDstProbesOnlyMonthEnds() {
+        // per anchor: 24 full hours, 20 more minutes around each edge hour and 21 around the next midnight
+        Assert.assertEquals(instants("UTC").size(), 12 * (24 + 20 + 20 + 21));
+        Assert.assertEquals(instants("Asia/Kolkata").size(), 12 * (24 + 20 + 20 + 21));
+    }
+
+    @Test
+    public void windowsRunFromJanuaryIntoTheNextYear() {
+        SortedSet<Instant> utc = instants("UTC");
+        Assert.assertEquals(utc.first(), Instant.parse("2025-01-31T00:00:00Z"));
+        Assert.assertEquals(utc.last(), Instant.parse("2026-01-01T00:10:00Z"));
+        assertMinuteWindow(utc, "2025-12-31T23:50:00Z", "2026-01-01T00:10:00Z");
+        assertMinuteWindow(utc, "2025-02-28T11:50:00Z", "2025-02-28T12:10:00Z");
+        Assert.assertFalse(utc.contains(Instant.parse("2025-12-31T12:11:00Z")), "outside every window");
+
+        // New Year local time, not UTC
+        SortedSet<Instant> sydney = instants("Australia/Sydney");
+        assertMinuteWindow(sydney, "2025-12-31T12:50:00Z", "2025-12-31T13:10:00Z");
+    }
+
+    @Test
+    public void springForwardSkipsTheMissingHour() {
+        SortedSet<Instant> london = instants("Europe/London");
+        // 2025-03-30 01:00 GMT jumps to 02:00 BST at 01:00Z
+        assertMinuteWindow(london, "2025-03-30T00:50:00Z", "2025-03-30T01:10:00Z");
+        // the transition day is an anchor: 12:00 BST is 11:00Z
+        assertMinuteWindow(london, "2025-03-30T10:50:00Z", "2025-03-30T11:10:00Z");
+        long hours = london.stream()
+                .filter(t -> t.atZone(ZoneId.of("Europe/London")).toLocalDate().toString().equals("2025-03-30"))
+                .filter(t -> t.atZone(ZoneId.of("Europe/London")).getMinute() == 0)
+                .count();
+        Assert.assertEquals(hours, 23, "a 23-hour day has 23 full hours");
+    }
+
+    @Test
+    public void fallBackCoversBothCopiesOfTheRepeatedHour() {
+        SortedSet<Instant> london = instants("Europe/London");
+        // 2025-10-26 02:00 BST falls back to 01:00 GMT at 01:00Z: 01:00 local is both 00:00Z and 01:00Z
+        Assert.assertTrue(london.contains(Instant.parse("2025-10-26T00:00:00Z")), "01:00 BST");
+        assertMinuteWindow(london, "2025-10-26T00:50:00Z", "2025-10-26T01:10:00Z");
+        // 12:00 GMT on the transition day
+        assertMinuteWindow(london, "2025-10-26T11:50:00Z", "2025-10-26T12:10:00Z");
+    }
+}
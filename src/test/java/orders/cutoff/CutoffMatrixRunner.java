@@ -0,0 +1,106 @@
+package orders.cutoff;
+
+import client.AsyncEaFoodsClient;
+import client.Order;
+
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Places one order per matrix point, all concurrently, each with its own
+ * X-Simulate-Now header, and checks the returned deliveryDate against the oracle.
+ * Requests ask for delivery "today" in the point's zone, as the functional tests do.
+ *
+ * Orders go through {@link AsyncEaFoodsClient}, so {@code concurrency} requests are
+ * kept on the wire without a thread (and a RestAssured call) per request; the client's
+ * EA_ASYNC_MAX_IN_FLIGHT still caps each zone's backend.
+ */
+public class CutoffMatrixRunner {
+
+    /**
+     * What one point produced; {@code actual} is null unless the order was created.
+     * {@code failure} names the exception (status 0) when the request or reading its
+     * response failed.
+     */
+    public record Outcome(CutoffMatrix.Point point, LocalDate requested, LocalDate expected, LocalDate actual,
+                          int status, boolean clockIgnored, String failure) {
+
+        public boolean matches() {
+            return status == 201 && !clockIgnored && expected.equals(actual);
+        }
+
+        /** Short description of the mismatch, equal for outcomes that fail the same way. */
+        public String kind() {
+            if (failure != null) return "transport: " + failure;
+            if (status != 201) return "HTTP " + status;
+            if (clockIgnored) return "X-Simulate-Now ignored";
+            if (actual == null) return "no deliveryDate";
+            return "expected +" + ChronoUnit.DAYS.between(requested, expected) + "d, got +"
+                    + ChronoUnit.DAYS.between(requested, actual) + "d";
+        }
+    }
+
+    private final Map<ZoneId, AsyncEaFoodsClient> clients;
+    private final CutoffOracle oracle;
+    private final String productId;
+    private final int concurrency;
+
+    /** {@code clients}: a client per zone, talking to a server whose local time is that zone. */
+    public CutoffMatrixRunner(Map<ZoneId, AsyncEaFoodsClient> clients, CutoffOracle oracle, String productId,
+                              int concurrency) {
+        this.clients = clients;
+        this.oracle = oracle;
+        this.productId = productId;
+        this.concurrency = concurrency;
+    }
+
+    /** Outcomes in the order of {@code points}. */
+    public List<Outcome> run(List<CutoffMatrix.Point> points) throws InterruptedException {
+        Semaphore window = new Semaphore(Math.max(1, concurrency));
+        List<CompletableFuture<Outcome>> pending = new ArrayList<>(points.size());
+        for (CutoffMatrix.Point p : points) {
+            window.acquire();
+            pending.add(place(p).whenComplete((o, e) -> window.release()));
+        }
+        List<Outcome> outcomes = new ArrayList<>(points.size());
+        for (CompletableFuture<Outcome> f : pending) outcomes.add(f.join());
+        return outcomes;
+    }
+
+    private CompletableFuture<Outcome> place(CutoffMatrix.Point p) {
+        ZonedDateTime local = p.now().atZone(p.zone());
+        LocalDate requested = local.toLocalDate();
+        LocalDate expected = oracle.expectedDelivery(local.toLocalDateTime(), requested);
+
+        AsyncEaFoodsClient client = clients.get(p.zone()).withSimulateNow(p.now().toString());
+        // a failed point is one more mismatch in the diff, not the end of the matrix
+        return client.placeOrder(productId, 1, "morning", requested.toString())
+                .thenApply(r -> outcome(p, requested, expected, r))
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    return new Outcome(p, requested, expected, null, 0, false, cause.getClass().getSimpleName());
+                });
+    }
+
+    private static Outcome outcome(CutoffMatrix.Point p, LocalDate requested, LocalDate expected,
+                                   HttpResponse<byte[]> r) {
+        if (r.statusCode() != 201) return new Outcome(p, requested, expected, null, r.statusCode(), false, null);
+
+        Order order = Order.from(r);
+        LocalDate actual = order.deliveryDate() == null ? null : LocalDate.parse(order.deliveryDate());
+        // server.js stamps createdAt with its own clock; a different instant means the header was not honoured
+        boolean clockIgnored = order.createdAt() != null
+                && !Instant.parse(order.createdAt()).equals(p.now().truncatedTo(ChronoUnit.MILLIS));
+        return new Outcome(p, requested, expected, actual, 201, clockIgnored, null);
+    }
+}
@@ -0,0 +1,32 @@
+package orders.cutoff;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The delivery-date rule the functional tests assert: requested date + 1 day, and one
+ * more day for orders placed at or after the cutoff hour (18:00 local by default).
+ *
+ * server/server.js cuts off at 12:00 and counts from today instead of the requested
+ * date; {@link CutoffMatrix} shows where the two disagree.
+ */
+public final class CutoffOracle {
+
+    public static final CutoffOracle DEFAULT = new CutoffOracle(18);
+
+    private final int cutoffHour;
+
+    public CutoffOracle(int cutoffHour) {
+        this.cutoffHour = cutoffHour;
+    }
+
+    public int cutoffHour() {
+        return cutoffHour;
+    }
+
+    public LocalDate expectedDelivery(LocalDateTime now, LocalDate requested) {
+        LocalDate d = requested.plusDays(1); // base +1
+        if (now.getHour() >= cutoffHour) d = d.plusDays(1); // +1 extra after cutoff
+        return d;
+    }
+}
@@ -0,0 +1,184 @@
+package orders.dist;
+
+import orders.dist.Messages.Assignment;
+import orders.dist.Messages.Hello;
+import orders.dist.Messages.Start;
+import orders.dist.Messages.WorkerResult;
+import orders.load.EndpointStats;
+import orders.load.LoadConfig;
+import orders.load.LoadReport;
+import results.ResultsConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives one order storm from several JVMs. Listens on a local socket, optionally spawns
+ * the {@link LoadWorker} processes itself, hands each worker a round-robin slice of the
+ * products and an equal share of LOAD_RATE, starts them at one wall-clock instant and
+ * merges their HdrHistograms and counters into a single {@link LoadReport}. Spawned
+ * workers also write their samples to DIST_OUTPUT_DIR/worker-N.samples when RESULTS_RECORD
+ * is on; workers on other hosts keep none.
+ */
+public class Coordinator {
+
+    private final DistConfig config;
+    private final LoadConfig load;
+    private final ResultsConfig results;
+
+    public Coordinator(DistConfig config, LoadConfig load, ResultsConfig results) {
+        this.config = config;
+        this.load = load;
+        this.results = results;
+    }
+
+    public DistributedReport run(String baseUrl, String simulateNow, String deliveryDate) throws IOException, InterruptedException {
+        List<Process> processes = new ArrayList<>();
+        List<DistChannel> channels = new ArrayList<>();
+        try (ServerSocket server = new ServerSocket(config.port, 50, InetAddress.getByName(config.bind))) {
+            if (config.spawn) {
+                processes = spawn(server.getLocalPort());
+            } else {
+                System.out.println("Waiting for " + config.workers + " workers: java -cp ... orders.dist.LoadWorker "
+                        + config.bind + " " + server.getLocalPort());
+            }
+            List<Hello> hellos = accept(server, processes, channels);
+
+            List<List<String>> slices = slices(load.productIds, config.workers);
+            List<Assignment> assignments = new ArrayList<>();
+            for (int i = 0; i < channels.size(); i++) {
+                Assignment a = new Assignment(i, baseUrl, simulateNow, deliveryDate, slices.get(i),
+                        share(load.targetRatePerSecond, config.workers, i), load.durationSeconds, load.workers,
+                        load.cancelRatio, load.qty, load.drainTimeoutSeconds, config.warmupSeconds, samplesFile(i));
+                assignments.add(a);
+                channels.get(i).send("assign", a);
+                System.out.println("Worker " + i + " (pid " + hellos.get(i).pid() + ", " + channels.get(i).remote() + "): "
+                        + a.ratePerSecond() + "/s over " + a.productIds());
+            }
+            for (DistChannel c : channels) {
+                c.timeout(TimeUnit.SECONDS.toMillis(config.connectTimeoutSeconds + config.warmupSeconds + load.drainTimeoutSeconds));
+                c.expect("ready", Void.class);
+            }
+
+            Start start = new Start(System.currentTimeMillis() + config.startDelayMillis);
+            for (DistChannel c : channels) c.send("start", start);
+
+            long resultTimeout = TimeUnit.SECONDS.toMillis(load.durationSeconds + load.drainTimeoutSeconds + 60)
+                    + config.startDelayMillis;
+            List<WorkerResult> results = new ArrayList<>();
+            for (DistChannel c : channels) {
+                c.timeout(resultTimeout);
+                results.add(c.expect("result", WorkerResult.class));
+            }
+            return new DistributedReport(assignments, results, merge(results), start.atEpochMillis());
+        } finally {
+            for (DistChannel c : channels) {
+                try {
+                    c.close();
+                } catch (IOException ignored) {
+                    // already gone
+                }
+            }
+            for (Process p : processes) {
+                if (!p.waitFor(10, TimeUnit.SECONDS)) p.destroyForcibly();
+            }
+        }
+    }
+
+    private String samplesFile(int worker) {
+        if (!config.spawn || !results.record) return null;
+        return Paths.get(config.outputDir, "worker-" + worker + ".samples").toAbsolutePath().toString();
+    }
+
+    // java from this JVM's home, the same classpath, one log file per worker
+    private List<Process> spawn(int port) throws IOException {
+        Path logs = Paths.get(config.outputDir);
+        Files.createDirectories(logs);
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String classPath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+        String host = "0.0.0.0".equals(config.bind) ? "127.0.0.1" : config.bind;
+        List<Process> processes = new ArrayList<>();
+        for (int i = 0; i < config.workers; i++) {
+            List<String> command = new ArrayList<>();
+            command.add(java);
+            for (String arg : config.workerJvmArgs.split("\\s+")) {
+                if (!arg.isEmpty()) command.add(arg);
+            }
+            command.addAll(Arrays.asList(LoadWorker.class.getName(), host, String.valueOf(port)));
+            ProcessBuilder pb = new ProcessBuilder(command).redirectErrorStream(true)
+                    .redirectOutput(logs.resolve("worker-" + i + ".log").toFile());
+            // via the environment: a surefire classpath can be longer than a command line may be
+            pb.environment().put("CLASSPATH", classPath);
+            processes.add(pb.start());
+        }
+        System.out.println("Spawned " + config.workers + " worker JVMs, logs in " + logs);
+        return processes;
+    }
+
+    private List<Hello> accept(ServerSocket server, List<Process> processes, List<DistChannel> channels) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.connectTimeoutSeconds);
+        server.setSoTimeout(1000);
+        List<Hello> hellos = new ArrayList<>();
+        while (channels.size() < config.workers) {
+            for (int i = 0; i < processes.size(); i++) {
+                if (!processes.get(i).isAlive()) {
+                    throw new IllegalStateException("worker JVM " + i + " exited with " + processes.get(i).exitValue()
+                            + " before connecting; see " + new File(config.outputDir, "worker-" + i + ".log"));
+                }
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("only " + channels.size() + " of " + config.workers + " workers connected within "
+                        + config.connectTimeoutSeconds + "s");
+            }
+            try {
+                DistChannel channel = new DistChannel(server.accept());
+                channels.add(channel);
+                channel.timeout(TimeUnit.SECONDS.toMillis(config.connectTimeoutSeconds));
+                hellos.add(channel.expect("hello", Hello.class));
+            } catch (SocketTimeoutException e) {
+                // poll the spawned processes again
+            }
+        }
+        return hellos;
+    }
+
+    private LoadReport merge(List<WorkerResult> results) {
+        Map<String, EndpointStats> merged = new LinkedHashMap<>();
+        long elapsed = 0, scheduled = 0;
+        for (WorkerResult r : results) {
+            r.endpoints().forEach(e -> e.addTo(merged.computeIfAbsent(e.endpoint(), EndpointStats::new)));
+            elapsed = Math.max(elapsed, r.elapsedNanos());
+            scheduled += r.scheduled();
+        }
+        return new LoadReport(merged.values(), elapsed, scheduled);
+    }
+
+    /** Round-robin split of the products; a worker left without one shares a product with another worker. */
+    static List<List<String>> slices(List<String> productIds, int workers) {
+        List<List<String>> slices = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            List<String> slice = new ArrayList<>();
+            for (int j = i; j < productIds.size(); j += workers) slice.add(productIds.get(j));
+            if (slice.isEmpty()) slice.add(productIds.get(i % productIds.size()));
+            slices.add(slice);
+        }
+        return slices;
+    }
+
+    // equal shares of total; the remainder goes to the first workers so the shares add up exactly
+    static int share(int total, int workers, int index) {
+        return total / workers + (index < total % workers ? 1 : 0);
+    }
+}
@@ -0,0 +1,72 @@
+package orders.dist;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One coordinator-worker connection: newline-delimited JSON messages
+ * {@code {"type": ..., "body": ...}}. An "error" message from the other side is
+ * rethrown by {@link #expect} so a failing worker fails the run with its own message.
+ */
+public class DistChannel implements Closeable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Writer out;
+
+    public DistChannel(Socket socket) throws IOException {
+        this.socket = socket;
+        socket.setTcpNoDelay(true);
+        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+    }
+
+    public static DistChannel connect(String host, int port) throws IOException {
+        return new DistChannel(new Socket(host, port));
+    }
+
+    /** Read timeout for the following {@link #expect} calls; 0 waits forever. */
+    public void timeout(long millis) throws SocketException {
+        socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, millis));
+    }
+
+    public synchronized void send(String type, Object body) throws IOException {
+        ObjectNode message = MAPPER.createObjectNode().put("type", type);
+        message.set("body", MAPPER.valueToTree(body));
+        out.write(MAPPER.writeValueAsString(message));
+        out.write('\n');
+        out.flush();
+    }
+
+    public <T> T expect(String type, Class<T> bodyType) throws IOException {
+        String line = in.readLine();
+        if (line == null) throw new IOException("connection closed while waiting for '" + type + "'");
+        JsonNode message = MAPPER.readTree(line);
+        String actual = message.path("type").asText();
+        if ("error".equals(actual)) throw new IllegalStateException(message.path("body").asText());
+        if (!type.equals(actual)) throw new IOException("expected '" + type + "' but got '" + actual + "'");
+        return bodyType == Void.class ? null : MAPPER.treeToValue(message.get("body"), bodyType);
+    }
+
+    public String remote() {
+        return String.valueOf(socket.getRemoteSocketAddress());
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
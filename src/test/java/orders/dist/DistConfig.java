@@ -0,0 +1,49 @@
+package orders.dist;
+
+import static config.Settings.env;
+
+/**
+ * Knobs for a distributed load run, from environment variables (or -D system properties)
+ * like {@link orders.load.LoadConfig}. Rate, duration, products and SLOs are the LOAD_*
+ * settings; these only say how many worker JVMs share them and how they are reached.
+ */
+public class DistConfig {
+
+    public final boolean enabled;
+    public final int workers;
+    // true: the coordinator starts the worker JVMs itself; false: they are started by hand and connect in
+    public final boolean spawn;
+    public final String bind;
+    // 0 picks a free port (only useful with spawn)
+    public final int port;
+    public final String workerJvmArgs;
+    public final int connectTimeoutSeconds;
+    // workers are told to start this far in the future so they begin together
+    public final long startDelayMillis;
+    // unrecorded storm each worker runs at its own rate before reporting ready, so JIT warm-up is not measured
+    public final int warmupSeconds;
+    public final String outputDir;
+
+    private DistConfig() {
+        enabled = Boolean.parseBoolean(env("DIST_MODE", "false"));
+        workers = Integer.parseInt(env("DIST_WORKERS", "2"));
+        spawn = Boolean.parseBoolean(env("DIST_SPAWN", "true"));
+        bind = env("DIST_BIND", "127.0.0.1");
+        port = Integer.parseInt(env("DIST_PORT", spawn ? "0" : "7071"));
+        workerJvmArgs = env("DIST_WORKER_JVM_ARGS", "-Xmx256m");
+        connectTimeoutSeconds = Integer.parseInt(env("DIST_CONNECT_TIMEOUT_SECONDS", "60"));
+        startDelayMillis = Long.parseLong(env("DIST_START_DELAY_MS", "1000"));
+        warmupSeconds = Integer.parseInt(env("DIST_WARMUP_SECONDS", "10"));
+        outputDir = env("DIST_OUTPUT_DIR", "test-output/dist");
+    }
+
+    public static DistConfig fromEnv() {
+        return new DistConfig();
+    }
+
+    @Override
+    public String toString() {
+        return "workers=" + workers + " spawn=" + spawn + " bind=" + bind + ":" + (port == 0 ? "auto" : port)
+                + " workerJvmArgs=" + workerJvmArgs + " warmup=" + warmupSeconds + "s";
+    }
+}
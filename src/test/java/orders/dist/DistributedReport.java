@@ -0,0 +1,75 @@
+package orders.dist;
+
+import orders.dist.Messages.Assignment;
+import orders.dist.Messages.EndpointResult;
+import orders.dist.Messages.WorkerResult;
+import orders.load.LoadGenerator;
+import orders.load.LoadReport;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Result of a distributed run: one line per worker JVM (its share, what it achieved and
+ * how late it started) followed by the merged {@link LoadReport}.
+ */
+public class DistributedReport {
+
+    private final List<Assignment> assignments;
+    private final List<WorkerResult> workers;
+    private final LoadReport merged;
+    private final long startAtEpochMillis;
+
+    public DistributedReport(List<Assignment> assignments, List<WorkerResult> workers, LoadReport merged, long startAtEpochMillis) {
+        this.assignments = assignments;
+        this.workers = workers;
+        this.merged = merged;
+        this.startAtEpochMillis = startAtEpochMillis;
+    }
+
+    public LoadReport merged() {
+        return merged;
+    }
+
+    public List<WorkerResult> workers() {
+        return workers;
+    }
+
+    /** The sample files the workers wrote; empty unless they were spawned with RESULTS_RECORD on. */
+    public List<Path> samplesFiles() {
+        return assignments.stream().map(Assignment::samplesFile).filter(Objects::nonNull).map(Paths::get).toList();
+    }
+
+    public int leftoversCancelled() {
+        return workers.stream().mapToInt(WorkerResult::leftoversCancelled).sum();
+    }
+
+    /** Largest gap between the shared start instant and a worker actually starting. */
+    public long maxStartSkewMillis() {
+        return workers.stream().mapToLong(w -> Math.abs(w.startedAtEpochMillis() - startAtEpochMillis)).max().orElse(0);
+    }
+
+    public void print(PrintStream out) {
+        out.println(String.format("%-6s %8s %7s %9s %9s %12s %9s  %s",
+                "worker", "pid", "rate/s", "ops", "req/s", "place p99 ms", "skew ms", "products"));
+        for (WorkerResult w : workers) {
+            Assignment a = assignments.get(w.worker());
+            long ops = 0;
+            double p99 = 0;
+            for (EndpointResult e : w.endpoints()) {
+                Histogram h = e.decode();
+                ops += h.getTotalCount();
+                if (LoadGenerator.PLACE.equals(e.endpoint())) p99 = h.getValueAtPercentile(99) / 1_000.0;
+            }
+            out.println(String.format("%-6d %8d %7d %9d %9.1f %12.2f %9d  %s", w.worker(), w.pid(), a.ratePerSecond(), ops,
+                    w.elapsedNanos() == 0 ? 0 : ops / (w.elapsedNanos() / 1e9), p99,
+                    w.startedAtEpochMillis() - startAtEpochMillis, a.productIds()));
+        }
+        out.println("Merged over " + workers.size() + " worker JVMs:");
+        merged.print(out);
+    }
+}
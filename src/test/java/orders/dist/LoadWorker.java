@@ -0,0 +1,117 @@
+package orders.dist;
+
+import client.EaFoodsClient;
+import io.restassured.response.Response;
+import orders.dist.Messages.Assignment;
+import orders.dist.Messages.EndpointResult;
+import orders.dist.Messages.Hello;
+import orders.dist.Messages.Start;
+import orders.dist.Messages.WorkerResult;
+import orders.load.LoadConfig;
+import orders.load.LoadGenerator;
+import orders.load.LoadReport;
+import orders.load.OrderOps;
+import results.ResultsConfig;
+import results.SampleStore;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One load-generating JVM of a distributed run. Connects to the {@link Coordinator},
+ * receives its slice (products, rate, duration), warms up, waits for the shared start
+ * instant, runs an ordinary {@link LoadGenerator} and sends back the raw histograms
+ * (plus, when assigned a samples file, writes every measured call to it).
+ *
+ * <pre>java -cp ... orders.dist.LoadWorker [coordinatorHost [port]]</pre>
+ */
+public class LoadWorker {
+
+    private static final long CONNECT_RETRY_SECONDS = 120;
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "127.0.0.1";
+        int port = Integer.parseInt(args.length > 1 ? args[1] : "7071");
+        long pid = ProcessHandle.current().pid();
+        try (DistChannel channel = connect(host, port)) {
+            channel.send("hello", new Hello(pid));
+            Assignment assignment = channel.expect("assign", Assignment.class);
+            System.out.println("Worker " + assignment.worker() + " (pid " + pid + "): " + assignment);
+            try {
+                channel.send("result", run(channel, assignment, pid));
+            } catch (Exception e) {
+                channel.send("error", "worker " + assignment.worker() + " (pid " + pid + "): " + e);
+                throw e;
+            }
+        }
+    }
+
+    private static WorkerResult run(DistChannel channel, Assignment a, long pid) throws Exception {
+        EaFoodsClient client = EaFoodsClient.forBaseUrl(a.baseUrl()).withSimulateNow(a.simulateNow());
+        OrderOps ops = new OrderOps() {
+            @Override
+            public Response placeOrder(String productId, String slot) {
+                return client.placeOrder(productId, a.qty(), slot, a.deliveryDate());
+            }
+
+            @Override
+            public Response cancelOrder(String id) {
+                return client.cancelOrder(id);
+            }
+        };
+
+        // class loading, the first connections and JIT warm-up stay out of the measured run
+        client.getProduct(a.productIds().get(0)).then().statusCode(200);
+        if (a.warmupSeconds() > 0) {
+            LoadGenerator warmup = new LoadGenerator(config(a, a.warmupSeconds()), ops);
+            warmup.run();
+            warmup.cancelLeftovers();
+        }
+        channel.send("ready", null);
+
+        Start start = channel.expect("start", Start.class);
+        long wait;
+        while ((wait = start.atEpochMillis() - System.currentTimeMillis()) > 0) {
+            Thread.sleep(wait);
+        }
+        long startedAt = System.currentTimeMillis();
+        SampleStore samples = a.samplesFile() == null ? null
+                : SampleStore.create(Paths.get(a.samplesFile()), "worker " + a.worker() + " pid " + pid,
+                ResultsConfig.fromEnv().blockRows);
+        LoadGenerator generator = new LoadGenerator(config(a, a.durationSeconds()), ops, samples);
+        LoadReport report;
+        try {
+            report = generator.run();
+        } finally {
+            if (samples != null) samples.close();
+        }
+        report.print(System.out);
+        int cancelled = generator.cancelLeftovers();
+
+        List<EndpointResult> endpoints = new ArrayList<>();
+        report.endpoints().forEach(s -> endpoints.add(EndpointResult.of(s)));
+        return new WorkerResult(a.worker(), pid, startedAt, report.elapsedNanos(), report.scheduled(), cancelled, endpoints);
+    }
+
+    // a worker started by hand may come up before the coordinator listens
+    private static DistChannel connect(String host, int port) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(CONNECT_RETRY_SECONDS);
+        while (true) {
+            try {
+                return DistChannel.connect(host, port);
+            } catch (ConnectException e) {
+                if (System.nanoTime() > deadline) throw e;
+                Thread.sleep(500);
+            }
+        }
+    }
+
+    private static LoadConfig config(Assignment a, int durationSeconds) {
+        return LoadConfig.forWorker(a.productIds(), a.ratePerSecond(), durationSeconds, a.threads(), a.cancelRatio(), a.qty(),
+                a.drainTimeoutSeconds());
+    }
+}
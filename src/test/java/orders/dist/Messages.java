@@ -0,0 +1,65 @@
+package orders.dist;
+
+import orders.load.EndpointStats;
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+
+/** Bodies of the messages a coordinator and its workers exchange over a {@link DistChannel}. */
+public final class Messages {
+
+    private Messages() {
+    }
+
+    /** Worker to coordinator, right after connecting. */
+    public record Hello(long pid) {
+    }
+
+    /** Coordinator to worker: this worker's slice of the run; samplesFile is null when samples are not kept. */
+    public record Assignment(int worker, String baseUrl, String simulateNow, String deliveryDate,
+                             List<String> productIds, int ratePerSecond, int durationSeconds, int threads,
+                             double cancelRatio, int qty, long drainTimeoutSeconds, int warmupSeconds,
+                             String samplesFile) {
+    }
+
+    /** Coordinator to every worker once all are ready: wall-clock start, shared by processes on one box. */
+    public record Start(long atEpochMillis) {
+    }
+
+    /** Worker to coordinator after its run and cleanup. */
+    public record WorkerResult(int worker, long pid, long startedAtEpochMillis, long elapsedNanos, long scheduled,
+                               int leftoversCancelled, List<EndpointResult> endpoints) {
+    }
+
+    /**
+     * One endpoint's {@link EndpointStats}, with the latency histogram in HdrHistogram's
+     * compressed encoding (base64) so it can be merged losslessly on the other side.
+     */
+    public record EndpointResult(String endpoint, String latencyMicros, Map<String, Long> outcomes, long errors) {
+
+        public static EndpointResult of(EndpointStats stats) {
+            Histogram h = stats.histogram().copy();
+            ByteBuffer buffer = ByteBuffer.allocate(h.getNeededByteBufferCapacity());
+            int length = h.encodeIntoCompressedByteBuffer(buffer);
+            String encoded = Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+            return new EndpointResult(stats.endpoint(), encoded, stats.outcomes(), stats.errors());
+        }
+
+        public Histogram decode() {
+            try {
+                return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(latencyMicros)), 0);
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("corrupt histogram for " + endpoint, e);
+            }
+        }
+
+        public void addTo(EndpointStats stats) {
+            stats.add(decode(), outcomes, errors);
+        }
+    }
+}
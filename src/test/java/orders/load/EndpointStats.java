@@ -0,0 +1,89 @@
+package orders.load;
+
+import client.TimedCall;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (microseconds) and outcome counters for one endpoint.
+ * Safe to record into from any number of worker threads.
+ */
+public class EndpointStats {
+
+    private final String endpoint;
+    private final Histogram latencyMicros = new ConcurrentHistogram(3);
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+
+    public EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /** Records a completed call; statusCode &gt;= 400 counts as an error. */
+    public void record(long latencyNanos, int statusCode) {
+        latencyMicros.recordValue(Math.max(1, latencyNanos / 1_000));
+        outcomes.computeIfAbsent(String.valueOf(statusCode), k -> new LongAdder()).increment();
+        if (statusCode >= 400) errors.increment();
+    }
+
+    /** Records a call either way: its status code, or its failure when none came back. */
+    public void record(TimedCall call) {
+        if (call.failed()) recordFailure(call.latencyNanos(), call.failure());
+        else record(call.latencyNanos(), call.status());
+    }
+
+    /** Records a call that never produced a status code (connect refused, timeout, ...). */
+    public void recordFailure(long latencyNanos, Throwable t) {
+        latencyMicros.recordValue(Math.max(1, latencyNanos / 1_000));
+        outcomes.computeIfAbsent(t.getClass().getSimpleName(), k -> new LongAdder()).increment();
+        errors.increment();
+    }
+
+    /** Adds another process's latencies and outcomes to this one (see {@link orders.dist.Coordinator}). */
+    public void add(Histogram otherLatencyMicros, Map<String, Long> otherOutcomes, long otherErrors) {
+        latencyMicros.add(otherLatencyMicros);
+        otherOutcomes.forEach((k, v) -> outcomes.computeIfAbsent(k, x -> new LongAdder()).add(v));
+        errors.add(otherErrors);
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    public long count() {
+        return latencyMicros.getTotalCount();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public double errorRate() {
+        long n = count();
+        return n == 0 ? 0 : (double) errors() / n;
+    }
+
+    public double percentileMs(double percentile) {
+        return latencyMicros.getValueAtPercentile(percentile) / 1_000.0;
+    }
+
+    public double maxMs() {
+        return latencyMicros.getMaxValue() / 1_000.0;
+    }
+
+    public Histogram histogram() {
+        return latencyMicros;
+    }
+
+    /** Status code (or exception name) to count, sorted for stable output. */
+    public Map<String, Long> outcomes() {
+        Map<String, Long> out = new TreeMap<>();
+        outcomes.forEach((k, v) -> out.put(k, v.sum()));
+        return out;
+    }
+}
@@ -0,0 +1,84 @@
+package orders.load;
+
+import java.util.List;
+
+import static config.Settings.env;
+import static config.Settings.split;
+
+/**
+ * Knobs for an order-storm run. Everything comes from environment variables so the
+ * load mode is driven the same way as BASE_URL / PRODUCT_ID / SIMULATE_NOW in the
+ * functional tests.
+ */
+public class LoadConfig {
+
+    public final boolean enabled;
+    public final int targetRatePerSecond;
+    public final int durationSeconds;
+    public final int workers;
+    public final double cancelRatio;
+    public final List<String> productIds;
+    public final int qty;
+    public final int startingStock;
+    public final long drainTimeoutSeconds;
+
+    // SLO thresholds; a negative value disables the check
+    public final double sloP50Ms;
+    public final double sloP95Ms;
+    public final double sloP99Ms;
+    public final double sloP999Ms;
+    public final double sloMaxErrorRate;
+
+    private LoadConfig() {
+        enabled = Boolean.parseBoolean(env("LOAD_MODE", "false"));
+        targetRatePerSecond = Integer.parseInt(env("LOAD_RATE", "200"));
+        durationSeconds = Integer.parseInt(env("LOAD_DURATION_SECONDS", "30"));
+        workers = Integer.parseInt(env("LOAD_WORKERS", "64"));
+        cancelRatio = Double.parseDouble(env("LOAD_CANCEL_RATIO", "0.5"));
+        productIds = split(env("LOAD_PRODUCTS", "p1,p2,p3,p4,p5,p6,p7,p8,p9,p10"));
+        qty = Integer.parseInt(env("QTY", "1"));
+        startingStock = Integer.parseInt(env("LOAD_STOCK", "1000000"));
+        drainTimeoutSeconds = Long.parseLong(env("LOAD_DRAIN_TIMEOUT_SECONDS", "60"));
+
+        sloP50Ms = Double.parseDouble(env("LOAD_SLO_P50_MS", "-1"));
+        sloP95Ms = Double.parseDouble(env("LOAD_SLO_P95_MS", "-1"));
+        sloP99Ms = Double.parseDouble(env("LOAD_SLO_P99_MS", "1000"));
+        sloP999Ms = Double.parseDouble(env("LOAD_SLO_P999_MS", "-1"));
+        sloMaxErrorRate = Double.parseDouble(env("LOAD_SLO_MAX_ERROR_RATE", "0.01"));
+    }
+
+    // one worker JVM's share of a distributed run; SLOs are checked on the merged result
+    private LoadConfig(List<String> productIds, int ratePerSecond, int durationSeconds, int workers,
+                       double cancelRatio, int qty, long drainTimeoutSeconds) {
+        enabled = true;
+        targetRatePerSecond = ratePerSecond;
+        this.durationSeconds = durationSeconds;
+        this.workers = workers;
+        this.cancelRatio = cancelRatio;
+        this.productIds = productIds;
+        this.qty = qty;
+        startingStock = -1;
+        this.drainTimeoutSeconds = drainTimeoutSeconds;
+        sloP50Ms = sloP95Ms = sloP99Ms = sloP999Ms = sloMaxErrorRate = -1;
+    }
+
+    public static LoadConfig fromEnv() {
+        return new LoadConfig();
+    }
+
+    /** Config for a worker that drives only {@code productIds} at {@code ratePerSecond}; see {@link orders.dist.LoadWorker}. */
+    public static LoadConfig forWorker(List<String> productIds, int ratePerSecond, int durationSeconds, int workers,
+                                       double cancelRatio, int qty, long drainTimeoutSeconds) {
+        return new LoadConfig(productIds, ratePerSecond, durationSeconds, workers, cancelRatio, qty, drainTimeoutSeconds);
+    }
+
+    public long totalOperations() {
+        return (long) targetRatePerSecond * durationSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "rate=" + targetRatePerSecond + "/s duration=" + durationSeconds + "s workers=" + workers
+                + " cancelRatio=" + cancelRatio + " products=" + productIds + " qty=" + qty;
+    }
+}
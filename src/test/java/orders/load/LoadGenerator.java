@@ -0,0 +1,100 @@
+package orders.load;
+
+import client.TimedCall;
+import results.SampleStore;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open-loop order storm: operations are scheduled at a fixed rate regardless of how
+ * fast the backend answers, and each latency is measured from the operation's
+ * intended start time. A slow backend therefore shows up as growing latency instead
+ * of silently lowering the offered load (no coordinated omission). With a
+ * {@link SampleStore}, every call is also appended to it as one sample.
+ */
+public class LoadGenerator {
+
+    public static final String PLACE = "POST /orders";
+    public static final String CANCEL = "DELETE /orders/{id}";
+
+    private static final List<String> SLOTS = Arrays.asList("morning", "afternoon", "evening");
+
+    private final LoadConfig config;
+    private final OrderOps ops;
+    private final EndpointStats placeStats = new EndpointStats(PLACE);
+    private final EndpointStats cancelStats = new EndpointStats(CANCEL);
+    private final Queue<String> liveOrders = new ConcurrentLinkedQueue<>();
+    private final SampleStore samples;
+
+    public LoadGenerator(LoadConfig config, OrderOps ops) {
+        this(config, ops, null);
+    }
+
+    /** {@code samples} may be null; the generator does not close it. */
+    public LoadGenerator(LoadConfig config, OrderOps ops, SampleStore samples) {
+        this.config = config;
+        this.ops = ops;
+        this.samples = samples;
+    }
+
+    /** Runs the storm for the configured duration, waits for in-flight calls and returns the report. */
+    public LoadReport run() throws InterruptedException {
+        ExecutorService pool = OpenLoop.newWorkerPool("order-storm", config.workers);
+        long total = config.totalOperations();
+        long intervalNanos = 1_000_000_000L / Math.max(1, config.targetRatePerSecond);
+        long start = System.nanoTime();
+        try {
+            OpenLoop.schedule(pool, start, total, intervalNanos, this::runOne);
+        } finally {
+            OpenLoop.drain(pool, config.drainTimeoutSeconds, "Load run");
+        }
+        long elapsed = System.nanoTime() - start;
+        return new LoadReport(Arrays.asList(placeStats, cancelStats), elapsed, total);
+    }
+
+    /** Cancels every order the run placed and did not cancel itself; not recorded in the report. */
+    public int cancelLeftovers() throws InterruptedException {
+        ExecutorService pool = OpenLoop.newWorkerPool("order-storm", config.workers);
+        AtomicInteger cancelled = new AtomicInteger();
+        String id;
+        while ((id = liveOrders.poll()) != null) {
+            final String orderId = id;
+            // best effort cleanup: failures are just not counted
+            pool.execute(() -> {
+                if (TimedCall.of(() -> ops.cancelOrder(orderId)).status() == 200) cancelled.incrementAndGet();
+            });
+        }
+        OpenLoop.drain(pool, config.drainTimeoutSeconds, "Load cleanup");
+        return cancelled.get();
+    }
+
+    private void runOne(long intendedStart) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        String toCancel = rnd.nextDouble() < config.cancelRatio ? liveOrders.poll() : null;
+        if (toCancel != null) {
+            TimedCall call = TimedCall.of(intendedStart, () -> ops.cancelOrder(toCancel));
+            cancelStats.record(call);
+            sample(CANCEL, SampleStore.NO_SLOT, call);
+            return;
+        }
+        String productId = config.productIds.get(rnd.nextInt(config.productIds.size()));
+        String slot = SLOTS.get(rnd.nextInt(SLOTS.size()));
+        TimedCall call = TimedCall.of(intendedStart, () -> ops.placeOrder(productId, slot));
+        placeStats.record(call);
+        sample(PLACE, slot, call);
+        if (call.status() == 201) {
+            String id = call.response().jsonPath().getString("id");
+            if (id != null) liveOrders.add(id);
+        }
+    }
+
+    private void sample(String endpoint, String slot, TimedCall call) {
+        if (samples != null) samples.record(endpoint, slot, call.outcome(), call.startNanos(), call.latencyNanos());
+    }
+}
@@ -0,0 +1,106 @@
+package orders.load;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of one load run: per-endpoint latency/outcomes plus the achieved throughput.
+ */
+public class LoadReport {
+
+    private final Collection<EndpointStats> endpoints;
+    private final long elapsedNanos;
+    private final long scheduled;
+
+    public LoadReport(Collection<EndpointStats> endpoints, long elapsedNanos, long scheduled) {
+        this.endpoints = endpoints;
+        this.elapsedNanos = elapsedNanos;
+        this.scheduled = scheduled;
+    }
+
+    public Collection<EndpointStats> endpoints() {
+        return endpoints;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long scheduled() {
+        return scheduled;
+    }
+
+    public double elapsedSeconds() {
+        return elapsedNanos / 1e9;
+    }
+
+    public double throughput(EndpointStats s) {
+        return elapsedNanos == 0 ? 0 : s.count() / elapsedSeconds();
+    }
+
+    public void print(PrintStream out) {
+        out.println(String.format("Load run: %d operations scheduled in %.1fs", scheduled, elapsedSeconds()));
+        int width = 22;
+        for (EndpointStats s : endpoints) width = Math.max(width, s.endpoint().length());
+        String name = "%-" + width + "s";
+        out.println(String.format(name + " %8s %7s %9s %9s %9s %9s %9s %9s",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms"));
+        for (EndpointStats s : endpoints) {
+            out.println(String.format(name + " %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                    s.endpoint(), s.count(), s.errors(), throughput(s),
+                    s.percentileMs(50), s.percentileMs(95), s.percentileMs(99), s.percentileMs(99.9), s.maxMs()));
+        }
+        for (EndpointStats s : endpoints) {
+            StringBuilder sb = new StringBuilder("  ").append(s.endpoint()).append(" outcomes:");
+            for (Map.Entry<String, Long> e : s.outcomes().entrySet()) {
+                sb.append(' ').append(e.getKey()).append('=').append(e.getValue());
+            }
+            out.println(sb);
+        }
+    }
+
+    /** Operations that finished with a result or a recorded failure. */
+    public long completed() {
+        return endpoints.stream().mapToLong(EndpointStats::count).sum();
+    }
+
+    /**
+     * Human readable list of every SLO threshold this run breached; empty when all passed.
+     * Operations that never completed (abandoned workers, lost calls) and endpoints that
+     * recorded nothing are breaches too, so a run that measured nothing cannot pass.
+     */
+    public List<String> sloBreaches(LoadConfig config) {
+        List<String> breaches = new ArrayList<>();
+        if (completed() < scheduled) {
+            breaches.add(String.format("only %d of %d scheduled operations completed", completed(), scheduled));
+        }
+        for (EndpointStats s : endpoints) {
+            if (s.count() == 0) {
+                // without cancels in the mix the cancel endpoint has nothing to record
+                if (!(s.endpoint().equals(LoadGenerator.CANCEL) && config.cancelRatio == 0)) {
+                    breaches.add(s.endpoint() + " recorded no calls");
+                }
+                continue;
+            }
+            check(breaches, s, "p50", 50, config.sloP50Ms);
+            check(breaches, s, "p95", 95, config.sloP95Ms);
+            check(breaches, s, "p99", 99, config.sloP99Ms);
+            check(breaches, s, "p999", 99.9, config.sloP999Ms);
+            if (config.sloMaxErrorRate >= 0 && s.errorRate() > config.sloMaxErrorRate) {
+                breaches.add(String.format("%s error rate %.4f > %.4f", s.endpoint(), s.errorRate(), config.sloMaxErrorRate));
+            }
+        }
+        return breaches;
+    }
+
+    private static void check(List<String> breaches, EndpointStats s, String name, double percentile, double limitMs) {
+        if (limitMs < 0) return;
+        double actual = s.percentileMs(percentile);
+        if (actual > limitMs) {
+            breaches.add(String.format("%s %s %.2fms > %.2fms", s.endpoint(), name, actual, limitMs));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package orders.load;
+
+import client.CallMetrics;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+/**
+ * The open-loop schedule shared by the load and soak runners: operations start at a
+ * fixed rate on a worker pool with an unbounded queue, and each is told when it was
+ * meant to start, so a backlog shows up as latency instead of a lower offered rate.
+ */
+public final class OpenLoop {
+
+    private OpenLoop() {
+    }
+
+    /** Daemon workers named {@code name-N}; calls they make are booked to the creating thread's test. */
+    public static ExecutorService newWorkerPool(String name, int workers) {
+        AtomicInteger n = new AtomicInteger();
+        // unbounded queue on purpose: when workers fall behind the backlog is counted as latency
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(CallMetrics.inCurrentTest(r), name + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Hands {@code total} operations to {@code pool}, {@code intervalNanos} apart from {@code start}. */
+    public static void schedule(ExecutorService pool, long start, long total, long intervalNanos, LongConsumer op) {
+        for (long i = 0; i < total; i++) {
+            final long intended = start + i * intervalNanos;
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            pool.execute(() -> op.accept(intended));
+        }
+    }
+
+    /**
+     * Shuts {@code pool} down and waits up to {@code timeoutSeconds} for it. Workers still
+     * busy after that are interrupted and queued operations dropped, so nothing keeps
+     * hitting the backend while the caller reports and cleans up.
+     */
+    public static boolean drain(ExecutorService pool, long timeoutSeconds, String what) throws InterruptedException {
+        pool.shutdown();
+        if (pool.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) return true;
+        int dropped = pool.shutdownNow().size();
+        System.out.println(what + ": workers still busy after " + timeoutSeconds + "s, abandoning them"
+                + (dropped > 0 ? " and " + dropped + " queued operations" : ""));
+        return false;
+    }
+}
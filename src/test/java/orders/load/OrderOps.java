@@ -0,0 +1,15 @@
+package orders.load;
+
+import io.restassured.response.Response;
+
+/**
+ * The two calls an order storm is made of. Test classes implement this with their
+ * existing placeOrder/cancelOrder helpers so the load run sends the exact same bodies
+ * and X-Simulate-Now header as the functional scenarios.
+ */
+public interface OrderOps {
+
+    Response placeOrder(String productId, String slot);
+
+    Response cancelOrder(String id);
+}
@@ -0,0 +1,90 @@
+package orders.race;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * One interleaving for the oversell race: the seed orders placed before the start
+ * barrier, and for every racing thread which call it makes and how long after the
+ * barrier it waits before sending it. Schedules are derived from a seed so a failing
+ * round can be replayed and shrunk.
+ */
+public class RaceSchedule {
+
+    public enum Op { PLACE, CANCEL }
+
+    public static final class Step {
+        public final Op op;
+        /** Index into the seed orders for CANCEL, -1 for PLACE. */
+        public final int target;
+        public final long delayMicros;
+
+        Step(Op op, int target, long delayMicros) {
+            this.op = op;
+            this.target = target;
+            this.delayMicros = delayMicros;
+        }
+
+        @Override
+        public String toString() {
+            String what = op == Op.PLACE ? "PLACE" : "CANCEL seed#" + target;
+            return what + " @+" + delayMicros + "us";
+        }
+    }
+
+    public final long seed;
+    public final int startStock;
+    public final int seedOrders;
+    public final List<Step> steps;
+
+    private RaceSchedule(long seed, int startStock, int seedOrders, List<Step> steps) {
+        this.seed = seed;
+        this.startStock = startStock;
+        this.seedOrders = seedOrders;
+        this.steps = Collections.unmodifiableList(steps);
+    }
+
+    public static RaceSchedule random(long seed, int threads, int startStock, int seedOrders,
+                                      double cancelRatio, long maxJitterMicros) {
+        Random rnd = new Random(seed);
+        List<Step> steps = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            long delay = maxJitterMicros <= 0 ? 0 : (long) (rnd.nextDouble() * maxJitterMicros);
+            if (seedOrders > 0 && rnd.nextDouble() < cancelRatio) {
+                steps.add(new Step(Op.CANCEL, rnd.nextInt(seedOrders), delay));
+            } else {
+                steps.add(new Step(Op.PLACE, -1, delay));
+            }
+        }
+        return new RaceSchedule(seed, startStock, seedOrders, steps);
+    }
+
+    /** Same schedule with step {@code index} dropped; used when shrinking a failure. */
+    public RaceSchedule without(int index) {
+        List<Step> copy = new ArrayList<>(steps);
+        copy.remove(index);
+        return new RaceSchedule(seed, startStock, seedOrders, copy);
+    }
+
+    /** Same calls with every thread released at the barrier at once. */
+    public RaceSchedule withoutJitter() {
+        List<Step> copy = new ArrayList<>();
+        for (Step s : steps) copy.add(new Step(s.op, s.target, 0));
+        return new RaceSchedule(seed, startStock, seedOrders, copy);
+    }
+
+    public boolean hasJitter() {
+        for (Step s : steps) {
+            if (s.delayMicros > 0) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "seed=" + seed + " startStock=" + startStock + " seedOrders=" + seedOrders
+                + " threads=" + steps.size() + " steps=" + steps;
+    }
+}
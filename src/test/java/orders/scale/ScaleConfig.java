@@ -0,0 +1,49 @@
+package orders.scale;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static config.Settings.env;
+import static config.Settings.split;
+
+/**
+ * Knobs for a scaling run, from environment variables (or -D system properties) like
+ * {@link orders.load.LoadConfig}. Distributions of the generated data come from the
+ * SEED_* settings ({@link seed.SeedConfig}).
+ */
+public class ScaleConfig {
+
+    public final boolean enabled;
+    // order-history sizes to measure at, smallest first
+    public final List<Long> orderSteps;
+    public final int ordersPerProduct;
+    public final int requests;
+    public final int warmupRequests;
+    public final String outputDir;
+
+    private ScaleConfig() {
+        enabled = Boolean.parseBoolean(env("SCALE_MODE", "false"));
+        orderSteps = new ArrayList<>();
+        for (String s : split(env("SCALE_STEPS", "1000,10000,100000"))) orderSteps.add(Long.parseLong(s));
+        orderSteps.sort(null);
+        ordersPerProduct = Integer.parseInt(env("SCALE_ORDERS_PER_PRODUCT", "10"));
+        requests = Integer.parseInt(env("SCALE_REQUESTS", "20"));
+        warmupRequests = Integer.parseInt(env("SCALE_WARMUP_REQUESTS", "10"));
+        outputDir = env("SCALE_OUTPUT_DIR", "test-output/scale");
+    }
+
+    public static ScaleConfig fromEnv() {
+        return new ScaleConfig();
+    }
+
+    /** Catalog size that goes with {@code orders} rows of history. */
+    public int productsFor(long orders) {
+        return (int) Math.max(10, orders / Math.max(1, ordersPerProduct));
+    }
+
+    @Override
+    public String toString() {
+        return "steps=" + orderSteps + " ordersPerProduct=" + ordersPerProduct + " requests=" + requests
+                + " warmup=" + warmupRequests;
+    }
+}
@@ -0,0 +1,15 @@
+package orders.scale;
+
+import java.util.Locale;
+
+/** Latency of one endpoint at one data size. */
+public record ScalePoint(long orders, int products, String endpoint, long count, double p50Ms, double p95Ms,
+                         double p99Ms, double maxMs, long responseBytes) {
+
+    public static final String CSV_HEADER = "orders,products,endpoint,count,p50_ms,p95_ms,p99_ms,max_ms,response_bytes";
+
+    public String csv() {
+        return String.format(Locale.ROOT, "%d,%d,%s,%d,%.3f,%.3f,%.3f,%.3f,%d",
+                orders, products, endpoint, count, p50Ms, p95Ms, p99Ms, maxMs, responseBytes);
+    }
+}
@@ -0,0 +1,90 @@
+package orders.scale;
+
+import backend.EmbeddedBackend;
+import client.EaFoodsClient;
+import io.restassured.response.Response;
+import org.HdrHistogram.Histogram;
+import seed.DataGenerator;
+import seed.SeedConfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Measures endpoint latency against data size: for every SCALE_STEPS size it starts a
+ * fresh embedded backend, bulk-loads a generated catalog and order history into it, and
+ * times the same requests one at a time (so the numbers are service time, not queueing).
+ */
+public class ScalingBenchmark {
+
+    private final ScaleConfig config;
+    private final SeedConfig seed;
+
+    public ScalingBenchmark(ScaleConfig config, SeedConfig seed) {
+        this.config = config;
+        this.seed = seed;
+    }
+
+    public List<ScalePoint> run() throws IOException {
+        Path empty = Files.createTempFile("scale-db", ".json");
+        Files.writeString(empty, "{\"products\":[],\"orders\":[]}", StandardCharsets.UTF_8);
+        List<ScalePoint> points = new ArrayList<>();
+        try {
+            for (long orders : config.orderSteps) {
+                SeedConfig step = seed.withSize(config.productsFor(orders), orders);
+                try (EmbeddedBackend backend = EmbeddedBackend.start(empty, 0, 8, null, false, Clock.systemDefaultZone())) {
+                    EaFoodsClient client = EaFoodsClient.forBaseUrl(backend.baseUrl());
+                    long start = System.nanoTime();
+                    new DataGenerator(step).bulkLoad(client);
+                    System.out.println("Step " + orders + ": loaded " + DataGenerator.describe(step, System.nanoTime() - start));
+                    points.addAll(measure(client, step));
+                }
+                System.gc();
+            }
+        } finally {
+            Files.deleteIfExists(empty);
+        }
+        return points;
+    }
+
+    private List<ScalePoint> measure(EaFoodsClient client, SeedConfig step) {
+        SplittableRandom random = new SplittableRandom(step.randomSeed);
+        String today = step.historyEnd.atZone(step.zone).toLocalDate().toString();
+        Map<String, Function<EaFoodsClient, Response>> endpoints = new LinkedHashMap<>();
+        endpoints.put("GET /products", EaFoodsClient::getProducts);
+        endpoints.put("GET /products/{id}", c -> c.getProduct("p" + (1 + random.nextInt(step.products))));
+        endpoints.put("GET /orders", c -> c.getOrders(null));
+        endpoints.put("GET /orders?productId=p1", c -> c.getOrders("p1"));
+        endpoints.put("GET /orders?_page=1&_limit=100", c -> c.getOrdersPage(null, 1, 100));
+        endpoints.put("POST /orders", c -> c.placeOrder("p" + (1 + random.nextInt(step.products)), 1, "morning", today));
+
+        List<ScalePoint> out = new ArrayList<>();
+        for (Map.Entry<String, Function<EaFoodsClient, Response>> e : endpoints.entrySet()) {
+            for (int i = 0; i < config.warmupRequests; i++) e.getValue().apply(client);
+            Histogram micros = new Histogram(3);
+            long bytes = 0;
+            for (int i = 0; i < config.requests; i++) {
+                long start = System.nanoTime();
+                Response r = e.getValue().apply(client);
+                micros.recordValue(Math.max(1, (System.nanoTime() - start) / 1_000));
+                if (r.statusCode() >= 300) {
+                    throw new IllegalStateException(e.getKey() + " returned " + r.statusCode() + " at " + step.orders + " orders");
+                }
+                bytes = r.asByteArray().length;
+            }
+            out.add(new ScalePoint(step.orders, step.products, e.getKey(), micros.getTotalCount(),
+                    micros.getValueAtPercentile(50) / 1000.0, micros.getValueAtPercentile(95) / 1000.0,
+                    micros.getValueAtPercentile(99) / 1000.0, micros.getMaxValue() / 1000.0, bytes));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,133 @@
+package orders.scale;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Endpoint latency against data size: a p95 table per endpoint and size, the growth
+ * exponent k of p95 ~ orders^k (least squares on log-log; ~0 flat, ~1 linear), plus
+ * scale-results.csv and a self-contained scale.html with a log-log SVG chart.
+ */
+public class ScalingReport {
+
+    private static final String[] COLORS = {"#1f77b4", "#d62728", "#2ca02c", "#ff7f0e", "#9467bd", "#8c564b"};
+
+    private final Map<String, List<ScalePoint>> byEndpoint = new LinkedHashMap<>();
+    private final List<ScalePoint> points;
+
+    public ScalingReport(List<ScalePoint> points) {
+        this.points = points;
+        for (ScalePoint p : points) byEndpoint.computeIfAbsent(p.endpoint(), k -> new ArrayList<>()).add(p);
+    }
+
+    /** Growth exponent of p95 in the number of stored orders. */
+    public double exponent(String endpoint) {
+        double n = 0, sx = 0, sy = 0, sxx = 0, sxy = 0;
+        for (ScalePoint p : byEndpoint.getOrDefault(endpoint, List.of())) {
+            if (p.orders() <= 0 || p.p95Ms() <= 0) continue;
+            double x = Math.log(p.orders()), y = Math.log(p.p95Ms());
+            n++;
+            sx += x;
+            sy += y;
+            sxx += x * x;
+            sxy += x * y;
+        }
+        double varX = n * sxx - sx * sx;
+        return n < 2 || varX == 0 ? 0 : (n * sxy - sx * sy) / varX;
+    }
+
+    public void print(PrintStream out) {
+        List<Long> sizes = points.stream().map(ScalePoint::orders).distinct().sorted().toList();
+        int nameWidth = byEndpoint.keySet().stream().mapToInt(String::length).max().orElse(8);
+        StringBuilder header = new StringBuilder(String.format("%-" + nameWidth + "s", "p95 ms \\ orders"));
+        for (long size : sizes) header.append(String.format("%12d", size));
+        out.println(header.append(String.format("%10s", "growth")));
+        for (Map.Entry<String, List<ScalePoint>> e : byEndpoint.entrySet()) {
+            StringBuilder row = new StringBuilder(String.format("%-" + nameWidth + "s", e.getKey()));
+            for (long size : sizes) {
+                ScalePoint p = e.getValue().stream().filter(x -> x.orders() == size).findFirst().orElse(null);
+                row.append(p == null ? String.format("%12s", "-") : String.format(Locale.ROOT, "%12.2f", p.p95Ms()));
+            }
+            out.println(row.append(String.format(Locale.ROOT, "   n^%.2f", exponent(e.getKey()))));
+        }
+    }
+
+    public void writeCsv(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(ScalePoint.CSV_HEADER);
+        for (ScalePoint p : points) lines.add(p.csv());
+        Files.createDirectories(file.getParent());
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    public void writeHtml(Path file) throws IOException {
+        ByteArrayOutputStream summary = new ByteArrayOutputStream();
+        print(new PrintStream(summary, true, StandardCharsets.UTF_8));
+        String html = "<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Scaling</title>"
+                + "<style>body{font-family:sans-serif} svg{margin:8px 0;border:1px solid #ddd}</style></head><body>\n"
+                + "<h2>Endpoint latency vs data size</h2>\n<pre>"
+                + escape(summary.toString(StandardCharsets.UTF_8)) + "</pre>\n"
+                + chart() + "</body></html>\n";
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, html, StandardCharsets.UTF_8);
+    }
+
+    // p95 against stored orders, both axes log10
+    private String chart() {
+        int w = 860, h = 360, left = 60, right = 260, top = 30, bottom = 40;
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (ScalePoint p : points) {
+            minX = Math.min(minX, Math.log10(p.orders()));
+            maxX = Math.max(maxX, Math.log10(p.orders()));
+            minY = Math.min(minY, Math.log10(Math.max(p.p95Ms(), 0.001)));
+            maxY = Math.max(maxY, Math.log10(Math.max(p.p95Ms(), 0.001)));
+        }
+        if (maxX <= minX) maxX = minX + 1;
+        if (maxY <= minY) maxY = minY + 1;
+        double plotW = w - left - right, plotH = h - top - bottom;
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT,
+                "<svg width=\"%d\" height=\"%d\" xmlns=\"http://www.w3.org/2000/svg\" font-size=\"11\">", w, h));
+        sb.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"18\" font-weight=\"bold\">p95 latency (ms) vs stored orders, log-log</text>", left));
+        sb.append(String.format(Locale.ROOT, "<line x1=\"%d\" y1=\"%d\" x2=\"%d\" y2=\"%d\" stroke=\"#000\"/>",
+                left, h - bottom, w - right, h - bottom));
+        sb.append(String.format(Locale.ROOT, "<line x1=\"%d\" y1=\"%d\" x2=\"%d\" y2=\"%d\" stroke=\"#000\"/>",
+                left, top, left, h - bottom));
+        sb.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"%d\">%.3g</text>", 4, top + 4, Math.pow(10, maxY)));
+        sb.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"%d\">%.3g</text>", 4, h - bottom, Math.pow(10, minY)));
+        sb.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"%d\">%.0f</text>", left, h - bottom + 16, Math.pow(10, minX)));
+        sb.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"%d\" text-anchor=\"end\">%.0f</text>",
+                w - right, h - bottom + 16, Math.pow(10, maxX)));
+        int i = 0;
+        for (Map.Entry<String, List<ScalePoint>> e : byEndpoint.entrySet()) {
+            String color = COLORS[i % COLORS.length];
+            StringBuilder line = new StringBuilder();
+            for (ScalePoint p : e.getValue()) {
+                double px = left + (Math.log10(p.orders()) - minX) / (maxX - minX) * plotW;
+                double py = h - bottom - (Math.log10(Math.max(p.p95Ms(), 0.001)) - minY) / (maxY - minY) * plotH;
+                line.append(String.format(Locale.ROOT, "%.1f,%.1f ", px, py));
+                sb.append(String.format(Locale.ROOT, "<circle cx=\"%.1f\" cy=\"%.1f\" r=\"3\" fill=\"%s\"/>", px, py, color));
+            }
+            sb.append("<polyline fill=\"none\" stroke-width=\"1.5\" stroke=\"").append(color)
+                    .append("\" points=\"").append(line.toString().trim()).append("\"/>");
+            sb.append(String.format(Locale.ROOT, "<rect x=\"%d\" y=\"%d\" width=\"10\" height=\"10\" fill=\"%s\"/>"
+                    + "<text x=\"%d\" y=\"%d\">%s (n^%.2f)</text>", w - right + 10, top + i * 18, color,
+                    w - right + 26, top + i * 18 + 9, escape(e.getKey()), exponent(e.getKey())));
+            i++;
+        }
+        return sb.append("</svg>\n").toString();
+    }
+
+    // & first, or the entities the other replacements add would be escaped again
+    private static String escape(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
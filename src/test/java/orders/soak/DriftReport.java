@@ -0,0 +1,183 @@
+package orders.soak;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Drift analysis of a soak run: least-squares slopes of latency against the number of
+ * stored orders (and of memory / file size against time), plus soak-samples.csv and a
+ * self-contained soak-drift.html with SVG line charts. Samples taken during the
+ * warm-up window are charted but left out of the fits, so JIT warm-up does not
+ * read as a downward trend.
+ */
+public class DriftReport {
+
+    /** Least-squares line y = intercept + slope * x, with R². */
+    public record Fit(double slope, double intercept, double r2, int points) {
+    }
+
+    private static final String[] COLORS = {"#1f77b4", "#d62728", "#2ca02c", "#ff7f0e"};
+
+    private final List<SoakSample> samples;
+    private final double warmupSeconds;
+
+    public DriftReport(List<SoakSample> samples, double warmupSeconds) {
+        this.samples = samples;
+        this.warmupSeconds = warmupSeconds;
+    }
+
+    /** Slope of place p95 in ms per 1000 stored orders. */
+    public Fit placeP95ByOrders() {
+        return fit(s -> s.storedOrders() / 1000.0, SoakSample::placeP95Ms);
+    }
+
+    /** Slope of GET /orders time in ms per 1000 stored orders. */
+    public Fit listOrdersByOrders() {
+        return fit(s -> s.storedOrders() / 1000.0, SoakSample::listOrdersMs);
+    }
+
+    public void print(PrintStream out) {
+        if (samples.isEmpty()) {
+            out.println("Soak: no samples taken");
+            return;
+        }
+        SoakSample first = samples.get(0);
+        SoakSample last = samples.get(samples.size() - 1);
+        out.println(String.format("Soak: %d samples over %.0fs, stored orders %d -> %d, /orders payload %d KB -> %d KB",
+                samples.size(), last.elapsedSeconds(), first.storedOrders(), last.storedOrders(),
+                first.ordersPayloadBytes() / 1024, last.ordersPayloadBytes() / 1024));
+        if (warmupSeconds > 0) out.println(String.format("  (fits exclude the first %.0fs of warm-up)", warmupSeconds));
+        print(out, "place p95", placeP95ByOrders(), "ms per 1k orders");
+        print(out, "GET /orders", listOrdersByOrders(), "ms per 1k orders");
+        print(out, "server RSS", fit(s -> s.elapsedSeconds() / 3600, s -> s.serverRssBytes() / 1048576.0), "MB per hour");
+        print(out, "backing file", fit(s -> s.storedOrders() / 1000.0, s -> s.backingFileBytes() / 1024.0), "KB per 1k orders");
+        print(out, "client heap", fit(s -> s.elapsedSeconds() / 3600, s -> s.clientHeapUsedBytes() / 1048576.0), "MB per hour");
+    }
+
+    private static void print(PrintStream out, String name, Fit f, String unit) {
+        if (f.points() < 2) {
+            out.println(String.format("  %-13s not enough samples", name));
+            return;
+        }
+        out.println(String.format(Locale.ROOT, "  %-13s slope %+9.3f %s (R2=%.2f, n=%d)", name, f.slope(), unit, f.r2(), f.points()));
+    }
+
+    public void writeCsv(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(SoakSample.CSV_HEADER);
+        for (SoakSample s : samples) lines.add(s.csv());
+        Files.createDirectories(file.getParent());
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    public void writeHtml(Path file) throws IOException {
+        StringBuilder sb = new StringBuilder("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Soak drift</title>")
+                .append("<style>body{font-family:sans-serif} svg{margin:8px 0;border:1px solid #ddd}</style></head><body>\n")
+                .append("<h2>Soak drift</h2>\n<pre>");
+        java.io.ByteArrayOutputStream summary = new java.io.ByteArrayOutputStream();
+        print(new PrintStream(summary, true, StandardCharsets.UTF_8));
+        sb.append(summary.toString(StandardCharsets.UTF_8).replace("<", "&lt;")).append("</pre>\n");
+
+        Map<String, ToDoubleFunction<SoakSample>> latency = new LinkedHashMap<>();
+        latency.put("place p50", SoakSample::placeP50Ms);
+        latency.put("place p95", SoakSample::placeP95Ms);
+        latency.put("place p99", SoakSample::placeP99Ms);
+        latency.put("GET /orders", SoakSample::listOrdersMs);
+        sb.append(chart("Latency (ms) over time", "elapsed s", SoakSample::elapsedSeconds, latency));
+        sb.append(chart("Latency (ms) vs stored orders", "stored orders", s -> s.storedOrders(), latency));
+
+        Map<String, ToDoubleFunction<SoakSample>> sizes = new LinkedHashMap<>();
+        sizes.put("/orders payload MB", s -> s.ordersPayloadBytes() / 1048576.0);
+        sizes.put("backing file MB", s -> s.backingFileBytes() / 1048576.0);
+        sizes.put("server RSS MB", s -> s.serverRssBytes() / 1048576.0);
+        sizes.put("client heap MB", s -> s.clientHeapUsedBytes() / 1048576.0);
+        sb.append(chart("Size / memory (MB) over time", "elapsed s", SoakSample::elapsedSeconds, sizes));
+
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, sb.append("</body></html>\n").toString(), StandardCharsets.UTF_8);
+    }
+
+    // ---------------- internals ----------------
+
+    /** Fit over post-warm-up samples where y was sampled (negative means "not sampled"). */
+    Fit fit(ToDoubleFunction<SoakSample> x, ToDoubleFunction<SoakSample> y) {
+        double n = 0, sx = 0, sy = 0, sxx = 0, sxy = 0, syy = 0;
+        for (SoakSample s : samples) {
+            if (s.elapsedSeconds() < warmupSeconds) continue;
+            double xv = x.applyAsDouble(s);
+            double yv = y.applyAsDouble(s);
+            if (xv < 0 || yv < 0) continue;
+            n++;
+            sx += xv;
+            sy += yv;
+            sxx += xv * xv;
+            sxy += xv * yv;
+            syy += yv * yv;
+        }
+        double varX = n * sxx - sx * sx;
+        if (n < 2 || varX == 0) return new Fit(0, n == 0 ? 0 : sy / n, 0, (int) n);
+        double slope = (n * sxy - sx * sy) / varX;
+        double intercept = (sy - slope * sx) / n;
+        double varY = n * syy - sy * sy;
+        double r = varY == 0 ? 0 : (n * sxy - sx * sy) / Math.sqrt(varX * varY);
+        return new Fit(slope, intercept, r * r, (int) n);
+    }
+
+    private String chart(String title, String xLabel, ToDoubleFunction<SoakSample> x,
+                         Map<String, ToDoubleFunction<SoakSample>> series) {
+        int w = 760, h = 280, left = 60, right = 170, top = 30, bottom = 40;
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = 0;
+        for (SoakSample s : samples) {
+            minX = Math.min(minX, x.applyAsDouble(s));
+            maxX = Math.max(maxX, x.applyAsDouble(s));
+            for (ToDoubleFunction<SoakSample> f : series.values()) maxY = Math.max(maxY, f.applyAsDouble(s));
+        }
+        if (maxX <= minX) maxX = minX + 1;
+        if (maxY <= 0) maxY = 1;
+        double plotW = w - left - right, plotH = h - top - bottom;
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT,
+                "<svg width=\"%d\" height=\"%d\" xmlns=\"http://www.w3.org/2000/svg\" font-size=\"11\">", w, h));
+        sb.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"18\" font-weight=\"bold\">%s</text>", left, title));
+        sb.append(String.format(Locale.ROOT, "<line x1=\"%d\" y1=\"%d\" x2=\"%d\" y2=\"%d\" stroke=\"#000\"/>",
+                left, h - bottom, w - right, h - bottom));
+        sb.append(String.format(Locale.ROOT, "<line x1=\"%d\" y1=\"%d\" x2=\"%d\" y2=\"%d\" stroke=\"#000\"/>",
+                left, top, left, h - bottom));
+        sb.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"%d\">%.4g</text>", 4, top + 4, maxY));
+        sb.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"%d\">0</text>", 4, h - bottom));
+        sb.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"%d\">%.4g</text>", left, h - bottom + 16, minX));
+        sb.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"%d\" text-anchor=\"end\">%.4g</text>",
+                w - right, h - bottom + 16, maxX));
+        sb.append(String.format(Locale.ROOT, "<text x=\"%.0f\" y=\"%d\" text-anchor=\"middle\">%s</text>",
+                left + plotW / 2, h - 6, xLabel));
+        int i = 0;
+        for (Map.Entry<String, ToDoubleFunction<SoakSample>> e : series.entrySet()) {
+            String color = COLORS[i % COLORS.length];
+            StringBuilder points = new StringBuilder();
+            for (SoakSample s : samples) {
+                double yv = e.getValue().applyAsDouble(s);
+                if (yv < 0) continue;
+                double px = left + (x.applyAsDouble(s) - minX) / (maxX - minX) * plotW;
+                double py = h - bottom - yv / maxY * plotH;
+                points.append(String.format(Locale.ROOT, "%.1f,%.1f ", px, py));
+            }
+            if (points.length() > 0) {
+                sb.append("<polyline fill=\"none\" stroke-width=\"1.5\" stroke=\"").append(color)
+                        .append("\" points=\"").append(points.toString().trim()).append("\"/>");
+            }
+            sb.append(String.format(Locale.ROOT, "<rect x=\"%d\" y=\"%d\" width=\"10\" height=\"10\" fill=\"%s\"/>"
+                    + "<text x=\"%d\" y=\"%d\">%s</text>", w - right + 10, top + i * 18, color,
+                    w - right + 26, top + i * 18 + 9, e.getKey()));
+            i++;
+        }
+        return sb.append("</svg>\n").toString();
+    }
+}
@@ -0,0 +1,63 @@
+package orders.soak;
+
+import java.util.List;
+
+import static config.Settings.env;
+import static config.Settings.split;
+
+/**
+ * Knobs for a soak run, from environment variables (or -D system properties) like
+ * {@link orders.load.LoadConfig}.
+ */
+public class SoakConfig {
+
+    public final boolean enabled;
+    public final int durationSeconds;
+    public final int ratePerSecond;
+    public final int workers;
+    public final double cancelRatio;
+    public final int sampleSeconds;
+    public final int warmupSeconds;
+    public final List<String> productIds;
+    public final int qty;
+    public final int startingStock;
+    public final boolean cleanup;
+    public final String outputDir;
+    // server process to read RSS from ("self" for the embedded backend); empty = not sampled
+    public final String serverPid;
+    // file the server persists to (db.json, or the embedded WAL); empty = not sampled
+    public final String backingFile;
+    // drift gate: max p95 growth in ms per 1000 stored orders; negative disables it
+    public final double maxP95SlopeMsPer1kOrders;
+
+    private SoakConfig() {
+        enabled = Boolean.parseBoolean(env("SOAK_MODE", "false"));
+        durationSeconds = Integer.parseInt(env("SOAK_DURATION_SECONDS", "3600"));
+        ratePerSecond = Integer.parseInt(env("SOAK_RATE", "20"));
+        workers = Integer.parseInt(env("SOAK_WORKERS", "16"));
+        cancelRatio = Double.parseDouble(env("SOAK_CANCEL_RATIO", "0.4"));
+        sampleSeconds = Integer.parseInt(env("SOAK_SAMPLE_SECONDS", "30"));
+        warmupSeconds = Integer.parseInt(env("SOAK_WARMUP_SECONDS", "60"));
+        productIds = split(env("SOAK_PRODUCTS", "p1,p2,p3,p4,p5,p6,p7,p8,p9,p10"));
+        qty = Integer.parseInt(env("QTY", "1"));
+        startingStock = Integer.parseInt(env("SOAK_STOCK", "1000000"));
+        cleanup = Boolean.parseBoolean(env("SOAK_CLEANUP", "true"));
+        outputDir = env("SOAK_OUTPUT_DIR", "test-output/soak");
+        boolean embedded = "embedded".equalsIgnoreCase(env("BACKEND", ""));
+        serverPid = env("SOAK_SERVER_PID", embedded ? "self" : "");
+        backingFile = env("SOAK_BACKING_FILE", embedded ? env("EMBEDDED_WAL", "") : "");
+        maxP95SlopeMsPer1kOrders = Double.parseDouble(env("SOAK_MAX_P95_SLOPE_MS_PER_1K", "-1"));
+    }
+
+    public static SoakConfig fromEnv() {
+        return new SoakConfig();
+    }
+
+    @Override
+    public String toString() {
+        return "duration=" + durationSeconds + "s rate=" + ratePerSecond + "/s workers=" + workers
+                + " cancelRatio=" + cancelRatio + " sampleEvery=" + sampleSeconds + "s warmup=" + warmupSeconds + "s products=" + productIds
+                + " serverPid=" + (serverPid.isEmpty() ? "-" : serverPid)
+                + " backingFile=" + (backingFile.isEmpty() ? "-" : backingFile);
+    }
+}
@@ -0,0 +1,215 @@
+package orders.soak;
+
+import client.CallMetrics;
+import client.EaFoodsClient;
+import client.TimedCall;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.restassured.response.Response;
+import orders.load.OpenLoop;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Long-running place/cancel traffic with periodic drift samples.
+ *
+ * Traffic is open loop on the load generator's {@link OpenLoop} schedule (latency
+ * measured from the intended start). Cancels only take some of the placed orders, so the orders
+ * collection keeps growing during the run, which is what makes lowdb's
+ * rewrite-the-whole-file writes slower over time. Every sample interval a separate
+ * thread takes the interval latency histograms, times GET /orders and measures its
+ * payload, and reads the server RSS and backing file size when configured.
+ */
+public class SoakRunner {
+
+    private static final List<String> SLOTS = Arrays.asList("morning", "afternoon", "evening");
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final SoakConfig config;
+    private final EaFoodsClient client;
+    private final String deliveryDate;
+    private final Recorder placeLatency = new Recorder(3);
+    private final Recorder cancelLatency = new Recorder(3);
+    private final LongAdder placed = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Queue<String> liveOrders = new ConcurrentLinkedQueue<>();
+    private final List<SoakSample> samples = Collections.synchronizedList(new ArrayList<>());
+
+    public SoakRunner(SoakConfig config, EaFoodsClient client, String deliveryDate) {
+        this.config = config;
+        this.client = client;
+        this.deliveryDate = deliveryDate;
+    }
+
+    /** Runs for the configured duration and returns every sample taken, including one at the end. */
+    public List<SoakSample> run() throws InterruptedException {
+        ExecutorService pool = OpenLoop.newWorkerPool("soak", config.workers);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(CallMetrics.inCurrentTest(r), "soak-sampler");
+            t.setDaemon(true);
+            return t;
+        });
+        long start = System.nanoTime();
+        long total = (long) config.ratePerSecond * config.durationSeconds;
+        long intervalNanos = 1_000_000_000L / Math.max(1, config.ratePerSecond);
+        sampler.scheduleAtFixedRate(() -> sample(start), config.sampleSeconds, config.sampleSeconds, TimeUnit.SECONDS);
+        try {
+            OpenLoop.schedule(pool, start, total, intervalNanos, this::runOne);
+        } finally {
+            OpenLoop.drain(pool, 60, "Soak run");
+            OpenLoop.drain(sampler, 60, "Soak sampler");
+        }
+        sample(start);
+        return new ArrayList<>(samples);
+    }
+
+    /** Cancels the orders the soak left behind so the backend shrinks back. */
+    public int cancelLeftovers() throws InterruptedException {
+        ExecutorService pool = OpenLoop.newWorkerPool("soak", config.workers);
+        AtomicInteger n = new AtomicInteger();
+        String id;
+        while ((id = liveOrders.poll()) != null) {
+            final String orderId = id;
+            // best effort cleanup: failures are just not counted
+            pool.execute(() -> {
+                if (TimedCall.of(() -> client.cancelOrder(orderId)).status() == 200) n.incrementAndGet();
+            });
+        }
+        OpenLoop.drain(pool, TimeUnit.MINUTES.toSeconds(10), "Soak cleanup");
+        return n.get();
+    }
+
+    private void runOne(long intended) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        String toCancel = rnd.nextDouble() < config.cancelRatio ? liveOrders.poll() : null;
+        if (toCancel != null) {
+            TimedCall call = TimedCall.of(intended, () -> client.cancelOrder(toCancel));
+            if (call.failed()) {
+                errors.increment();
+                return;
+            }
+            cancelLatency.recordValue(micros(call.latencyNanos()));
+            if (call.status() == 200) cancelled.increment();
+            else errors.increment();
+            return;
+        }
+        String productId = config.productIds.get(rnd.nextInt(config.productIds.size()));
+        String slot = SLOTS.get(rnd.nextInt(SLOTS.size()));
+        TimedCall call = TimedCall.of(intended, () -> client.placeOrder(productId, config.qty, slot, deliveryDate));
+        if (call.failed()) {
+            errors.increment();
+            return;
+        }
+        placeLatency.recordValue(micros(call.latencyNanos()));
+        if (call.status() == 201) {
+            placed.increment();
+            String id = call.response().jsonPath().getString("id");
+            if (id != null) liveOrders.add(id);
+        } else {
+            errors.increment();
+        }
+    }
+
+    private void sample(long start) {
+        try {
+            Histogram place = placeLatency.getIntervalHistogram();
+            Histogram cancel = cancelLatency.getIntervalHistogram();
+
+            long t0 = System.nanoTime();
+            Response orders = client.getOrders(null);
+            byte[] body = orders.asByteArray();
+            double listMs = (System.nanoTime() - t0) / 1e6;
+
+            Runtime rt = Runtime.getRuntime();
+            SoakSample s = new SoakSample((System.nanoTime() - start) / 1e9,
+                    placed.sum(), cancelled.sum(), errors.sum(),
+                    ms(place, 50), ms(place, 95), ms(place, 99), ms(cancel, 95),
+                    listMs, body.length, countRows(body),
+                    rssBytes(config.serverPid), fileBytes(config.backingFile), rt.totalMemory() - rt.freeMemory());
+            samples.add(s);
+            System.out.println(String.format("Soak %6.0fs: placed=%d cancelled=%d errors=%d place p95=%.1fms "
+                            + "GET /orders=%.1fms (%d orders, %d KB) rss=%s file=%s",
+                    s.elapsedSeconds(), s.placed(), s.cancelled(), s.errors(), s.placeP95Ms(), s.listOrdersMs(),
+                    s.storedOrders(), s.ordersPayloadBytes() / 1024, kb(s.serverRssBytes()), kb(s.backingFileBytes())));
+        } catch (Exception e) {
+            // an escaping exception would cancel every later run of this scheduled task
+            System.out.println("Soak sample failed: " + e);
+        }
+    }
+
+    // ---------------- probes ----------------
+
+    /** Number of objects in a top-level JSON array, without building a tree of a multi-MB payload. */
+    static long countRows(byte[] json) {
+        try (JsonParser p = JSON.createParser(json)) {
+            if (p.nextToken() != JsonToken.START_ARRAY) return -1;
+            long n = 0;
+            while (p.nextToken() == JsonToken.START_OBJECT) {
+                p.skipChildren();
+                n++;
+            }
+            return n;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /** VmRSS of a process from /proc (Linux only); "self" is this JVM. -1 when unavailable. */
+    static long rssBytes(String pid) {
+        if (pid.isEmpty()) return -1;
+        String proc = "self".equals(pid) ? String.valueOf(ManagementFactory.getRuntimeMXBean().getPid()) : pid;
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc", proc, "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // not Linux, or the process is gone
+        }
+        return -1;
+    }
+
+    static long fileBytes(String file) {
+        if (file.isEmpty()) return -1;
+        try {
+            Path p = Paths.get(file);
+            return Files.exists(p) ? Files.size(p) : -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static double ms(Histogram h, double percentile) {
+        return h.getTotalCount() == 0 ? -1 : h.getValueAtPercentile(percentile) / 1_000.0;
+    }
+
+    private static long micros(long nanos) {
+        return Math.max(1, nanos / 1_000);
+    }
+
+    private static String kb(long bytes) {
+        return bytes < 0 ? "-" : (bytes / 1024) + "KB";
+    }
+}
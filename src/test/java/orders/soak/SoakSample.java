@@ -0,0 +1,21 @@
+package orders.soak;
+
+/**
+ * One periodic soak measurement. Latencies are in ms over the interval since the
+ * previous sample; sizes in bytes; -1 means "not sampled".
+ */
+public record SoakSample(double elapsedSeconds, long placed, long cancelled, long errors,
+                         double placeP50Ms, double placeP95Ms, double placeP99Ms, double cancelP95Ms,
+                         double listOrdersMs, long ordersPayloadBytes, long storedOrders,
+                         long serverRssBytes, long backingFileBytes, long clientHeapUsedBytes) {
+
+    static final String CSV_HEADER = "elapsed_s,placed,cancelled,errors,place_p50_ms,place_p95_ms,place_p99_ms,"
+            + "cancel_p95_ms,list_orders_ms,orders_payload_bytes,stored_orders,server_rss_bytes,"
+            + "backing_file_bytes,client_heap_used_bytes";
+
+    String csv() {
+        return String.format(java.util.Locale.ROOT, "%.1f,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%d,%d,%d,%d",
+                elapsedSeconds, placed, cancelled, errors, placeP50Ms, placeP95Ms, placeP99Ms, cancelP95Ms,
+                listOrdersMs, ordersPayloadBytes, storedOrders, serverRssBytes, backingFileBytes, clientHeapUsedBytes);
+    }
+}
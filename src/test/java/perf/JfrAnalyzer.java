@@ -0,0 +1,233 @@
+package perf;
+
+import client.ApiCallEvent;
+import client.ApiStepEvent;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summarizes a .jfr file of a test run, reading it one event at a time:
+ * <ul>
+ *   <li>API steps by total time, each split into serialization, network (plus server),
+ *       parsing and client overhead ({@link ApiStepEvent}; outer steps include inner ones);</li>
+ *   <li>HTTP calls by total time ({@link ApiCallEvent});</li>
+ *   <li>CPU samples by layer (RestAssured/Groovy, jsonPath, Jackson, String.format,
+ *       HttpClient, the embedded backend, test code, other libraries, JDK) and the hottest methods;</li>
+ *   <li>sampled allocations by class and by site (first frame outside the JDK).</li>
+ * </ul>
+ *
+ * <pre>java -cp ... perf.JfrAnalyzer test-output/jfr/test-run.jfr [top]</pre>
+ */
+public class JfrAnalyzer {
+
+    // JsonPath tokenizes in groovy.json.JsonLexer, so its frames sit below Groovy ones: any of them anywhere in the stack wins
+    private static final String[] JSON_PATH = {"io.restassured.path.json", "io.restassured.internal.path"};
+
+    // otherwise the first matching prefix of the topmost frame that is not plain JDK code wins
+    private static final String[][] LAYERS = {
+            {"java.util.Formatter", "String.format"},
+            {"io.restassured", "RestAssured/Groovy"},
+            {"groovy", "RestAssured/Groovy"},
+            {"org.codehaus.groovy", "RestAssured/Groovy"},
+            {"org.apache.groovy", "RestAssured/Groovy"},
+            {"com.fasterxml.jackson", "Jackson"},
+            {"org.apache.http", "HttpClient"},
+            {"backend.", "embedded backend"},
+            {"sun.net.httpserver", "embedded backend"},
+            {"com.sun.net.httpserver", "embedded backend"},
+            {"org.testng", "TestNG"},
+            {"org.HdrHistogram", "HdrHistogram"},
+            {"client.", "test code"},
+            {"orders.", "test code"},
+            {"perf.", "test code"},
+            {"replay.", "test code"},
+            {"results.", "test code"},
+            {"seed.", "test code"},
+    };
+
+    private static final class StepStats {
+        final Histogram micros = new Histogram(3);
+        long totalNanos, serializeNanos, networkNanos, parseNanos, clientNanos, calls, bytes;
+    }
+
+    private final Map<String, StepStats> steps = new HashMap<>();
+    private final Map<String, StepStats> calls = new HashMap<>();
+    private final Map<String, long[]> layers = new HashMap<>();
+    private final Map<String, long[]> hotMethods = new HashMap<>();
+    private final Map<String, long[]> allocatedClasses = new HashMap<>();
+    private final Map<String, long[]> allocationSites = new HashMap<>();
+    private long cpuSamples;
+    private long allocatedBytes;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("usage: JfrAnalyzer <file.jfr> [top]");
+            return;
+        }
+        summarize(Paths.get(args[0]), System.out, args.length > 1 ? Integer.parseInt(args[1]) : 15);
+    }
+
+    public static void summarize(Path file, PrintStream out, int top) throws IOException {
+        JfrAnalyzer analyzer = new JfrAnalyzer();
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) analyzer.accept(recording.readEvent());
+        }
+        analyzer.print(out, top);
+    }
+
+    private void accept(RecordedEvent e) {
+        switch (e.getEventType().getName()) {
+            case ApiStepEvent.NAME -> {
+                StepStats s = steps.computeIfAbsent(e.getString("step"), k -> new StepStats());
+                long nanos = e.getDuration().toNanos();
+                s.micros.recordValue(Math.max(1, nanos / 1_000));
+                s.totalNanos += nanos;
+                s.serializeNanos += e.getLong("serializeNanos");
+                s.networkNanos += e.getLong("networkNanos");
+                s.parseNanos += e.getLong("parseNanos");
+                s.clientNanos += e.getLong("clientNanos");
+                s.calls += e.getInt("calls");
+                s.bytes += e.getLong("requestBytes") + e.getLong("responseBytes");
+            }
+            case ApiCallEvent.NAME -> {
+                StepStats s = calls.computeIfAbsent(e.getString("method") + " " + e.getString("endpoint"), k -> new StepStats());
+                long nanos = e.getDuration().toNanos();
+                s.micros.recordValue(Math.max(1, nanos / 1_000));
+                s.totalNanos += nanos;
+                s.calls++;
+                s.bytes += e.getLong("requestBytes") + e.getLong("responseBytes");
+            }
+            case "jdk.ExecutionSample" -> {
+                RecordedStackTrace stack = e.getStackTrace();
+                if (stack == null || stack.getFrames().isEmpty()) return;
+                cpuSamples++;
+                add(layers, layer(stack), 1);
+                add(hotMethods, frame(stack.getFrames().get(0)), 1);
+            }
+            case "jdk.ObjectAllocationSample" -> {
+                String site = site(e.getStackTrace());
+                if (site.startsWith("jdk.jfr.")) return; // the recorder setting itself up
+                long weight = e.getLong("weight");
+                allocatedBytes += weight;
+                RecordedClass type = e.getClass("objectClass");
+                add(allocatedClasses, type == null ? "?" : type.getName(), weight);
+                add(allocationSites, site, weight);
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void print(PrintStream out, int top) {
+        out.println("API steps by total time (outer steps include their inner steps)");
+        out.println(String.format("%-16s %7s %10s %9s %9s %7s %7s %7s %7s %10s",
+                "step", "count", "total ms", "mean ms", "p95 ms", "ser%", "net%", "parse%", "client%", "KB"));
+        for (Map.Entry<String, StepStats> e : byTotal(steps, top)) {
+            StepStats s = e.getValue();
+            out.println(String.format("%-16s %7d %10.1f %9.2f %9.2f %7.1f %7.1f %7.1f %7.1f %10.1f", e.getKey(),
+                    s.micros.getTotalCount(), s.totalNanos / 1e6, s.micros.getMean() / 1_000.0,
+                    s.micros.getValueAtPercentile(95) / 1_000.0, pct(s.serializeNanos, s.totalNanos),
+                    pct(s.networkNanos, s.totalNanos), pct(s.parseNanos, s.totalNanos), pct(s.clientNanos, s.totalNanos),
+                    s.bytes / 1024.0));
+        }
+
+        out.println("HTTP calls by total time (network plus server)");
+        out.println(String.format("%-30s %7s %10s %9s %9s %10s", "call", "count", "total ms", "mean ms", "p95 ms", "KB"));
+        for (Map.Entry<String, StepStats> e : byTotal(calls, top)) {
+            StepStats s = e.getValue();
+            out.println(String.format("%-30s %7d %10.1f %9.2f %9.2f %10.1f", e.getKey(), s.calls, s.totalNanos / 1e6,
+                    s.micros.getMean() / 1_000.0, s.micros.getValueAtPercentile(95) / 1_000.0, s.bytes / 1024.0));
+        }
+
+        out.println("CPU samples by layer (" + cpuSamples + " samples)");
+        for (Map.Entry<String, long[]> e : byValue(layers, top)) {
+            out.println(String.format("  %-22s %7d %6.1f%%", e.getKey(), e.getValue()[0], pct(e.getValue()[0], cpuSamples)));
+        }
+        out.println("Hottest methods");
+        for (Map.Entry<String, long[]> e : byValue(hotMethods, top)) {
+            out.println(String.format("  %7d %6.1f%%  %s", e.getValue()[0], pct(e.getValue()[0], cpuSamples), e.getKey()));
+        }
+
+        out.println(String.format("Allocations by class (%.1f MB sampled)", allocatedBytes / 1048576.0));
+        for (Map.Entry<String, long[]> e : byValue(allocatedClasses, top)) {
+            out.println(String.format("  %10.1f KB %6.1f%%  %s", e.getValue()[0] / 1024.0, pct(e.getValue()[0], allocatedBytes), e.getKey()));
+        }
+        out.println("Allocation sites");
+        for (Map.Entry<String, long[]> e : byValue(allocationSites, top)) {
+            out.println(String.format("  %10.1f KB %6.1f%%  %s", e.getValue()[0] / 1024.0, pct(e.getValue()[0], allocatedBytes), e.getKey()));
+        }
+    }
+
+    static String layer(RecordedStackTrace stack) {
+        List<RecordedFrame> frames = stack.getFrames();
+        for (RecordedFrame f : frames) {
+            String type = f.getMethod().getType().getName();
+            for (String prefix : JSON_PATH) {
+                if (type.startsWith(prefix)) return "jsonPath";
+            }
+        }
+        for (RecordedFrame f : frames) {
+            String type = f.getMethod().getType().getName();
+            for (String[] layer : LAYERS) {
+                if (type.startsWith(layer[0])) return layer[1];
+            }
+            if (!isJdk(type)) return "other library";
+        }
+        return "JDK";
+    }
+
+    // the allocating frame plus, when that is JDK code, the first frame outside the JDK that led to it
+    private static String site(RecordedStackTrace stack) {
+        if (stack == null || stack.getFrames().isEmpty()) return "?";
+        List<RecordedFrame> frames = stack.getFrames();
+        String top = frame(frames.get(0));
+        if (!isJdk(frames.get(0).getMethod().getType().getName())) return top;
+        for (RecordedFrame f : frames) {
+            if (!isJdk(f.getMethod().getType().getName())) return top + " <- " + frame(f);
+        }
+        return top;
+    }
+
+    private static boolean isJdk(String type) {
+        return type.startsWith("java.") || type.startsWith("javax.") || type.startsWith("jdk.") || type.startsWith("sun.")
+                || type.startsWith("com.sun.");
+    }
+
+    private static String frame(RecordedFrame f) {
+        String name = f.getMethod().getType().getName() + "." + f.getMethod().getName();
+        return f.getLineNumber() > 0 ? name + ":" + f.getLineNumber() : name;
+    }
+
+    private static void add(Map<String, long[]> counts, String key, long amount) {
+        counts.computeIfAbsent(key, k -> new long[1])[0] += amount;
+    }
+
+    private static List<Map.Entry<String, StepStats>> byTotal(Map<String, StepStats> stats, int top) {
+        List<Map.Entry<String, StepStats>> out = new ArrayList<>(stats.entrySet());
+        out.sort((a, b) -> Long.compare(b.getValue().totalNanos, a.getValue().totalNanos));
+        return out.subList(0, Math.min(top, out.size()));
+    }
+
+    private static List<Map.Entry<String, long[]>> byValue(Map<String, long[]> counts, int top) {
+        List<Map.Entry<String, long[]>> out = new ArrayList<>(counts.entrySet());
+        out.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+        return out.subList(0, Math.min(top, out.size()));
+    }
+
+    private static double pct(long part, long whole) {
+        return whole == 0 ? 0 : 100.0 * part / whole;
+    }
+}
@@ -0,0 +1,67 @@
+package perf;
+
+import client.ApiCallEvent;
+import client.ApiStepEvent;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.testng.IExecutionListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+
+import static config.Settings.env;
+
+/**
+ * With JFR_RECORD=true, records the whole TestNG run with Java Flight Recorder: the
+ * JDK's JFR_SETTINGS configuration (default "profile", which samples CPU and
+ * allocations) plus the suite's own API step and call events. At the end the recording
+ * goes to JFR_FILE (default test-output/jfr/test-run.jfr) and {@link JfrAnalyzer}
+ * prints its summary (top JFR_TOP rows per table). Registered through
+ * META-INF/services/org.testng.ITestNGListener.
+ */
+public class JfrRecordingListener implements IExecutionListener {
+
+    private final boolean enabled = Boolean.parseBoolean(env("JFR_RECORD", "false"));
+    private final String settings = env("JFR_SETTINGS", "profile");
+    private final Path file = Paths.get(env("JFR_FILE", "test-output/jfr/test-run.jfr"));
+    private final int top = Integer.parseInt(env("JFR_TOP", "15"));
+
+    private Recording recording;
+
+    @Override
+    public void onExecutionStart() {
+        if (!enabled || recording != null) return;
+        try {
+            recording = new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            System.out.println("JFR recording not started, no usable '" + settings + "' settings: " + e);
+            return;
+        }
+        recording.setName("test-run");
+        recording.setToDisk(true);
+        recording.enable(ApiStepEvent.NAME);
+        recording.enable(ApiCallEvent.NAME);
+        recording.start();
+        System.out.println("JFR recording started with '" + settings + "' settings");
+    }
+
+    @Override
+    public void onExecutionFinish() {
+        if (recording == null) return;
+        try {
+            recording.stop();
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            recording.dump(file);
+            System.out.println("JFR recording written to " + file);
+            JfrAnalyzer.summarize(file, System.out, top);
+        } catch (IOException e) {
+            System.out.println("JFR recording dump failed: " + e);
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package perf;
+
+import client.CallMetrics;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+
+/**
+ * Latency distributions of a reference run, one compressed HdrHistogram (microseconds)
+ * per series, stored as JSON. Series are "METHOD /endpoint" for every endpoint and
+ * "Class.method METHOD /endpoint" for every test that called it.
+ */
+public class LatencyBaseline {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, Histogram> series;
+
+    public LatencyBaseline(Map<String, Histogram> series) {
+        this.series = series;
+    }
+
+    /** Per-endpoint and per-test series from what {@link CallMetrics} recorded in this JVM. */
+    public static LatencyBaseline fromMetrics(List<Map.Entry<CallMetrics.Key, CallMetrics.Series>> metrics) {
+        Map<String, Histogram> series = new TreeMap<>();
+        for (Map.Entry<CallMetrics.Key, CallMetrics.Series> e : metrics) {
+            CallMetrics.Key k = e.getKey();
+            String endpoint = k.method() + " " + k.endpoint();
+            Histogram h = e.getValue().histogram();
+            series.computeIfAbsent(endpoint, x -> new Histogram(3)).add(h);
+            if (!"-".equals(k.test())) {
+                series.computeIfAbsent(k.test() + " " + endpoint, x -> new Histogram(3)).add(h);
+            }
+        }
+        return new LatencyBaseline(series);
+    }
+
+    public Map<String, Histogram> series() {
+        return series;
+    }
+
+    public static LatencyBaseline load(Path file) throws IOException {
+        JsonNode root = MAPPER.readTree(file.toFile());
+        Map<String, Histogram> series = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> it = root.path("series").fields();
+        while (it.hasNext()) {
+            Map.Entry<String, JsonNode> e = it.next();
+            byte[] bytes = Base64.getDecoder().decode(e.getValue().path("histogram").asText());
+            try {
+                series.put(e.getKey(), Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), 0));
+            } catch (DataFormatException ex) {
+                throw new IOException("Corrupt histogram for " + e.getKey() + " in " + file, ex);
+            }
+        }
+        return new LatencyBaseline(series);
+    }
+
+    public void save(Path file) throws IOException {
+        ObjectNode root = MAPPER.createObjectNode().put("createdAt", Instant.now().toString());
+        ObjectNode out = root.putObject("series");
+        for (Map.Entry<String, Histogram> e : series.entrySet()) {
+            Histogram h = e.getValue();
+            ByteBuffer buf = ByteBuffer.allocate(h.getNeededByteBufferCapacity());
+            int len = h.encodeIntoCompressedByteBuffer(buf);
+            out.putObject(e.getKey())
+                    .put("count", h.getTotalCount())
+                    .put("p50Ms", h.getValueAtPercentile(50) / 1_000.0)
+                    .put("p95Ms", h.getValueAtPercentile(95) / 1_000.0)
+                    .put("p99Ms", h.getValueAtPercentile(99) / 1_000.0)
+                    .put("histogram", Base64.getEncoder().encodeToString(java.util.Arrays.copyOf(buf.array(), len)));
+        }
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), root);
+    }
+}
@@ -0,0 +1,182 @@
+package perf;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+/**
+ * Statistical comparison of one latency series (microsecond HdrHistograms) between a
+ * baseline run and the current run.
+ *
+ * Two checks, both computed straight from the histograms so load runs with millions
+ * of samples stay cheap:
+ * <ul>
+ *   <li>a bootstrap 95% confidence interval for current p95 / baseline p95, resampling
+ *       at most {@code maxResample} values per side per iteration;</li>
+ *   <li>a one-sided Mann-Whitney U test (normal approximation, tie corrected) for
+ *       "current is slower than baseline".</li>
+ * </ul>
+ * A series is a regression only when both agree: the whole CI is above
+ * 1 + tolerance and the Mann-Whitney p-value is below alpha.
+ */
+public class LatencyComparison {
+
+    public enum Verdict { OK, REGRESSION, IMPROVED, INSUFFICIENT_DATA, NEW, MISSING }
+
+    public record Result(String series, long baselineCount, long currentCount, double baselineP95Ms,
+                         double currentP95Ms, double ratio, double ciLow, double ciHigh, double mannWhitneyP,
+                         Verdict verdict) {
+    }
+
+    private final double tolerance;
+    private final double alpha;
+    private final long minSamples;
+    private final int iterations;
+    private final int maxResample;
+    private final long seed;
+
+    public LatencyComparison(double tolerance, double alpha, long minSamples, int iterations, int maxResample,
+                             long seed) {
+        this.tolerance = tolerance;
+        this.alpha = alpha;
+        this.minSamples = minSamples;
+        this.iterations = iterations;
+        this.maxResample = maxResample;
+        this.seed = seed;
+    }
+
+    public Result compare(String series, Histogram baseline, Histogram current) {
+        if (baseline == null) {
+            return new Result(series, 0, current.getTotalCount(), Double.NaN, p95Ms(current), Double.NaN,
+                    Double.NaN, Double.NaN, Double.NaN, Verdict.NEW);
+        }
+        if (current == null) {
+            return new Result(series, baseline.getTotalCount(), 0, p95Ms(baseline), Double.NaN, Double.NaN,
+                    Double.NaN, Double.NaN, Double.NaN, Verdict.MISSING);
+        }
+        double ratio = (double) current.getValueAtPercentile(95) / Math.max(1, baseline.getValueAtPercentile(95));
+        if (baseline.getTotalCount() < minSamples || current.getTotalCount() < minSamples) {
+            return new Result(series, baseline.getTotalCount(), current.getTotalCount(), p95Ms(baseline),
+                    p95Ms(current), ratio, Double.NaN, Double.NaN, Double.NaN, Verdict.INSUFFICIENT_DATA);
+        }
+        double[] ci = bootstrapP95RatioCi(baseline, current);
+        double p = mannWhitneyGreaterP(baseline, current);
+        Verdict verdict;
+        if (ci[0] > 1 + tolerance && p < alpha) verdict = Verdict.REGRESSION;
+        else if (ci[1] < 1 / (1 + tolerance) && 1 - p < alpha) verdict = Verdict.IMPROVED;
+        else verdict = Verdict.OK;
+        return new Result(series, baseline.getTotalCount(), current.getTotalCount(), p95Ms(baseline),
+                p95Ms(current), ratio, ci[0], ci[1], p, verdict);
+    }
+
+    // ---------------- bootstrap ----------------
+
+    double[] bootstrapP95RatioCi(Histogram baseline, Histogram current) {
+        Sampler b = new Sampler(baseline);
+        Sampler c = new Sampler(current);
+        int nb = (int) Math.min(baseline.getTotalCount(), maxResample);
+        int nc = (int) Math.min(current.getTotalCount(), maxResample);
+        long[] bufB = new long[nb];
+        long[] bufC = new long[nc];
+        double[] ratios = new double[iterations];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < iterations; i++) {
+            double pb = b.resampledPercentile(random, bufB, 95);
+            double pc = c.resampledPercentile(random, bufC, 95);
+            ratios[i] = pc / Math.max(1, pb);
+        }
+        Arrays.sort(ratios);
+        return new double[]{ratios[(int) Math.floor(0.025 * (iterations - 1))],
+                ratios[(int) Math.ceil(0.975 * (iterations - 1))]};
+    }
+
+    /** Draws values in proportion to their recorded counts via binary search over the cumulative counts. */
+    private static final class Sampler {
+        private final long[] values;
+        private final long[] cumulative;
+        private final long total;
+
+        Sampler(Histogram h) {
+            List<long[]> rows = new ArrayList<>();
+            long sum = 0;
+            for (HistogramIterationValue v : h.recordedValues()) {
+                sum += v.getCountAtValueIteratedTo();
+                rows.add(new long[]{h.highestEquivalentValue(v.getValueIteratedTo()), sum});
+            }
+            values = new long[rows.size()];
+            cumulative = new long[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                values[i] = rows.get(i)[0];
+                cumulative[i] = rows.get(i)[1];
+            }
+            total = sum;
+        }
+
+        double resampledPercentile(SplittableRandom random, long[] buf, double percentile) {
+            for (int i = 0; i < buf.length; i++) {
+                int idx = Arrays.binarySearch(cumulative, random.nextLong(total) + 1);
+                buf[i] = values[idx >= 0 ? idx : -idx - 1];
+            }
+            Arrays.sort(buf);
+            int rank = (int) Math.ceil(percentile / 100.0 * buf.length) - 1;
+            return buf[Math.max(0, Math.min(buf.length - 1, rank))];
+        }
+    }
+
+    // ---------------- Mann-Whitney ----------------
+
+    /** One-sided p-value for "current tends to be larger than baseline". */
+    static double mannWhitneyGreaterP(Histogram baseline, Histogram current) {
+        // value -> {baseline count, current count}, in value order
+        TreeMap<Long, long[]> counts = new TreeMap<>();
+        for (HistogramIterationValue v : baseline.recordedValues()) {
+            counts.computeIfAbsent(baseline.highestEquivalentValue(v.getValueIteratedTo()), k -> new long[2])[0]
+                    += v.getCountAtValueIteratedTo();
+        }
+        for (HistogramIterationValue v : current.recordedValues()) {
+            counts.computeIfAbsent(current.highestEquivalentValue(v.getValueIteratedTo()), k -> new long[2])[1]
+                    += v.getCountAtValueIteratedTo();
+        }
+        double n1 = baseline.getTotalCount();
+        double n2 = current.getTotalCount();
+        double n = n1 + n2;
+        double rankSumCurrent = 0;
+        double tieTerm = 0;
+        double below = 0;
+        for (long[] c : counts.values()) {
+            double t = c[0] + c[1];
+            double averageRank = below + (t + 1) / 2;
+            rankSumCurrent += c[1] * averageRank;
+            tieTerm += t * t * t - t;
+            below += t;
+        }
+        double u = rankSumCurrent - n2 * (n2 + 1) / 2;
+        double variance = n1 * n2 / 12 * ((n + 1) - tieTerm / (n * (n - 1)));
+        if (variance <= 0) return 0.5;
+        double z = (u - n1 * n2 / 2) / Math.sqrt(variance);
+        return 1 - normalCdf(z);
+    }
+
+    static double normalCdf(double z) {
+        return 0.5 * (1 + erf(z / Math.sqrt(2)));
+    }
+
+    // Abramowitz & Stegun 7.1.26, |error| < 1.5e-7
+    private static double erf(double x) {
+        double sign = Math.signum(x);
+        x = Math.abs(x);
+        double t = 1 / (1 + 0.3275911 * x);
+        double y = 1 - (((((1.061405429 * t - 1.453152027) * t) + 1.421413741) * t - 0.284496736) * t + 0.254829592)
+                * t * Math.exp(-x * x);
+        return sign * y;
+    }
+
+    private static double p95Ms(Histogram h) {
+        return h.getValueAtPercentile(95) / 1_000.0;
+    }
+}
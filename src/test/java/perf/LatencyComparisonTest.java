@@ -0,0 +1,120 @@
+package perf;
+
+import org.HdrHistogram.Histogram;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.SplittableRandom;
+
+/**
+ * Checks the regression verdicts on synthetic latency series: identical runs, a clear
+ * shift either way, all-tied samples and too few samples. Needs no server.
+ */
+public class LatencyComparisonTest {
+
+    // the PERF_* defaults: 20% tolerance, alpha 0.05, 20 samples, 1000 bootstrap iterations of up to 2000 values
+    private final LatencyComparison comparison = new LatencyComparison(0.20, 0.05, 20, 1_000, 2_000, 42);
+
+    // n latencies spread evenly over [lowMs, highMs), in microseconds like the recorded series
+    private static Histogram uniform(int n, double lowMs, double highMs, long seed) {
+        Histogram h = new Histogram(3);
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < n; i++) h.recordValue((long) (random.nextDouble(lowMs, highMs) * 1_000));
+        return h;
+    }
+
+    private static Histogram constant(int n, long micros) {
+        Histogram h = new Histogram(3);
+        h.recordValueWithCount(micros, n);
+        return h;
+    }
+
+    @Test
+    public void identicalSamplesAreNotARegression() {
+        Histogram baseline = uniform(5_000, 10, 20, 1);
+        LatencyComparison.Result r = comparison.compare("POST /orders", baseline, baseline.copy());
+
+        Assert.assertEquals(r.verdict(), LatencyComparison.Verdict.OK);
+        Assert.assertEquals(r.ratio(), 1.0, 1e-9);
+        Assert.assertEquals(r.mannWhitneyP(), 0.5, 1e-6, "no tendency either way");
+        Assert.assertTrue(r.ciLow() <= 1 && r.ciHigh() >= 1, "CI covers 1: " + r);
+    }
+
+    @Test
+    public void sameDistributionResampledIsNotARegression() {
+        LatencyComparison.Result r = comparison.compare("POST /orders", uniform(5_000, 10, 20, 1),
+                uniform(5_000, 10, 20, 2));
+        Assert.assertEquals(r.verdict(), LatencyComparison.Verdict.OK, r.toString());
+    }
+
+    @Test
+    public void clearShiftIsFlagged() {
+        Histogram fast = uniform(2_000, 10, 20, 1);
+        Histogram slow = uniform(2_000, 15, 30, 2);
+
+        LatencyComparison.Result slower = comparison.compare("POST /orders", fast, slow);
+        Assert.assertEquals(slower.verdict(), LatencyComparison.Verdict.REGRESSION, slower.toString());
+        Assert.assertTrue(slower.ciLow() > 1.2, "whole CI above the tolerance: " + slower);
+        Assert.assertTrue(slower.mannWhitneyP() < 1e-6, "p = " + slower.mannWhitneyP());
+
+        LatencyComparison.Result faster = comparison.compare("POST /orders", slow, fast);
+        Assert.assertEquals(faster.verdict(), LatencyComparison.Verdict.IMPROVED, faster.toString());
+    }
+
+    @Test
+    public void shiftWithinToleranceIsNotARegression() {
+        // significant by Mann-Whitney, but p95 only ~5% slower
+        LatencyComparison.Result r = comparison.compare("POST /orders", uniform(5_000, 10, 20, 1),
+                uniform(5_000, 10.5, 21, 2));
+        Assert.assertEquals(r.verdict(), LatencyComparison.Verdict.OK, r.toString());
+    }
+
+    @Test
+    public void allTiedSamplesAreNotARegression() {
+        // every value tied: the tie-corrected variance is 0, which must not divide by zero
+        LatencyComparison.Result r = comparison.compare("GET /products", constant(500, 12_000), constant(800, 12_000));
+        Assert.assertEquals(r.verdict(), LatencyComparison.Verdict.OK, r.toString());
+        Assert.assertEquals(r.mannWhitneyP(), 0.5);
+        Assert.assertEquals(r.ciLow(), 1.0);
+        Assert.assertEquals(r.ciHigh(), 1.0);
+    }
+
+    @Test
+    public void mannWhitneyMatchesHandComputedValue() {
+        // {1,2,3} vs {4,5,6} ms: U = 9, mean 4.5, variance 9 * 7 / 12 = 5.25, so z = 1.964 and p = 0.0248
+        Histogram baseline = new Histogram(3);
+        Histogram current = new Histogram(3);
+        for (long ms = 1; ms <= 3; ms++) {
+            baseline.recordValue(ms * 1_000);
+            current.recordValue((ms + 3) * 1_000);
+        }
+        Assert.assertEquals(LatencyComparison.mannWhitneyGreaterP(baseline, current), 0.0248, 5e-4);
+        Assert.assertEquals(LatencyComparison.mannWhitneyGreaterP(current, baseline), 1 - 0.0248, 5e-4);
+
+        // partial ties: {1,2,2} vs {2,3,3}; ranks 1, 3, 3 | 3, 5.5, 5.5 give U = 14 - 6 = 8,
+        // tie term (27-3) + (8-2) = 30, variance 9 / 12 * (7 - 30 / 30) = 4.5, z = 1.650 and p = 0.0495
+        Histogram tiedBaseline = new Histogram(3);
+        Histogram tiedCurrent = new Histogram(3);
+        tiedBaseline.recordValue(1_000);
+        tiedBaseline.recordValueWithCount(2_000, 2);
+        tiedCurrent.recordValue(2_000);
+        tiedCurrent.recordValueWithCount(3_000, 2);
+        Assert.assertEquals(LatencyComparison.mannWhitneyGreaterP(tiedBaseline, tiedCurrent), 0.0495, 5e-4);
+    }
+
+    @Test
+    public void smallSamplesAreInsufficientData() {
+        LatencyComparison.Result r = comparison.compare("DELETE /orders/{id}", uniform(19, 10, 20, 1),
+                uniform(1_000, 50, 60, 2));
+        Assert.assertEquals(r.verdict(), LatencyComparison.Verdict.INSUFFICIENT_DATA, "19 < PERF_MIN_SAMPLES");
+        Assert.assertTrue(Double.isNaN(r.mannWhitneyP()));
+        Assert.assertTrue(r.ratio() > 2, "ratio still reported: " + r.ratio());
+    }
+
+    @Test
+    public void seriesOnOneSideOnlyAreNewOrMissing() {
+        Histogram h = uniform(100, 10, 20, 1);
+        Assert.assertEquals(comparison.compare("GET /orders", null, h).verdict(), LatencyComparison.Verdict.NEW);
+        Assert.assertEquals(comparison.compare("GET /orders", h, null).verdict(), LatencyComparison.Verdict.MISSING);
+    }
+}
@@ -0,0 +1,24 @@
+package perf;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Fails the build when the last test run left a latency verdict behind: with PERF_GATE=fail,
+ * {@link PerfRegressionListener} writes its regressions to the verdict file instead of
+ * throwing out of the TestNG run, and the pom runs this right after surefire.
+ *
+ * <pre>java -cp ... perf.PerfGate target/perf-gate.txt</pre>
+ */
+public class PerfGate {
+
+    public static void main(String[] args) throws IOException {
+        Path verdict = args.length > 0 ? Paths.get(args[0]) : PerfRegressionListener.VERDICT_FILE;
+        if (!Files.exists(verdict)) return;
+        System.out.print(Files.readString(verdict, StandardCharsets.UTF_8));
+        System.exit(1);
+    }
+}
@@ -0,0 +1,198 @@
+package perf;
+
+import client.CallMetrics;
+import org.HdrHistogram.Histogram;
+import org.testng.IExecutionListener;
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.xml.XmlSuite;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static config.Settings.env;
+
+/**
+ * Compares this run's API latency against a stored baseline (see {@link LatencyBaseline}
+ * and {@link LatencyComparison}). Registered through META-INF/services/org.testng.ITestNGListener.
+ *
+ * <ul>
+ *   <li>PERF_BASELINE_MODE: compare (default; does nothing when there is no baseline
+ *       file yet), record (save this run as the baseline) or off.</li>
+ *   <li>PERF_BASELINE: baseline file, default perf-baseline/api-latency.json.</li>
+ *   <li>PERF_GATE: warn (default) or fail; fail writes the regressions to target/perf-gate.txt,
+ *       which {@link PerfGate} turns into a build failure once surefire is done. Throwing
+ *       here instead would take the whole surefire fork down.</li>
+ *   <li>PERF_TOLERANCE (0.20), PERF_ALPHA (0.05), PERF_MIN_SAMPLES (20),
+ *       PERF_BOOTSTRAP (1000 iterations), PERF_BOOTSTRAP_MAX_SAMPLE (2000).</li>
+ * </ul>
+ * The comparison goes to perf-regression.html in the TestNG output directory and, when
+ * TestNG wrote one, into emailable-report.html.
+ */
+public class PerfRegressionListener implements IReporter, IExecutionListener {
+
+    private static final String REPORT_FILE = "perf-regression.html";
+    static final Path VERDICT_FILE = Paths.get("target", "perf-gate.txt");
+
+    private final String mode = env("PERF_BASELINE_MODE", "compare").toLowerCase(Locale.ROOT);
+    private final Path baselineFile = Paths.get(env("PERF_BASELINE", "perf-baseline/api-latency.json"));
+    private final boolean failOnRegression = "fail".equalsIgnoreCase(env("PERF_GATE", "warn"));
+    private final double tolerance = Double.parseDouble(env("PERF_TOLERANCE", "0.20"));
+
+    private Path outputDirectory;
+    private String htmlSection;
+    private final List<String> regressions = new ArrayList<>();
+
+    @Override
+    public void onExecutionStart() {
+        // a verdict left by an earlier run must not fail this one
+        try {
+            Files.deleteIfExists(VERDICT_FILE);
+        } catch (IOException e) {
+            System.out.println("Could not remove old latency verdict " + VERDICT_FILE + ": " + e);
+        }
+    }
+
+    @Override
+    public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+        if ("off".equals(mode)) return;
+        this.outputDirectory = Paths.get(outputDirectory);
+        LatencyBaseline current = LatencyBaseline.fromMetrics(CallMetrics.INSTANCE.snapshot());
+        if (current.series().isEmpty()) return;
+        try {
+            if ("record".equals(mode)) {
+                current.save(baselineFile);
+                System.out.println("Latency baseline of " + current.series().size() + " series saved to " + baselineFile);
+                return;
+            }
+            if (!Files.exists(baselineFile)) {
+                System.out.println("No latency baseline at " + baselineFile + "; run once with PERF_BASELINE_MODE=record");
+                return;
+            }
+            List<LatencyComparison.Result> results = compare(LatencyBaseline.load(baselineFile), current);
+            print(System.out, results);
+            htmlSection = html(results);
+            Files.createDirectories(this.outputDirectory);
+            Files.writeString(this.outputDirectory.resolve(REPORT_FILE),
+                    "<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>API latency vs baseline</title></head><body>\n"
+                            + htmlSection + "</body></html>\n", StandardCharsets.UTF_8);
+            if (failOnRegression && !regressions.isEmpty()) writeVerdict();
+        } catch (IOException e) {
+            System.out.println("Latency baseline " + mode + " failed: " + e);
+        }
+    }
+
+    @Override
+    public void onExecutionFinish() {
+        // runs after every reporter, so the emailable report is on disk by now
+        if (htmlSection != null) {
+            Path emailable = outputDirectory.resolve("emailable-report.html");
+            try {
+                if (Files.exists(emailable)) {
+                    String report = Files.readString(emailable, StandardCharsets.UTF_8);
+                    int end = report.lastIndexOf("</body>");
+                    if (end >= 0) {
+                        Files.writeString(emailable, report.substring(0, end) + htmlSection + report.substring(end),
+                                StandardCharsets.UTF_8);
+                    }
+                }
+            } catch (IOException e) {
+                System.out.println("Could not add latency comparison to " + emailable + ": " + e);
+            }
+        }
+    }
+
+    private void writeVerdict() throws IOException {
+        StringBuilder sb = new StringBuilder("API latency regressed against ").append(baselineFile).append(":\n");
+        for (String r : regressions) sb.append("  ").append(r).append('\n');
+        if (VERDICT_FILE.getParent() != null) Files.createDirectories(VERDICT_FILE.getParent());
+        Files.writeString(VERDICT_FILE, sb.toString(), StandardCharsets.UTF_8);
+        System.out.println("Latency gate: " + regressions.size() + " regressions written to " + VERDICT_FILE
+                + "; the build fails after the tests");
+    }
+
+    private List<LatencyComparison.Result> compare(LatencyBaseline baseline, LatencyBaseline current) {
+        LatencyComparison comparison = new LatencyComparison(tolerance,
+                Double.parseDouble(env("PERF_ALPHA", "0.05")),
+                Long.parseLong(env("PERF_MIN_SAMPLES", "20")),
+                Integer.parseInt(env("PERF_BOOTSTRAP", "1000")),
+                Integer.parseInt(env("PERF_BOOTSTRAP_MAX_SAMPLE", "2000")),
+                42L);
+        Set<String> names = new TreeSet<>(baseline.series().keySet());
+        names.addAll(current.series().keySet());
+        List<LatencyComparison.Result> results = new ArrayList<>();
+        for (String name : names) {
+            Histogram b = baseline.series().get(name);
+            Histogram c = current.series().get(name);
+            LatencyComparison.Result r = comparison.compare(name, b, c);
+            results.add(r);
+            if (r.verdict() == LatencyComparison.Verdict.REGRESSION) {
+                regressions.add(String.format(Locale.ROOT, "%s p95 %.2fms -> %.2fms (x%.2f, CI %.2f-%.2f)",
+                        name, r.baselineP95Ms(), r.currentP95Ms(), r.ratio(), r.ciLow(), r.ciHigh()));
+            }
+        }
+        return results;
+    }
+
+    private void print(PrintStream out, List<LatencyComparison.Result> results) {
+        out.println(String.format("API latency vs baseline %s (tolerance %.0f%%, gate %s)",
+                baselineFile, tolerance * 100, failOnRegression ? "fail" : "warn"));
+        out.println(String.format("%-72s %7s %7s %9s %9s %7s %15s %8s  %s",
+                "series", "base n", "cur n", "base p95", "cur p95", "ratio", "95% CI", "MW p", "verdict"));
+        for (LatencyComparison.Result r : results) {
+            out.println(String.format(Locale.ROOT, "%-72s %7d %7d %9s %9s %7s %15s %8s  %s",
+                    r.series(), r.baselineCount(), r.currentCount(), num(r.baselineP95Ms()), num(r.currentP95Ms()),
+                    num(r.ratio()), Double.isNaN(r.ciLow()) ? "-" : num(r.ciLow()) + "-" + num(r.ciHigh()),
+                    Double.isNaN(r.mannWhitneyP()) ? "-" : String.format(Locale.ROOT, "%.4f", r.mannWhitneyP()),
+                    r.verdict()));
+        }
+        if (!regressions.isEmpty()) out.println("Latency REGRESSIONS: " + regressions);
+    }
+
+    private String html(List<LatencyComparison.Result> results) {
+        StringBuilder sb = new StringBuilder()
+                .append("<h2 id=\"api-latency-baseline\">API latency vs baseline</h2>\n")
+                .append("<p>Baseline <code>").append(escape(baselineFile.toString())).append("</code>, tolerance ")
+                .append(String.format(Locale.ROOT, "%.0f%%", tolerance * 100))
+                .append(" on p95. A series regresses when the bootstrap 95% CI of the p95 ratio lies above the tolerance")
+                .append(" and the one-sided Mann-Whitney test agrees.</p>\n")
+                .append("<table border=\"1\" cellpadding=\"4\" style=\"border-collapse:collapse\">\n")
+                .append("<tr><th>series</th><th>base n</th><th>cur n</th><th>base p95 ms</th><th>cur p95 ms</th>")
+                .append("<th>ratio</th><th>95% CI</th><th>Mann-Whitney p</th><th>verdict</th></tr>\n");
+        for (LatencyComparison.Result r : results) {
+            String color = switch (r.verdict()) {
+                case REGRESSION -> "#f8d7da";
+                case IMPROVED -> "#d4edda";
+                default -> "#ffffff";
+            };
+            sb.append("<tr style=\"background:").append(color).append("\"><td>").append(escape(r.series()))
+                    .append("</td><td>").append(r.baselineCount())
+                    .append("</td><td>").append(r.currentCount())
+                    .append("</td><td>").append(num(r.baselineP95Ms()))
+                    .append("</td><td>").append(num(r.currentP95Ms()))
+                    .append("</td><td>").append(num(r.ratio()))
+                    .append("</td><td>").append(Double.isNaN(r.ciLow()) ? "-" : num(r.ciLow()) + " - " + num(r.ciHigh()))
+                    .append("</td><td>").append(Double.isNaN(r.mannWhitneyP()) ? "-"
+                            : String.format(Locale.ROOT, "%.4f", r.mannWhitneyP()))
+                    .append("</td><td>").append(r.verdict()).append("</td></tr>\n");
+        }
+        return sb.append("</table>\n").toString();
+    }
+
+    private static String num(double v) {
+        return Double.isNaN(v) ? "-" : String.format(Locale.ROOT, "%.2f", v);
+    }
+
+    private static String escape(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,108 @@
+package replay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary format of a recorded traffic log. All numbers big-endian.
+ *
+ * <pre>
+ * header : magic "EATRAF01" (8 bytes), recording start as epoch nanos (long)
+ * record : length of the rest (int), start nanos and end nanos since recording start
+ *          (long, long), recording thread id (long), status (short, 0 = no response),
+ *          method, path+query, X-Simulate-Now (short length + UTF-8 each),
+ *          request body, response body (int length + bytes each)
+ * </pre>
+ * Records are appended in completion order; a truncated last record (crash while
+ * writing) is ignored on read.
+ */
+public final class TrafficLog {
+
+    static final byte[] MAGIC = "EATRAF01".getBytes(StandardCharsets.US_ASCII);
+    static final int HEADER_BYTES = MAGIC.length + Long.BYTES;
+
+    private TrafficLog() {
+    }
+
+    /** One recorded request/response pair. */
+    public record Exchange(long startNanos, long endNanos, long threadId, int status, String method, String path,
+                           String simulateNow, byte[] requestBody, byte[] responseBody) {
+
+        int encodedSize() {
+            return Long.BYTES * 3 + Short.BYTES
+                    + 3 * Short.BYTES + utf8Length(method) + utf8Length(path) + utf8Length(simulateNow)
+                    + 2 * Integer.BYTES + requestBody.length + responseBody.length;
+        }
+
+        void encode(ByteBuffer buf) {
+            buf.putInt(encodedSize());
+            buf.putLong(startNanos).putLong(endNanos).putLong(threadId).putShort((short) status);
+            putShortString(buf, method);
+            putShortString(buf, path);
+            putShortString(buf, simulateNow);
+            buf.putInt(requestBody.length).put(requestBody);
+            buf.putInt(responseBody.length).put(responseBody);
+        }
+
+        static Exchange decode(ByteBuffer buf) {
+            long start = buf.getLong();
+            long end = buf.getLong();
+            long thread = buf.getLong();
+            int status = buf.getShort() & 0xFFFF;
+            String method = getShortString(buf);
+            String path = getShortString(buf);
+            String simulateNow = getShortString(buf);
+            byte[] request = new byte[buf.getInt()];
+            buf.get(request);
+            byte[] response = new byte[buf.getInt()];
+            buf.get(response);
+            return new Exchange(start, end, thread, status, method, path, simulateNow, request, response);
+        }
+    }
+
+    /** Recording start (epoch nanos) and the exchanges, in the order they were written. */
+    public record Contents(long startEpochNanos, List<Exchange> exchanges) {
+    }
+
+    public static Contents read(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            byte[] magic = new byte[MAGIC.length];
+            if (buf.remaining() < HEADER_BYTES) throw new IOException(file + " is not a traffic log (too short)");
+            buf.get(magic);
+            if (!java.util.Arrays.equals(magic, MAGIC)) throw new IOException(file + " is not a traffic log (bad magic)");
+            long startEpochNanos = buf.getLong();
+            List<Exchange> out = new ArrayList<>();
+            while (buf.remaining() >= Integer.BYTES) {
+                int len = buf.getInt();
+                if (len <= 0 || len > buf.remaining()) break;
+                ByteBuffer record = buf.slice(buf.position(), len);
+                buf.position(buf.position() + len);
+                out.add(Exchange.decode(record));
+            }
+            return new Contents(startEpochNanos, out);
+        }
+    }
+
+    private static int utf8Length(String s) {
+        return s.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static void putShortString(ByteBuffer buf, String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        buf.putShort((short) b.length).put(b);
+    }
+
+    private static String getShortString(ByteBuffer buf) {
+        byte[] b = new byte[buf.getShort() & 0xFFFF];
+        buf.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
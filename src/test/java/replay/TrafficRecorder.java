@@ -0,0 +1,182 @@
+package replay;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RestAssured filter that appends every exchange to a {@link TrafficLog}.
+ *
+ * The request thread only captures references and enqueues; a single daemon thread
+ * encodes records into a direct buffer and writes it to the file channel when it
+ * fills up or the queue goes idle, so recording adds no file I/O to call latency.
+ * Logs are append-only; one recorder per file per JVM, flushed on shutdown.
+ */
+public final class TrafficRecorder implements Filter, AutoCloseable {
+
+    private static final Map<Path, TrafficRecorder> BY_FILE = new ConcurrentHashMap<>();
+    private static final String SIMULATE_NOW_HEADER = "X-Simulate-Now";
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long originNanos = System.nanoTime();
+    private final BlockingQueue<TrafficLog.Exchange> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private TrafficRecorder(Path file) throws IOException {
+        this.file = file;
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        ByteBuffer header = ByteBuffer.allocate(TrafficLog.HEADER_BYTES);
+        Instant now = Instant.now();
+        header.put(TrafficLog.MAGIC).putLong(now.getEpochSecond() * 1_000_000_000L + now.getNano()).flip();
+        while (header.hasRemaining()) channel.write(header);
+        writer = new Thread(this::drain, "traffic-recorder");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+    }
+
+    /**
+     * Recorder for {@code file}, created on first use. Each recording gets its own log:
+     * if the file already exists, a timestamp is added to the new file's name.
+     */
+    public static TrafficRecorder to(Path file) {
+        return BY_FILE.computeIfAbsent(file.toAbsolutePath(), f -> {
+            try {
+                Path target = Files.exists(f) ? withTimestamp(f) : f;
+                System.out.println("Recording API traffic to " + target);
+                return new TrafficRecorder(target);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                           FilterContext ctx) {
+        long start = System.nanoTime() - originNanos;
+        Response r = null;
+        try {
+            r = ctx.next(request, response);
+            return r;
+        } finally {
+            long end = System.nanoTime() - originNanos;
+            if (!closed) {
+                String simulateNow = request.getHeaders().getValue(SIMULATE_NOW_HEADER);
+                queue.add(new TrafficLog.Exchange(start, end, Thread.currentThread().getId(),
+                        r == null ? 0 : r.statusCode(), request.getMethod(), pathAndQuery(request.getURI()),
+                        simulateNow == null ? "" : simulateNow, bytes(request.getBody()),
+                        r == null ? new byte[0] : r.asByteArray()));
+            }
+        }
+    }
+
+    /** Stops recording and flushes everything queued so far. */
+    @Override
+    public void close() {
+        if (closed) return;
+        // no interrupt: it would close the FileChannel under a write (ClosedByInterruptException)
+        // and drop what is still queued; the writer sees the flag within one 100 ms poll
+        closed = true;
+        try {
+            writer.join(10_000);
+            channel.force(false);
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.out.println("Traffic log close failed: " + e);
+        }
+        BY_FILE.values().remove(this);
+    }
+
+    private void drain() {
+        ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        try {
+            while (true) {
+                TrafficLog.Exchange e;
+                try {
+                    e = queue.poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ie) {
+                    e = null;
+                    closed = true;
+                }
+                if (e == null) {
+                    flush(buf);
+                    if (closed && queue.isEmpty()) return;
+                    continue;
+                }
+                int size = Integer.BYTES + e.encodedSize();
+                if (size > buf.remaining()) flush(buf);
+                if (size > buf.capacity()) {
+                    ByteBuffer big = ByteBuffer.allocate(size);
+                    e.encode(big);
+                    write(big.flip());
+                } else {
+                    e.encode(buf);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Traffic recording stopped: " + e);
+            closed = true;
+        }
+    }
+
+    private void flush(ByteBuffer buf) throws IOException {
+        if (buf.position() == 0) return;
+        buf.flip();
+        write(buf);
+        buf.clear();
+    }
+
+    private void write(ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) channel.write(buf);
+    }
+
+    private static Path withTimestamp(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String stamp = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss").format(LocalDateTime.now());
+        String renamed = dot > 0 ? name.substring(0, dot) + "-" + stamp + name.substring(dot) : name + "-" + stamp;
+        return file.resolveSibling(renamed);
+    }
+
+    private static String pathAndQuery(String uri) {
+        URI u = URI.create(uri);
+        return u.getRawPath() + (u.getRawQuery() == null ? "" : "?" + u.getRawQuery());
+    }
+
+    private static byte[] bytes(Object body) {
+        if (body == null) return new byte[0];
+        if (body instanceof byte[] b) return b;
+        return String.valueOf(body).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,206 @@
+package replay;
+
+import client.CallMetrics;
+import client.EaFoodsClient;
+import client.TimedCall;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.specification.RequestSpecification;
+import orders.load.EndpointStats;
+import orders.load.LoadReport;
+import orders.load.OpenLoop;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Re-issues a {@link TrafficLog} against a base URL at recorded speed (1), N times
+ * faster, or as fast as causality allows (speed &lt;= 0).
+ *
+ * Causality: an exchange that started after another one had finished in the recording
+ * is not sent until that one has finished in the replay. This is tracked as the
+ * completed prefix of the exchanges sorted by recorded end time, so requests that
+ * overlapped in the recording may still overlap in the replay. Order ids created
+ * during the replay replace the recorded ones in later paths, so a recorded
+ * DELETE /orders/o123 cancels the order the replay placed in its stead.
+ */
+public class TrafficReplayer {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final List<TrafficLog.Exchange> byStart;
+    private final int[] dependencyCount;      // exchanges (in end order) that must be done before each start
+    private final int[] endRank;               // position of each exchange (by start index) in end order
+    private final boolean[] done;
+    private final AtomicInteger completedPrefix = new AtomicInteger();
+    private final Object progress = new Object();
+    private final Map<String, String> ids = new ConcurrentHashMap<>();
+    private final Map<String, EndpointStats> stats = new TreeMap<>();
+    private final Map<String, EndpointStats> recordedStats = new TreeMap<>();
+    private final AtomicLong statusMismatches = new AtomicLong();
+
+    public TrafficReplayer(List<TrafficLog.Exchange> exchanges) {
+        byStart = new ArrayList<>(exchanges);
+        byStart.sort(Comparator.comparingLong(TrafficLog.Exchange::startNanos));
+        int n = byStart.size();
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingLong(i -> byStart.get(i).endNanos()));
+        endRank = new int[n];
+        long[] ends = new long[n];
+        for (int rank = 0; rank < n; rank++) {
+            endRank[order[rank]] = rank;
+            ends[rank] = byStart.get(order[rank]).endNanos();
+        }
+        dependencyCount = new int[n];
+        for (int i = 0; i < n; i++) dependencyCount[i] = countBelow(ends, byStart.get(i).startNanos());
+        done = new boolean[n];
+        for (TrafficLog.Exchange e : byStart) {
+            String name = e.method() + " " + CallMetrics.endpoint(e.path());
+            stats.computeIfAbsent(name, EndpointStats::new);
+            recordedStats.computeIfAbsent(name, EndpointStats::new).record(e.endNanos() - e.startNanos(), e.status());
+        }
+    }
+
+    /** Replays everything and returns the replay's per-endpoint latency. */
+    public LoadReport replay(EaFoodsClient client, double speed, int concurrency) throws InterruptedException {
+        ExecutorService pool = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(CallMetrics.inCurrentTest(r), "replay-" + System.identityHashCode(r));
+            t.setDaemon(true);
+            return t;
+        });
+        long origin = System.nanoTime();
+        long firstStart = byStart.isEmpty() ? 0 : byStart.get(0).startNanos();
+        try {
+            for (int i = 0; i < byStart.size(); i++) {
+                TrafficLog.Exchange e = byStart.get(i);
+                if (speed > 0) {
+                    long due = origin + (long) ((e.startNanos() - firstStart) / speed);
+                    long wait;
+                    while ((wait = due - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+                }
+                awaitCompleted(dependencyCount[i]);
+                final int index = i;
+                pool.execute(() -> send(client, index));
+            }
+        } finally {
+            OpenLoop.drain(pool, TimeUnit.MINUTES.toSeconds(10), "Replay");
+        }
+        return new LoadReport(new ArrayList<>(stats.values()), System.nanoTime() - origin, byStart.size());
+    }
+
+    /** Latency per endpoint as it was recorded, for side-by-side comparison. */
+    public LoadReport recorded() {
+        long span = byStart.isEmpty() ? 0
+                : byStart.stream().mapToLong(TrafficLog.Exchange::endNanos).max().getAsLong() - byStart.get(0).startNanos();
+        return new LoadReport(new ArrayList<>(recordedStats.values()), span, byStart.size());
+    }
+
+    /** Replayed exchanges whose status differed from the recorded one. */
+    public long statusMismatches() {
+        return statusMismatches.get();
+    }
+
+    private void send(EaFoodsClient client, int index) {
+        TrafficLog.Exchange e = byStart.get(index);
+        String path = rewriteIds(e.path());
+        EndpointStats s = stats.get(e.method() + " " + CallMetrics.endpoint(e.path()));
+        RequestSpecification spec = client.request().urlEncodingEnabled(false);
+        if (!e.simulateNow().isEmpty()) spec = spec.header("X-Simulate-Now", e.simulateNow());
+        if (e.requestBody().length > 0) spec = spec.body(e.requestBody());
+        RequestSpecification request = spec;
+        try {
+            TimedCall call = TimedCall.of(() -> request.request(e.method(), path));
+            s.record(call);
+            if (call.status() != e.status()) statusMismatches.incrementAndGet();
+            if (!call.failed()) mapId(e.responseBody(), call.response().asByteArray());
+        } finally {
+            complete(index);
+        }
+    }
+
+    private void complete(int index) {
+        synchronized (progress) {
+            done[endRank[index]] = true;
+            int p = completedPrefix.get();
+            while (p < done.length && done[p]) p++;
+            completedPrefix.set(p);
+            progress.notifyAll();
+        }
+    }
+
+    private void awaitCompleted(int count) throws InterruptedException {
+        if (completedPrefix.get() >= count) return;
+        synchronized (progress) {
+            while (completedPrefix.get() < count) progress.wait();
+        }
+    }
+
+    private void mapId(byte[] recorded, byte[] replayed) {
+        if (recorded.length == 0 || recorded[0] != '{' || replayed.length == 0 || replayed[0] != '{') return;
+        try {
+            JsonNode a = MAPPER.readTree(recorded).get("id");
+            JsonNode b = MAPPER.readTree(replayed).get("id");
+            if (a != null && b != null && !a.asText().equals(b.asText())) ids.put(a.asText(), b.asText());
+        } catch (IOException ignored) {
+            // not JSON; nothing to map
+        }
+    }
+
+    private String rewriteIds(String path) {
+        if (ids.isEmpty()) return path;
+        int q = path.indexOf('?');
+        String p = q < 0 ? path : path.substring(0, q);
+        String[] segments = p.split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            String mapped = ids.get(segments[i]);
+            if (mapped != null) segments[i] = mapped;
+        }
+        return String.join("/", segments) + (q < 0 ? "" : path.substring(q));
+    }
+
+    private static int countBelow(long[] sorted, long value) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * {@code java replay.TrafficReplayer <log> [speed|max]} against BASE_URL; speed
+     * defaults to 1 (recorded pace).
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("usage: TrafficReplayer <traffic log> [speed|max]");
+            return;
+        }
+        TrafficLog.Contents log = TrafficLog.read(Paths.get(args[0]));
+        double speed = args.length > 1 ? ("max".equalsIgnoreCase(args[1]) ? 0 : Double.parseDouble(args[1])) : 1;
+        TrafficReplayer replayer = new TrafficReplayer(log.exchanges());
+        System.out.println("Recorded:");
+        replayer.recorded().print(System.out);
+        LoadReport report = replayer.replay(EaFoodsClient.shared(), speed, 64);
+        System.out.println("Replayed at " + (speed <= 0 ? "max" : speed + "x") + ":");
+        report.print(System.out);
+        System.out.println("Status mismatches: " + replayer.statusMismatches());
+    }
+}
@@ -0,0 +1,80 @@
+package replay;
+
+import backend.EmbeddedBackend;
+import client.EaFoodsClient;
+import client.Order;
+import io.restassured.response.Response;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Records place → get → cancel against one embedded backend and replays the log against
+ * a fresh one that already holds one more order, so the replayed place gets a different
+ * id and the GET and DELETE only match their recorded statuses if the replayer sent them
+ * to the replayed order. Needs no external server.
+ */
+public class TrafficReplayerTest {
+
+    private static final Path DB = Paths.get("server/db.json");
+    private static final Clock MORNING = Clock.fixed(Instant.parse("2025-09-05T09:00:00Z"), ZoneId.of("UTC"));
+
+    private Path dir;
+    private EmbeddedBackend backend;
+
+    @BeforeMethod
+    public void beforeEachTest() throws IOException {
+        dir = Files.createTempDirectory("traffic-replay");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void afterEachTest() throws IOException {
+        if (backend != null) backend.close();
+        try (var files = Files.list(dir)) {
+            for (Path f : files.toList()) Files.delete(f);
+        }
+        Files.delete(dir);
+    }
+
+    @Test
+    public void replayCancelsTheOrderItPlaced() throws IOException, InterruptedException {
+        TrafficRecorder recorder = TrafficRecorder.to(dir.resolve("traffic.log"));
+        backend = EmbeddedBackend.start(DB, 0, 8, null, false, MORNING);
+        EaFoodsClient client = EaFoodsClient.forBaseUrl(backend.baseUrl());
+
+        Response placed = client.request().filter(recorder)
+                .body(EaFoodsClient.orderBody("p1", 1, "8-10", "ignored")).post("/orders");
+        Assert.assertEquals(placed.statusCode(), 201, placed.asString());
+        String recordedId = placed.jsonPath().getString("id");
+        Assert.assertEquals(client.request().filter(recorder).get("/orders/" + recordedId).statusCode(), 200);
+        Assert.assertEquals(client.request().filter(recorder).delete("/orders/" + recordedId).statusCode(), 200);
+        recorder.close();
+        backend.close();
+
+        List<TrafficLog.Exchange> exchanges = TrafficLog.read(recorder.file()).exchanges();
+        Assert.assertEquals(exchanges.size(), 3, "place, get and cancel recorded");
+
+        backend = EmbeddedBackend.start(DB, 0, 8, null, false, MORNING);
+        EaFoodsClient replayClient = EaFoodsClient.forBaseUrl(backend.baseUrl());
+        String otherId = Order.from(replayClient.placeOrder("p2", 1, "8-10", "ignored")).id();
+        Assert.assertEquals(otherId, recordedId, "same state, same clock: the recorded id is taken");
+        int stock = replayClient.product("p1").stock();
+        TrafficReplayer replayer = new TrafficReplayer(exchanges);
+        replayer.replay(replayClient, 0, 4);
+
+        Assert.assertEquals(replayer.statusMismatches(), 0, "every replayed status matches the recording");
+        Assert.assertEquals(replayClient.product("p1").stock(), stock, "the replayed order was cancelled");
+        Assert.assertEquals(replayClient.request().get("/orders/" + otherId).statusCode(), 200,
+                "the order that holds the recorded id was left alone");
+    }
+}
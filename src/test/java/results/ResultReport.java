@@ -0,0 +1,439 @@
+package results;
+
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.IntCountsHistogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Aggregated report over one or more {@link SampleStore} files, built in one streaming
+ * pass: memory depends on endpoints, slots and timeline buckets, never on the number
+ * of samples. Files from several processes (e.g. distributed workers) are aligned on
+ * their wall-clock start. The timeline starts with REPORT_BUCKET_SECONDS buckets and
+ * doubles their width whenever the run would need more than REPORT_MAX_BUCKETS.
+ * Writes into a directory:
+ * <ul>
+ *   <li>summary.csv: per endpoint and per endpoint and slot, counts and percentiles;</li>
+ *   <li>timeline.csv: per bucket and endpoint, throughput, errors and percentiles
+ *       (two significant digits, to keep hundreds of buckets small);</li>
+ *   <li>errors.csv: per bucket, endpoint and failing outcome, the count;</li>
+ *   <li>report.html: all of the above with inline SVG charts, no scripts.</li>
+ * </ul>
+ *
+ * <pre>java -cp ... results.ResultReport &lt;output dir&gt; &lt;file.samples or dir&gt;...</pre>
+ */
+public class ResultReport {
+
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    private static final class Bucket {
+        final IntCountsHistogram micros = new IntCountsHistogram(2);
+        long errors;
+        final Map<String, long[]> errorOutcomes = new TreeMap<>();
+
+        void add(Bucket other) {
+            micros.add(other.micros);
+            errors += other.errors;
+            other.errorOutcomes.forEach((k, v) -> errorOutcomes.computeIfAbsent(k, x -> new long[1])[0] += v[0]);
+        }
+    }
+
+    private static final class Stats {
+        final Histogram micros = new Histogram(3);
+        long errors;
+    }
+
+    private static final class Series {
+        final String endpoint;
+        final Stats total = new Stats();
+        final Map<String, Stats> slots = new TreeMap<>();
+        final Map<String, long[]> outcomes = new TreeMap<>();
+        List<Bucket> buckets = new ArrayList<>();
+
+        Series(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        Bucket bucket(int index) {
+            while (buckets.size() <= index) buckets.add(null);
+            Bucket b = buckets.get(index);
+            if (b == null) buckets.set(index, b = new Bucket());
+            return b;
+        }
+    }
+
+    private final int maxBuckets;
+    private final Map<String, Series> series = new TreeMap<>();
+    private final Map<String, Boolean> isError = new HashMap<>();
+    private final List<String> sources = new ArrayList<>();
+    private long bucketMicros;
+    private long startEpochMillis;
+    private long samples;
+    private long lastMicros;
+
+    private ResultReport(ResultsConfig config) {
+        maxBuckets = Math.max(2, config.maxBuckets);
+        bucketMicros = config.bucketMicros();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("usage: ResultReport <output dir> <file.samples or dir>...");
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) files.addAll(sampleFiles(Paths.get(args[i])));
+        long t0 = System.nanoTime();
+        ResultReport report = read(files, ResultsConfig.fromEnv());
+        report.write(Paths.get(args[0]));
+        report.print(System.out);
+        System.out.println(String.format(Locale.ROOT, "Report on %d samples written to %s in %.1f s", report.samples(),
+                args[0], (System.nanoTime() - t0) / 1e9));
+    }
+
+    /** {@code path} itself, or the *.samples files directly inside it. */
+    public static List<Path> sampleFiles(Path path) throws IOException {
+        if (!Files.isDirectory(path)) return List.of(path);
+        try (Stream<Path> list = Files.list(path)) {
+            return list.filter(p -> p.getFileName().toString().endsWith(".samples")).sorted().toList();
+        }
+    }
+
+    public static ResultReport read(List<Path> files, ResultsConfig config) throws IOException {
+        ResultReport report = new ResultReport(config);
+        List<SampleReader> readers = new ArrayList<>();
+        try {
+            for (Path f : files) readers.add(SampleReader.open(f));
+            report.startEpochMillis = readers.stream().mapToLong(SampleReader::startEpochMillis).min().orElse(0);
+            for (SampleReader reader : readers) {
+                long offsetMicros = (reader.startEpochMillis() - report.startEpochMillis) * 1_000;
+                SampleReader.Block block;
+                while ((block = reader.next()) != null) report.add(block, offsetMicros);
+                report.sources.add(reader.file() + " (" + reader.label() + ", " + reader.rowsRead() + " samples"
+                        + (reader.complete() ? "" : ", incomplete") + ")");
+            }
+        } finally {
+            for (SampleReader r : readers) r.close();
+        }
+        return report;
+    }
+
+    public long samples() {
+        return samples;
+    }
+
+    public double seconds() {
+        return lastMicros / 1e6;
+    }
+
+    private void add(SampleReader.Block block, long offsetMicros) {
+        for (int i = 0; i < block.rows(); i++) {
+            long t = Math.max(0, offsetMicros + block.startMicros(i));
+            long index = t / bucketMicros;
+            while (index >= maxBuckets) {
+                coarsen();
+                index = t / bucketMicros;
+            }
+            long micros = Math.max(1, block.latencyMicros(i));
+            String outcome = block.outcome(i);
+            boolean error = isError.computeIfAbsent(outcome, ResultReport::errorOutcome);
+
+            Series s = series.computeIfAbsent(block.endpoint(i), Series::new);
+            record(s.total, micros, error);
+            record(s.slots.computeIfAbsent(block.slot(i), k -> new Stats()), micros, error);
+            s.outcomes.computeIfAbsent(outcome, k -> new long[1])[0]++;
+            Bucket b = s.bucket((int) index);
+            b.micros.recordValue(micros);
+            if (error) {
+                b.errors++;
+                b.errorOutcomes.computeIfAbsent(outcome, k -> new long[1])[0]++;
+            }
+            samples++;
+            lastMicros = Math.max(lastMicros, t + micros);
+        }
+    }
+
+    private static void record(Stats stats, long micros, boolean error) {
+        stats.micros.recordValue(micros);
+        if (error) stats.errors++;
+    }
+
+    // the same rule as EndpointStats: 4xx/5xx or no status code at all
+    private static boolean errorOutcome(String outcome) {
+        try {
+            return Integer.parseInt(outcome) >= 400;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    // halves the number of buckets by merging neighbours
+    private void coarsen() {
+        for (Series s : series.values()) {
+            List<Bucket> merged = new ArrayList<>();
+            for (int i = 0; i < s.buckets.size(); i += 2) {
+                Bucket a = s.buckets.get(i);
+                Bucket b = i + 1 < s.buckets.size() ? s.buckets.get(i + 1) : null;
+                if (a == null) a = b;
+                else if (b != null) a.add(b);
+                merged.add(a);
+            }
+            s.buckets = merged;
+        }
+        bucketMicros *= 2;
+    }
+
+    public void write(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        try (Writer out = writer(dir.resolve("summary.csv"))) {
+            out.write("endpoint,slot,count,errors,error_rate,p50_ms,p90_ms,p95_ms,p99_ms,p999_ms,max_ms\n");
+            for (Series s : series.values()) {
+                summaryRow(out, s.endpoint, "all", s.total);
+                for (Map.Entry<String, Stats> e : s.slots.entrySet()) summaryRow(out, s.endpoint, e.getKey(), e.getValue());
+            }
+        }
+        try (Writer out = writer(dir.resolve("timeline.csv"))) {
+            out.write("start_s,endpoint,count,req_per_s,errors,p50_ms,p95_ms,p99_ms,max_ms\n");
+            for (int i = 0; i < buckets(); i++) {
+                for (Series s : series.values()) {
+                    Bucket b = i < s.buckets.size() ? s.buckets.get(i) : null;
+                    if (b == null) continue;
+                    long n = b.micros.getTotalCount();
+                    out.write(String.format(Locale.ROOT, "%.1f,%s,%d,%.2f,%d,%.3f,%.3f,%.3f,%.3f\n", startSeconds(i),
+                            csv(s.endpoint), n, n / (bucketMicros / 1e6), b.errors, ms(b.micros, 50), ms(b.micros, 95),
+                            ms(b.micros, 99), b.micros.getMaxValue() / 1_000.0));
+                }
+            }
+        }
+        try (Writer out = writer(dir.resolve("errors.csv"))) {
+            out.write("start_s,endpoint,outcome,count\n");
+            for (int i = 0; i < buckets(); i++) {
+                for (Series s : series.values()) {
+                    Bucket b = i < s.buckets.size() ? s.buckets.get(i) : null;
+                    if (b == null) continue;
+                    for (Map.Entry<String, long[]> e : b.errorOutcomes.entrySet()) {
+                        out.write(String.format(Locale.ROOT, "%.1f,%s,%s,%d\n", startSeconds(i), csv(s.endpoint),
+                                csv(e.getKey()), e.getValue()[0]));
+                    }
+                }
+            }
+        }
+        try (Writer out = writer(dir.resolve("report.html"))) {
+            writeHtml(out);
+        }
+    }
+
+    public void print(PrintStream out) {
+        out.println(String.format(Locale.ROOT, "Samples: %d over %.1f s, timeline buckets of %.1f s", samples, seconds(),
+                bucketMicros / 1e6));
+        out.println(String.format("%-22s %-10s %9s %7s %9s %9s %9s %9s", "endpoint", "slot", "count", "errors", "p50 ms",
+                "p95 ms", "p99 ms", "max ms"));
+        for (Series s : series.values()) {
+            printRow(out, s.endpoint, "all", s.total);
+            for (Map.Entry<String, Stats> e : s.slots.entrySet()) printRow(out, "", e.getKey(), e.getValue());
+        }
+    }
+
+    private static void printRow(PrintStream out, String endpoint, String slot, Stats st) {
+        out.println(String.format(Locale.ROOT, "%-22s %-10s %9d %7d %9.2f %9.2f %9.2f %9.2f", endpoint, slot,
+                st.micros.getTotalCount(), st.errors, ms(st.micros, 50), ms(st.micros, 95), ms(st.micros, 99),
+                st.micros.getMaxValue() / 1_000.0));
+    }
+
+    private static void summaryRow(Writer out, String endpoint, String slot, Stats st) throws IOException {
+        long n = st.micros.getTotalCount();
+        StringBuilder row = new StringBuilder().append(csv(endpoint)).append(',').append(csv(slot)).append(',').append(n)
+                .append(',').append(st.errors).append(',')
+                .append(String.format(Locale.ROOT, "%.5f", n == 0 ? 0 : (double) st.errors / n));
+        for (double p : PERCENTILES) row.append(String.format(Locale.ROOT, ",%.3f", ms(st.micros, p)));
+        row.append(String.format(Locale.ROOT, ",%.3f\n", st.micros.getMaxValue() / 1_000.0));
+        out.write(row.toString());
+    }
+
+    // ---------------- html ----------------
+
+    private static final int WIDTH = 900;
+    private static final int HEIGHT = 180;
+    private static final int LEFT = 60;
+    private static final String[] LINE_COLORS = {"#2b8a3e", "#e67700", "#c92a2a"};
+
+    private void writeHtml(Writer out) throws IOException {
+        out.write("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Load results</title>\n<style>"
+                + "body{font-family:sans-serif;margin:24px;color:#222}table{border-collapse:collapse;margin:8px 0 24px}"
+                + "td,th{border:1px solid #ccc;padding:3px 8px;text-align:right}td:first-child,th:first-child{text-align:left}"
+                + "svg{display:block;margin:4px 0 16px}text{font-size:11px}</style></head><body>\n");
+        out.write("<h1>Load results</h1>\n<p>" + samples + " samples over " + fmt(seconds()) + " s from "
+                + esc(Instant.ofEpochMilli(startEpochMillis).toString()) + "; timeline buckets of "
+                + fmt(bucketMicros / 1e6) + " s.</p>\n<ul>");
+        for (String source : sources) out.write("<li>" + esc(source) + "</li>");
+        out.write("</ul>\n<h2>Summary</h2>\n<table><tr><th>endpoint</th><th>slot</th><th>count</th><th>errors</th>"
+                + "<th>error rate</th><th>p50 ms</th><th>p90 ms</th><th>p95 ms</th><th>p99 ms</th><th>p99.9 ms</th><th>max ms</th></tr>\n");
+        for (Series s : series.values()) {
+            htmlRow(out, s.endpoint, "all", s.total);
+            for (Map.Entry<String, Stats> e : s.slots.entrySet()) htmlRow(out, "", e.getKey(), e.getValue());
+        }
+        out.write("</table>\n");
+
+        for (Series s : series.values()) {
+            out.write("<h2>" + esc(s.endpoint) + "</h2>\n");
+            latencyChart(out, s);
+            throughputChart(out, s);
+            out.write("<table><tr><th>outcome</th><th>count</th></tr>");
+            for (Map.Entry<String, long[]> e : s.outcomes.entrySet()) {
+                out.write("<tr><td>" + esc(e.getKey()) + "</td><td>" + e.getValue()[0] + "</td></tr>");
+            }
+            out.write("</table>\n");
+        }
+        out.write("</body></html>\n");
+    }
+
+    private static void htmlRow(Writer out, String endpoint, String slot, Stats st) throws IOException {
+        long n = st.micros.getTotalCount();
+        StringBuilder row = new StringBuilder("<tr><td>").append(esc(endpoint)).append("</td><td>").append(esc(slot))
+                .append("</td><td>").append(n).append("</td><td>").append(st.errors).append("</td><td>")
+                .append(String.format(Locale.ROOT, "%.4f", n == 0 ? 0 : (double) st.errors / n)).append("</td>");
+        for (double p : PERCENTILES) row.append("<td>").append(fmt(ms(st.micros, p))).append("</td>");
+        row.append("<td>").append(fmt(st.micros.getMaxValue() / 1_000.0)).append("</td></tr>\n");
+        out.write(row.toString());
+    }
+
+    // p50 / p95 / p99 per bucket as three polylines
+    private void latencyChart(Writer out, Series s) throws IOException {
+        double[][] lines = new double[3][buckets()];
+        double top = 0;
+        for (int i = 0; i < buckets(); i++) {
+            Bucket b = i < s.buckets.size() ? s.buckets.get(i) : null;
+            if (b == null) continue;
+            lines[0][i] = ms(b.micros, 50);
+            lines[1][i] = ms(b.micros, 95);
+            lines[2][i] = ms(b.micros, 99);
+            top = Math.max(top, lines[2][i]);
+        }
+        top = niceCeiling(top);
+        StringBuilder svg = chartFrame("latency ms (p50 green, p95 orange, p99 red)", top);
+        for (int line = 0; line < lines.length; line++) {
+            svg.append("<polyline fill=\"none\" stroke-width=\"1.5\" stroke=\"").append(LINE_COLORS[line]).append("\" points=\"");
+            for (int i = 0; i < buckets(); i++) {
+                Bucket b = i < s.buckets.size() ? s.buckets.get(i) : null;
+                if (b == null) continue;
+                svg.append(fmt(x(i + 0.5))).append(',').append(fmt(y(lines[line][i], top))).append(' ');
+            }
+            svg.append("\"/>");
+        }
+        out.write(svg.append("</svg>\n").toString());
+    }
+
+    // requests per second as grey bars, the failing share of each bucket in red on top of them
+    private void throughputChart(Writer out, Series s) throws IOException {
+        double seconds = bucketMicros / 1e6;
+        double top = 0;
+        for (Bucket b : s.buckets) {
+            if (b != null) top = Math.max(top, b.micros.getTotalCount() / seconds);
+        }
+        top = niceCeiling(top);
+        StringBuilder svg = chartFrame("requests/s (errors red)", top);
+        double barWidth = Math.max(0.5, (WIDTH - LEFT) / (double) buckets() - 1);
+        for (int i = 0; i < buckets(); i++) {
+            Bucket b = i < s.buckets.size() ? s.buckets.get(i) : null;
+            if (b == null) continue;
+            double rate = b.micros.getTotalCount() / seconds;
+            double errorRate = b.errors / seconds;
+            svg.append(bar(x(i), barWidth, rate, top, "#adb5bd"));
+            if (b.errors > 0) svg.append(bar(x(i), barWidth, errorRate, top, "#c92a2a"));
+        }
+        out.write(svg.append("</svg>\n").toString());
+    }
+
+    private StringBuilder chartFrame(String title, double top) {
+        StringBuilder svg = new StringBuilder().append("<svg width=\"").append(WIDTH).append("\" height=\"").append(HEIGHT + 30)
+                .append("\" xmlns=\"http://www.w3.org/2000/svg\">")
+                .append("<text x=\"").append(LEFT).append("\" y=\"12\">").append(esc(title)).append("</text>");
+        for (int tick = 0; tick <= 4; tick++) {
+            double value = top * tick / 4;
+            double y = y(value, top);
+            svg.append("<line x1=\"").append(LEFT).append("\" x2=\"").append(WIDTH).append("\" y1=\"").append(fmt(y))
+                    .append("\" y2=\"").append(fmt(y)).append("\" stroke=\"#eee\"/>")
+                    .append("<text x=\"").append(LEFT - 4).append("\" y=\"").append(fmt(y + 4))
+                    .append("\" text-anchor=\"end\">").append(fmt(value)).append("</text>");
+        }
+        int labels = Math.min(6, buckets());
+        for (int l = 0; l <= labels; l++) {
+            int i = labels == 0 ? 0 : (int) Math.round((double) buckets() * l / labels);
+            svg.append("<text x=\"").append(fmt(x(i))).append("\" y=\"").append(HEIGHT + 28)
+                    .append("\" text-anchor=\"middle\">").append(fmt(startSeconds(i))).append(" s</text>");
+        }
+        return svg;
+    }
+
+    private String bar(double x, double width, double value, double top, String color) {
+        double y = y(value, top);
+        return "<rect x=\"" + fmt(x) + "\" y=\"" + fmt(y) + "\" width=\"" + fmt(width) + "\" height=\""
+                + fmt(HEIGHT + 16 - y) + "\" fill=\"" + color + "\"/>";
+    }
+
+    private double x(double bucket) {
+        return LEFT + (WIDTH - LEFT) * bucket / Math.max(1, buckets());
+    }
+
+    private static double y(double value, double top) {
+        return 16 + HEIGHT * (1 - (top == 0 ? 0 : value / top));
+    }
+
+    // 1, 2 or 5 times a power of ten, at least v
+    private static double niceCeiling(double v) {
+        if (v <= 0) return 1;
+        double magnitude = Math.pow(10, Math.floor(Math.log10(v)));
+        for (double step : new double[]{1, 2, 5, 10}) {
+            if (step * magnitude >= v) return step * magnitude;
+        }
+        return 10 * magnitude;
+    }
+
+    // ---------------- helpers ----------------
+
+    private int buckets() {
+        int n = 0;
+        for (Series s : series.values()) n = Math.max(n, s.buckets.size());
+        return n;
+    }
+
+    private double startSeconds(int bucket) {
+        return bucket * (bucketMicros / 1e6);
+    }
+
+    private static double ms(AbstractHistogram h, double percentile) {
+        return h.getTotalCount() == 0 ? 0 : h.getValueAtPercentile(percentile) / 1_000.0;
+    }
+
+    private static Writer writer(Path file) throws IOException {
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    }
+
+    private static String fmt(double v) {
+        String s = String.format(Locale.ROOT, "%.2f", v);
+        return s.contains(".") ? s.replaceAll("0+$", "").replaceAll("\\.$", "") : s;
+    }
+
+    private static String csv(String v) {
+        return v.contains(",") || v.contains("\"") ? "\"" + v.replace("\"", "\"\"") + "\"" : v;
+    }
+
+    private static String esc(String v) {
+        return v.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
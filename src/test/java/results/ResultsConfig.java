@@ -0,0 +1,44 @@
+package results;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static config.Settings.env;
+
+/**
+ * Knobs for the per-request sample store and its report, from environment variables
+ * (or -D system properties) like {@link orders.load.LoadConfig}.
+ */
+public class ResultsConfig {
+
+    // whether load runs write every request to a SampleStore and report on it afterwards
+    public final boolean record;
+    public final Path dir;
+    // rows buffered per column block; the writer's memory is about 24 bytes per row of this
+    public final int blockRows;
+    // the report's timeline never has more buckets than this; buckets widen as the run gets longer
+    public final int maxBuckets;
+    // smallest bucket width; 0 starts at one second
+    public final int bucketSeconds;
+
+    private ResultsConfig() {
+        record = Boolean.parseBoolean(env("RESULTS_RECORD", "true"));
+        dir = Paths.get(env("RESULTS_DIR", "test-output/results"));
+        blockRows = Integer.parseInt(env("RESULTS_BLOCK_ROWS", "65536"));
+        maxBuckets = Integer.parseInt(env("REPORT_MAX_BUCKETS", "240"));
+        bucketSeconds = Integer.parseInt(env("REPORT_BUCKET_SECONDS", "0"));
+    }
+
+    public static ResultsConfig fromEnv() {
+        return new ResultsConfig();
+    }
+
+    public long bucketMicros() {
+        return Math.max(1, bucketSeconds) * 1_000_000L;
+    }
+
+    @Override
+    public String toString() {
+        return "record=" + record + " dir=" + dir + " blockRows=" + blockRows + " maxBuckets=" + maxBuckets;
+    }
+}
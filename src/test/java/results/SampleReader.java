@@ -0,0 +1,199 @@
+package results;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a {@link SampleStore} file one block at a time. {@link #next()} decodes the
+ * next block into a {@link Block} that is reused for the whole file, so reading takes
+ * the memory of one block whatever the file size.
+ */
+public class SampleReader implements Closeable {
+
+    /** The columns of one decoded block; valid until the next call to {@link #next()}. */
+    public final class Block {
+        private int rows;
+        private long[] starts = new long[0];
+        private int[] latencies = new int[0];
+        private int[][] ids = new int[3][0];
+
+        public int rows() {
+            return rows;
+        }
+
+        /** Intended start, microseconds after the file's {@link #startEpochMillis()}. */
+        public long startMicros(int row) {
+            return starts[row];
+        }
+
+        public int latencyMicros(int row) {
+            return latencies[row];
+        }
+
+        public String endpoint(int row) {
+            return dictionaries.get(SampleStore.ENDPOINT).get(ids[SampleStore.ENDPOINT][row]);
+        }
+
+        public String slot(int row) {
+            return dictionaries.get(SampleStore.SLOT).get(ids[SampleStore.SLOT][row]);
+        }
+
+        public String outcome(int row) {
+            return dictionaries.get(SampleStore.OUTCOME).get(ids[SampleStore.OUTCOME][row]);
+        }
+
+        private void ensure(int n) {
+            if (starts.length >= n) return;
+            starts = new long[n];
+            latencies = new int[n];
+            ids = new int[3][n];
+        }
+    }
+
+    private final Path file;
+    private final DataInputStream in;
+    private final long startEpochMillis;
+    private final String label;
+    private final List<List<String>> dictionaries = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+    private final Block block = new Block();
+    private final Inflater inflater = new Inflater();
+    private byte[] deflated = new byte[1024];
+    private byte[] raw = new byte[1024];
+    private int position;
+    private long rowsRead;
+    private boolean complete;
+    private boolean done;
+
+    private SampleReader(Path file) throws IOException {
+        this.file = file;
+        in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+        try {
+            byte[] magic = new byte[SampleStore.MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, SampleStore.MAGIC)) throw new IOException(file + " is not a sample store");
+            short version = in.readShort();
+            if (version != SampleStore.VERSION) throw new IOException(file + ": unsupported sample store version " + version);
+            startEpochMillis = in.readLong();
+            label = in.readUTF();
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    public static SampleReader open(Path file) throws IOException {
+        return new SampleReader(file);
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /** Wall-clock time that sample start times count from. */
+    public long startEpochMillis() {
+        return startEpochMillis;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public long rowsRead() {
+        return rowsRead;
+    }
+
+    /** False when the file ended without its end marker, e.g. the run was killed. */
+    public boolean complete() {
+        return complete;
+    }
+
+    /** The next block, or null at the end of the file. */
+    public Block next() throws IOException {
+        while (!done) {
+            int type;
+            try {
+                type = in.read();
+                if (type < 0) {
+                    done = true;
+                    break;
+                }
+                switch (type) {
+                    case SampleStore.DICTIONARY -> dictionaries.get(in.readByte()).add(in.readUTF());
+                    case SampleStore.BLOCK -> {
+                        readBlock();
+                        return block;
+                    }
+                    case SampleStore.END -> {
+                        in.readLong();
+                        complete = true;
+                        done = true;
+                    }
+                    default -> throw new IOException(file + ": corrupt sample store, chunk type " + type);
+                }
+            } catch (EOFException e) {
+                System.out.println("Sample store " + file + " ends mid-chunk after " + rowsRead + " rows; reading what is complete");
+                done = true;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        in.close();
+    }
+
+    private void readBlock() throws IOException {
+        int rows = in.readInt();
+        int rawLength = in.readInt();
+        int deflatedLength = in.readInt();
+        if (deflated.length < deflatedLength) deflated = new byte[deflatedLength];
+        if (raw.length < rawLength) raw = new byte[rawLength];
+        in.readFully(deflated, 0, deflatedLength);
+        inflater.reset();
+        inflater.setInput(deflated, 0, deflatedLength);
+        try {
+            if (inflater.inflate(raw, 0, rawLength) != rawLength) throw new IOException(file + ": short block");
+        } catch (DataFormatException e) {
+            throw new IOException(file + ": corrupt block", e);
+        }
+
+        block.ensure(rows);
+        block.rows = rows;
+        position = 0;
+        long start = 0;
+        for (int i = 0; i < rows; i++) {
+            long zigzag = readVarLong();
+            start += (zigzag >>> 1) ^ -(zigzag & 1);
+            block.starts[i] = start;
+        }
+        for (int i = 0; i < rows; i++) block.latencies[i] = (int) readVarLong();
+        for (int[] column : block.ids) {
+            for (int i = 0; i < rows; i++) column[i] = (int) readVarLong();
+        }
+        rowsRead += rows;
+    }
+
+    private long readVarLong() {
+        long v = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = raw[position++];
+            v |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return v;
+    }
+}
@@ -0,0 +1,190 @@
+package results;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Append-only, columnar file of request samples: when each request was meant to start,
+ * its latency, endpoint, slot and outcome (status code or exception name). Rows are
+ * buffered per column for {@code blockRows} rows and then written as one deflated block:
+ * start times delta-encoded, all columns as varints, strings as dictionary ids. Memory
+ * stays at one block however long the run is; a sample costs a few bytes on disk.
+ * Read it back with {@link SampleReader}; a file cut short by a crash reads up to its
+ * last whole block. Safe to record into from any number of threads.
+ *
+ * <pre>
+ * file   = "EASAMPLE" version:short startEpochMillis:long label:utf chunk*
+ * chunk  = 'D' column:byte value:utf                      one new dictionary entry
+ *        | 'B' rows:int rawBytes:int deflatedBytes:int data
+ *        | 'E' totalRows:long                             clean end of file
+ * data   = startDelta* latency* endpoint* slot* outcome*   varints, zigzag for deltas
+ * </pre>
+ */
+public class SampleStore implements Closeable {
+
+    static final byte[] MAGIC = {'E', 'A', 'S', 'A', 'M', 'P', 'L', 'E'};
+    static final short VERSION = 1;
+    static final byte DICTIONARY = 'D';
+    static final byte BLOCK = 'B';
+    static final byte END = 'E';
+    static final int ENDPOINT = 0;
+    static final int SLOT = 1;
+    static final int OUTCOME = 2;
+
+    /** Slot of a request that has none, such as a cancel. */
+    public static final String NO_SLOT = "-";
+
+    private final Path file;
+    private final DataOutputStream out;
+    private final long startNanos;
+    private final int blockRows;
+
+    private final List<Map<String, Integer>> dictionaries = List.of(new HashMap<>(), new HashMap<>(), new HashMap<>());
+    private final List<Entry> pendingEntries = new ArrayList<>();
+    private final long[] starts;
+    private final int[] latencies;
+    private final int[][] ids;
+    private int rows;
+    private long totalRows;
+    private boolean closed;
+
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private byte[] raw = new byte[1024];
+    private int rawLength;
+    private byte[] deflated = new byte[1024];
+
+    private record Entry(int column, String value) {
+    }
+
+    private SampleStore(Path file, String label, int blockRows) throws IOException {
+        this.file = file;
+        this.blockRows = Math.max(1, blockRows);
+        starts = new long[this.blockRows];
+        latencies = new int[this.blockRows];
+        ids = new int[3][this.blockRows];
+        if (file.toAbsolutePath().getParent() != null) Files.createDirectories(file.toAbsolutePath().getParent());
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        startNanos = System.nanoTime();
+        out.write(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(System.currentTimeMillis());
+        out.writeUTF(label);
+    }
+
+    /** Creates (or replaces) {@code file}; sample times are taken relative to now. */
+    public static SampleStore create(Path file, String label, int blockRows) throws IOException {
+        return new SampleStore(file, label, blockRows);
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Appends one sample. {@code startNanos} is the request's {@link System#nanoTime()}
+     * start (the intended one for open-loop runs), {@code latencyNanos} its duration.
+     */
+    public synchronized void record(String endpoint, String slot, String outcome, long startNanos, long latencyNanos) {
+        if (closed) return;
+        starts[rows] = (startNanos - this.startNanos) / 1_000;
+        latencies[rows] = (int) Math.min(Integer.MAX_VALUE, Math.max(0, latencyNanos / 1_000));
+        ids[ENDPOINT][rows] = id(ENDPOINT, endpoint);
+        ids[SLOT][rows] = id(SLOT, slot == null ? NO_SLOT : slot);
+        ids[OUTCOME][rows] = id(OUTCOME, outcome);
+        if (++rows == blockRows) {
+            try {
+                flushBlock();
+            } catch (IOException e) {
+                throw new UncheckedIOException("writing samples to " + file, e);
+            }
+        }
+    }
+
+    public synchronized long rows() {
+        return totalRows + rows;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        try {
+            flushBlock();
+            out.writeByte(END);
+            out.writeLong(totalRows);
+        } finally {
+            closed = true;
+            deflater.end();
+            out.close();
+        }
+    }
+
+    private int id(int column, String value) {
+        Map<String, Integer> dictionary = dictionaries.get(column);
+        Integer id = dictionary.get(value);
+        if (id != null) return id;
+        id = dictionary.size();
+        dictionary.put(value, id);
+        pendingEntries.add(new Entry(column, value));
+        return id;
+    }
+
+    private void flushBlock() throws IOException {
+        // dictionary entries go first, so a reader knows every id of the block it is about to decode
+        for (Entry entry : pendingEntries) {
+            out.writeByte(DICTIONARY);
+            out.writeByte(entry.column());
+            out.writeUTF(entry.value());
+        }
+        pendingEntries.clear();
+        if (rows == 0) return;
+
+        rawLength = 0;
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            long delta = starts[i] - previous;
+            writeVarLong((delta << 1) ^ (delta >> 63));
+            previous = starts[i];
+        }
+        for (int i = 0; i < rows; i++) writeVarLong(latencies[i]);
+        for (int[] column : ids) {
+            for (int i = 0; i < rows; i++) writeVarLong(column[i]);
+        }
+
+        deflater.reset();
+        deflater.setInput(raw, 0, rawLength);
+        deflater.finish();
+        int deflatedLength = 0;
+        while (!deflater.finished()) {
+            if (deflatedLength == deflated.length) deflated = Arrays.copyOf(deflated, deflated.length * 2);
+            deflatedLength += deflater.deflate(deflated, deflatedLength, deflated.length - deflatedLength);
+        }
+        out.writeByte(BLOCK);
+        out.writeInt(rows);
+        out.writeInt(rawLength);
+        out.writeInt(deflatedLength);
+        out.write(deflated, 0, deflatedLength);
+        out.flush();
+        totalRows += rows;
+        rows = 0;
+    }
+
+    private void writeVarLong(long v) {
+        if (raw.length - rawLength < 10) raw = Arrays.copyOf(raw, raw.length * 2);
+        while ((v & ~0x7FL) != 0) {
+            raw[rawLength++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        raw[rawLength++] = (byte) v;
+    }
+}
@@ -0,0 +1,125 @@
+package results;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Checks the sample store format (round trip across blocks, a file cut short by a
+ * crash) and that the report's totals and timeline add up. Needs no server.
+ */
+public class SampleStoreTest {
+
+    private static final int SAMPLES = 10_000;
+
+    private Path dir;
+
+    @BeforeMethod
+    public void beforeEachTest() throws IOException {
+        dir = Files.createTempDirectory("samples");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void afterEachTest() throws IOException {
+        System.clearProperty("REPORT_MAX_BUCKETS");
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path f : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(f);
+        }
+    }
+
+    // sample i: starts i*10ms into the run, takes (i % 100) ms, every 50th fails
+    private Path write(String name) throws IOException {
+        Path file = dir.resolve(name);
+        try (SampleStore store = SampleStore.create(file, "test", 1_000)) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < SAMPLES; i++) {
+                boolean place = i % 2 == 0;
+                String outcome = i % 50 == 0 ? (i % 100 == 0 ? "SocketTimeoutException" : "500") : place ? "201" : "200";
+                store.record(place ? "POST /orders" : "DELETE /orders/{id}", place ? "morning" : SampleStore.NO_SLOT,
+                        outcome, t0 + i * 10_000_000L, (i % 100) * 1_000_000L);
+            }
+        }
+        return file;
+    }
+
+    @Test
+    public void samplesRoundTripAcrossBlocks() throws IOException {
+        Path file = write("run.samples");
+
+        int row = 0;
+        long previousStart = -1;
+        try (SampleReader reader = SampleReader.open(file)) {
+            Assert.assertEquals(reader.label(), "test");
+            SampleReader.Block block;
+            while ((block = reader.next()) != null) {
+                Assert.assertTrue(block.rows() <= 1_000, "block size");
+                for (int i = 0; i < block.rows(); i++, row++) {
+                    Assert.assertEquals(block.latencyMicros(i), (row % 100) * 1_000, "latency of row " + row);
+                    Assert.assertEquals(block.endpoint(i), row % 2 == 0 ? "POST /orders" : "DELETE /orders/{id}");
+                    Assert.assertEquals(block.slot(i), row % 2 == 0 ? "morning" : SampleStore.NO_SLOT);
+                    if (row > 0) Assert.assertTrue(block.startMicros(i) - previousStart >= 9_000, "start times keep their spacing");
+                    previousStart = block.startMicros(i);
+                }
+            }
+            Assert.assertTrue(reader.complete(), "end marker read");
+        }
+        Assert.assertEquals(row, SAMPLES);
+        Assert.assertTrue(Files.size(file) < SAMPLES * 4L, "compact: " + Files.size(file) + " bytes");
+    }
+
+    @Test
+    public void truncatedFileReadsWholeBlocks() throws IOException {
+        Path file = write("run.samples");
+        Path cut = dir.resolve("cut.samples");
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(cut, Arrays.copyOf(bytes, bytes.length / 2));
+
+        long rows = 0;
+        try (SampleReader reader = SampleReader.open(cut)) {
+            SampleReader.Block block;
+            while ((block = reader.next()) != null) rows += block.rows();
+            Assert.assertFalse(reader.complete(), "no end marker");
+        }
+        Assert.assertTrue(rows > 0 && rows < SAMPLES && rows % 1_000 == 0, "whole blocks only: " + rows);
+    }
+
+    @Test
+    public void reportTotalsAndTimelineAddUp() throws IOException {
+        System.setProperty("REPORT_MAX_BUCKETS", "10");
+        Path file = write("run.samples");
+
+        ResultReport report = ResultReport.read(List.of(file), ResultsConfig.fromEnv());
+        report.write(dir.resolve("report"));
+        Assert.assertEquals(report.samples(), SAMPLES);
+
+        // 100 s of samples into at most 10 buckets: 1 s doubles to 16 s, so 7 buckets
+        List<String> timeline = Files.readAllLines(dir.resolve("report/timeline.csv"));
+        long count = 0, errors = 0;
+        for (String line : timeline.subList(1, timeline.size())) {
+            String[] f = line.split(",");
+            count += Long.parseLong(f[2]);
+            errors += Long.parseLong(f[4]);
+        }
+        Assert.assertEquals(count, SAMPLES, "timeline counts");
+        Assert.assertEquals(errors, SAMPLES / 50, "timeline errors");
+        Assert.assertEquals(timeline.get(timeline.size() - 1).split(",")[0], "96.0", "last bucket start");
+
+        List<String> summary = Files.readAllLines(dir.resolve("report/summary.csv"));
+        Assert.assertTrue(summary.stream().anyMatch(l -> l.startsWith("POST /orders,all,5000,200,0.04000,")), String.join("\n", summary));
+        Assert.assertTrue(summary.stream().anyMatch(l -> l.startsWith("DELETE /orders/{id},-,5000,0,")), "cancels never fail here");
+
+        List<String> errorLines = Files.readAllLines(dir.resolve("report/errors.csv"));
+        Assert.assertTrue(errorLines.stream().anyMatch(l -> l.contains(",POST /orders,SocketTimeoutException,")), "exception outcomes");
+        Assert.assertTrue(errorLines.stream().anyMatch(l -> l.contains(",POST /orders,500,")), "5xx outcomes");
+        Assert.assertTrue(Files.readString(dir.resolve("report/report.html")).contains("<polyline"), "latency chart");
+    }
+}
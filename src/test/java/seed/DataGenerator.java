@@ -0,0 +1,207 @@
+package seed;
+
+import client.EaFoodsClient;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.restassured.response.Response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a catalog and an order history for a {@link SeedConfig} and streams the
+ * rows straight into a JsonGenerator, so a 10M-row data set never sits in memory.
+ *
+ * Products are p1..pN with random prices and SEED_STOCK each. Orders pick a product by
+ * Zipf rank (p1 most popular), a slot by weight, qty 1-5 (mostly 1), and a createdAt
+ * spread over the history days with a daytime-heavy hourly profile; deliveryDate follows
+ * server.js (next day, two days from 12:00 local). Rows come out in createdAt order with
+ * ids "o" + millis, like orders placed through the API. The same seed always yields the
+ * same rows.
+ */
+public class DataGenerator {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final DateTimeFormatter JS_ISO = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+            .withZone(ZoneOffset.UTC);
+    private static final String[] NAMES = {"Milk", "Bread", "Eggs", "Rice", "Flour", "Sugar", "Butter", "Cheese",
+            "Apples", "Bananas", "Tomatoes", "Onions", "Potatoes", "Yogurt", "Tea", "Coffee"};
+    // relative order volume per local hour of day
+    private static final double[] HOURLY = {1, 0.5, 0.3, 0.3, 0.5, 1, 3, 6, 8, 9, 9, 10,
+            10, 9, 8, 7, 7, 8, 9, 8, 6, 4, 3, 2};
+
+    private final SeedConfig config;
+
+    public DataGenerator(SeedConfig config) {
+        this.config = config;
+    }
+
+    /** Where generated rows go: returns the generator the next row is written to. */
+    private interface RowTarget {
+        JsonGenerator nextRow() throws IOException;
+    }
+
+    // ---------------- sinks ----------------
+
+    /** Writes a complete db.json ({"products":[...],"orders":[...]}) for json-server or EMBEDDED_DB. */
+    public void writeDb(Path file) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        try (JsonGenerator json = JSON.createGenerator(file.toFile(), JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("products");
+            writeProducts(() -> json);
+            json.writeEndArray();
+            json.writeArrayFieldStart("orders");
+            writeOrders(() -> json);
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    /** Loads the rows through POST /ops/bulk-load in batches of SEED_BATCH rows. */
+    public void bulkLoad(EaFoodsClient client) throws IOException {
+        try (BulkTarget products = new BulkTarget(client, "products")) {
+            writeProducts(products);
+        }
+        try (BulkTarget orders = new BulkTarget(client, "orders")) {
+            writeOrders(orders);
+        }
+    }
+
+    private final class BulkTarget implements RowTarget, AutoCloseable {
+        private final EaFoodsClient client;
+        private final String collection;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 20);
+        private JsonGenerator json;
+        private int rows;
+
+        BulkTarget(EaFoodsClient client, String collection) {
+            this.client = client;
+            this.collection = collection;
+        }
+
+        @Override
+        public JsonGenerator nextRow() throws IOException {
+            if (rows == config.batchRows) send();
+            if (json == null) {
+                buffer.reset();
+                json = JSON.createGenerator(buffer, JsonEncoding.UTF8);
+                json.writeStartObject();
+                json.writeArrayFieldStart(collection);
+            }
+            rows++;
+            return json;
+        }
+
+        private void send() throws IOException {
+            json.writeEndArray();
+            json.writeEndObject();
+            json.close();
+            json = null;
+            rows = 0;
+            Response r = client.bulkLoad(buffer.toByteArray());
+            if (r.statusCode() != 200) {
+                throw new IllegalStateException("POST /ops/bulk-load returned " + r.statusCode() + ": " + r.asString());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (json != null) send();
+        }
+    }
+
+    // ---------------- rows ----------------
+
+    private void writeProducts(RowTarget target) throws IOException {
+        SplittableRandom random = new SplittableRandom(config.randomSeed);
+        for (int i = 1; i <= config.products; i++) {
+            JsonGenerator json = target.nextRow();
+            json.writeStartObject();
+            json.writeStringField("id", "p" + i);
+            json.writeStringField("name", NAMES[random.nextInt(NAMES.length)] + " " + i);
+            json.writeNumberField("price", 20 + random.nextInt(481));
+            json.writeNumberField("stock", config.stock);
+            json.writeEndObject();
+        }
+    }
+
+    private void writeOrders(RowTarget target) throws IOException {
+        SplittableRandom random = new SplittableRandom(config.randomSeed + 1);
+        ZipfSampler products = new ZipfSampler(config.products, config.zipfExponent);
+        String[] slotNames = config.slots.keySet().toArray(new String[0]);
+        double[] slotCdf = cdf(config.slots.values().stream().mapToDouble(Double::doubleValue).toArray());
+        double[] hourCdf = cdf(HOURLY);
+
+        LocalDate firstDay = config.historyEnd.atZone(config.zone).toLocalDate().minusDays(config.historyDays);
+        long lastMillis = 0;
+        for (int day = 0; day < config.historyDays; day++) {
+            long count = config.orders / config.historyDays + (day < config.orders % config.historyDays ? 1 : 0);
+            long dayStart = firstDay.plusDays(day).atStartOfDay(config.zone).toInstant().toEpochMilli();
+            long[] offsets = new long[(int) count];
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = pick(hourCdf, random) * 3_600_000L + random.nextLong(3_600_000L);
+            }
+            Arrays.sort(offsets);
+
+            for (long offset : offsets) {
+                long created = dayStart + offset;
+                lastMillis = Math.max(lastMillis + 1, created);
+                ZonedDateTime local = Instant.ofEpochMilli(created).atZone(config.zone);
+                JsonGenerator json = target.nextRow();
+                json.writeStartObject();
+                json.writeStringField("id", "o" + lastMillis);
+                json.writeStringField("productId", "p" + products.sample(random));
+                json.writeNumberField("qty", qty(random));
+                json.writeStringField("slot", slotNames[pick(slotCdf, random)]);
+                json.writeStringField("deliveryDate", local.toLocalDate().plusDays(local.getHour() >= 12 ? 2 : 1).toString());
+                json.writeStringField("status", "delievred");
+                json.writeStringField("createdAt", JS_ISO.format(Instant.ofEpochMilli(created)));
+                json.writeEndObject();
+            }
+        }
+    }
+
+    // 1 for ~60% of orders, then geometrically fewer, at most 5
+    private static int qty(SplittableRandom random) {
+        int qty = 1;
+        while (qty < 5 && random.nextDouble() < 0.4) qty++;
+        return qty;
+    }
+
+    private static double[] cdf(double[] weights) {
+        double[] out = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            out[i] = sum;
+        }
+        for (int i = 0; i < out.length; i++) out[i] /= sum;
+        return out;
+    }
+
+    private static int pick(double[] cdf, SplittableRandom random) {
+        double u = random.nextDouble();
+        for (int i = 0; i < cdf.length; i++) {
+            if (u < cdf[i]) return i;
+        }
+        return cdf.length - 1;
+    }
+
+    /** Summary line for logs. */
+    public static String describe(SeedConfig config, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        return String.format("%d products + %d orders in %.1f s (%.0f rows/s)", config.products, config.orders,
+                seconds, (config.products + config.orders) / Math.max(seconds, 1e-9));
+    }
+}
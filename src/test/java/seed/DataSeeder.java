@@ -0,0 +1,41 @@
+package seed;
+
+import client.EaFoodsClient;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command-line seeder: {@code java seed.DataSeeder file [db.json]} writes a generated
+ * db.json (start json-server or the embedded backend on it), {@code java seed.DataSeeder
+ * bulk} loads the same rows into the running embedded backend at BASE_URL through POST
+ * /ops/bulk-load. Size and distributions come from the SEED_* settings in
+ * {@link SeedConfig}.
+ */
+public final class DataSeeder {
+
+    private DataSeeder() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "file";
+        SeedConfig config = SeedConfig.fromEnv();
+        System.out.println("Seed config: " + config);
+        DataGenerator generator = new DataGenerator(config);
+        long start = System.nanoTime();
+        switch (mode) {
+            case "file" -> {
+                Path out = Paths.get(args.length > 1 ? args[1] : "target/seed/db.json");
+                generator.writeDb(out);
+                System.out.println("Wrote " + DataGenerator.describe(config, System.nanoTime() - start) + " to " + out);
+            }
+            case "bulk" -> {
+                EaFoodsClient client = EaFoodsClient.shared();
+                generator.bulkLoad(client);
+                System.out.println("Loaded " + DataGenerator.describe(config, System.nanoTime() - start)
+                        + " into " + client.baseUrl());
+            }
+            default -> throw new IllegalArgumentException("Usage: DataSeeder file [db.json] | bulk");
+        }
+    }
+}
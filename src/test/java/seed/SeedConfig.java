@@ -0,0 +1,82 @@
+package seed;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static config.Settings.env;
+import static config.Settings.split;
+
+/**
+ * Shape of a generated data set, from environment variables (or -D system properties)
+ * like {@link orders.load.LoadConfig}.
+ */
+public class SeedConfig {
+
+    public final int products;
+    public final long orders;
+    // Zipf exponent of product popularity; p1 is the most ordered product
+    public final double zipfExponent;
+    // slot name -> relative weight
+    public final Map<String, Double> slots;
+    // order history covers the days before historyEnd
+    public final int historyDays;
+    public final Instant historyEnd;
+    public final ZoneId zone;
+    public final int stock;
+    public final long randomSeed;
+    // rows per POST /ops/bulk-load request
+    public final int batchRows;
+
+    private SeedConfig(int products, long orders, SeedConfig from) {
+        this.products = products;
+        this.orders = orders;
+        this.zipfExponent = from.zipfExponent;
+        this.slots = from.slots;
+        this.historyDays = from.historyDays;
+        this.historyEnd = from.historyEnd;
+        this.zone = from.zone;
+        this.stock = from.stock;
+        this.randomSeed = from.randomSeed;
+        this.batchRows = from.batchRows;
+    }
+
+    private SeedConfig() {
+        products = Integer.parseInt(env("SEED_PRODUCTS", "10000"));
+        orders = Long.parseLong(env("SEED_ORDERS", "100000"));
+        zipfExponent = Double.parseDouble(env("SEED_ZIPF_S", "1.1"));
+        slots = weights(env("SEED_SLOTS", "morning=0.45,afternoon=0.35,evening=0.2"));
+        historyDays = Integer.parseInt(env("SEED_DAYS", "90"));
+        historyEnd = Instant.parse(env("SEED_END", "2025-09-01T00:00:00Z"));
+        zone = ZoneId.of(env("SEED_ZONE", "UTC"));
+        stock = Integer.parseInt(env("SEED_STOCK", "1000000"));
+        randomSeed = Long.parseLong(env("SEED_RANDOM", "42"));
+        batchRows = Integer.parseInt(env("SEED_BATCH", "20000"));
+    }
+
+    public static SeedConfig fromEnv() {
+        return new SeedConfig();
+    }
+
+    /** Same distributions at another size. */
+    public SeedConfig withSize(int products, long orders) {
+        return new SeedConfig(products, orders, this);
+    }
+
+    @Override
+    public String toString() {
+        return "products=" + products + " orders=" + orders + " zipf=" + zipfExponent + " slots=" + slots
+                + " days=" + historyDays + " until=" + historyEnd + " zone=" + zone + " seed=" + randomSeed;
+    }
+
+    private static Map<String, Double> weights(String csv) {
+        Map<String, Double> out = new LinkedHashMap<>();
+        for (String pair : split(csv)) {
+            int eq = pair.indexOf('=');
+            out.put(pair.substring(0, eq < 0 ? pair.length() : eq).trim(),
+                    eq < 0 ? 1.0 : Double.parseDouble(pair.substring(eq + 1).trim()));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,52 @@
+package shard;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static config.Settings.env;
+import static config.Settings.split;
+
+/**
+ * Knobs for {@link ShardPlanner}, from environment variables (or -D system properties)
+ * like {@link orders.load.LoadConfig}.
+ */
+public class ShardConfig {
+
+    public final int shards;
+    // result files or directories to read history from (testng-results.xml, junitreports/TEST-*.xml)
+    public final List<Path> history;
+    // where "record" keeps copies of past testng-results.xml files, and how many
+    public final Path archiveDir;
+    public final int keepRuns;
+    // weight of a run that is one run older than the next; 1 weighs every run the same
+    public final double decay;
+    // estimate for classes with no history when nothing else is known either
+    public final double defaultSeconds;
+    public final Path classesDir;
+    public final Path outputDir;
+
+    private ShardConfig() {
+        shards = Integer.parseInt(env("SHARD_COUNT", "2"));
+        archiveDir = Paths.get(env("SHARD_ARCHIVE", "test-history"));
+        history = new ArrayList<>();
+        for (String s : split(env("SHARD_HISTORY", archiveDir + ",target/surefire-reports,test-output"))) {
+            history.add(Paths.get(s));
+        }
+        keepRuns = Integer.parseInt(env("SHARD_KEEP_RUNS", "50"));
+        decay = Double.parseDouble(env("SHARD_DECAY", "0.8"));
+        defaultSeconds = Double.parseDouble(env("SHARD_DEFAULT_SECONDS", "5"));
+        classesDir = Paths.get(env("SHARD_CLASSES_DIR", "target/test-classes"));
+        outputDir = Paths.get(env("SHARD_OUTPUT_DIR", "target/shards"));
+    }
+
+    public static ShardConfig fromEnv() {
+        return new ShardConfig();
+    }
+
+    @Override
+    public String toString() {
+        return "shards=" + shards + " history=" + history + " decay=" + decay + " output=" + outputDir;
+    }
+}
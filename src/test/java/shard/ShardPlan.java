@@ -0,0 +1,124 @@
+package shard;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Test classes split into shards of about equal estimated wall-clock time (longest
+ * class first onto the currently shortest shard), each shard ordered fail-first:
+ * by failure probability per estimated second, which brings the expected time to the
+ * first failure down, with never-seen classes treated as moderately likely to fail.
+ * Classes are the unit because their methods share @BeforeClass state and priorities.
+ */
+public class ShardPlan {
+
+    /** One class in a shard, with the estimates it was placed by. */
+    public record Entry(String className, double seconds, double failureProbability, int runs) {
+
+        double failuresPerSecond() {
+            return failureProbability / Math.max(0.05, seconds);
+        }
+    }
+
+    /** The classes of one shard, in run order. */
+    public record Shard(int number, List<Entry> entries) {
+
+        public double seconds() {
+            return entries.stream().mapToDouble(Entry::seconds).sum();
+        }
+    }
+
+    private final List<Shard> shards;
+    private final int historyRuns;
+
+    private ShardPlan(List<Shard> shards, int historyRuns) {
+        this.shards = shards;
+        this.historyRuns = historyRuns;
+    }
+
+    public static ShardPlan plan(List<String> classNames, TestHistory history, int shardCount, double defaultSeconds) {
+        List<Double> known = new ArrayList<>();
+        for (String c : classNames) {
+            TestHistory.ClassStats s = history.get(c);
+            if (s != null) known.add(s.expectedSeconds());
+        }
+        // a class without history is assumed to take as long as the median known class
+        known.sort(null);
+        double unknownSeconds = known.isEmpty() ? defaultSeconds : known.get(known.size() / 2);
+
+        List<Entry> entries = new ArrayList<>();
+        for (String c : classNames) {
+            TestHistory.ClassStats s = history.get(c);
+            entries.add(s == null
+                    ? new Entry(c, unknownSeconds, new TestHistory.ClassStats().failureProbability(), 0)
+                    : new Entry(c, s.expectedSeconds(), s.failureProbability(), s.runs()));
+        }
+
+        List<List<Entry>> bins = new ArrayList<>();
+        double[] totals = new double[Math.max(1, shardCount)];
+        for (int i = 0; i < totals.length; i++) bins.add(new ArrayList<>());
+        entries.sort(Comparator.comparingDouble(Entry::seconds).reversed().thenComparing(Entry::className));
+        for (Entry e : entries) {
+            int shortest = 0;
+            for (int i = 1; i < totals.length; i++) {
+                if (totals[i] < totals[shortest]) shortest = i;
+            }
+            bins.get(shortest).add(e);
+            totals[shortest] += e.seconds();
+        }
+
+        List<Shard> shards = new ArrayList<>();
+        for (int i = 0; i < bins.size(); i++) {
+            List<Entry> bin = bins.get(i);
+            bin.sort(Comparator.comparingDouble(Entry::failuresPerSecond).reversed()
+                    .thenComparingDouble(Entry::seconds).thenComparing(Entry::className));
+            shards.add(new Shard(i + 1, bin));
+        }
+        return new ShardPlan(shards, history.runs());
+    }
+
+    public List<Shard> shards() {
+        return shards;
+    }
+
+    /** Writes shard-1.xml .. shard-N.xml TestNG suites (classes in the planned order) into {@code dir}. */
+    public void writeSuites(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (Shard shard : shards) {
+            StringBuilder xml = new StringBuilder()
+                    .append("<!DOCTYPE suite SYSTEM \"https://testng.org/testng-1.0.dtd\" >\n")
+                    .append(String.format(Locale.ROOT,
+                            "<!-- Generated by shard.ShardPlanner from %d past runs: shard %d of %d, about %.1f s, likely failures first -->%n",
+                            historyRuns, shard.number(), shards.size(), shard.seconds()))
+                    .append("<suite name=\"Orders Automation Suite (shard ").append(shard.number()).append(" of ")
+                    .append(shards.size()).append(")\" verbose=\"1\">\n");
+            // one <test> per class: TestNG orders by priority across all classes of a <test>, but runs <test>s in file order
+            for (Entry e : shard.entries()) {
+                xml.append("  <test name=\"").append(e.className()).append("\">\n")
+                        .append("    <classes>\n      <class name=\"").append(e.className()).append("\"/>\n    </classes>\n")
+                        .append("  </test>\n");
+            }
+            xml.append("</suite>\n");
+            Files.writeString(dir.resolve("shard-" + shard.number() + ".xml"), xml, StandardCharsets.UTF_8);
+        }
+    }
+
+    public void print(PrintStream out) {
+        out.println("Shard plan from " + historyRuns + " past runs");
+        for (Shard shard : shards) {
+            out.println(String.format(Locale.ROOT, "shard %d: %d classes, about %.1f s", shard.number(), shard.entries().size(),
+                    shard.seconds()));
+            for (Entry e : shard.entries()) {
+                out.println(String.format(Locale.ROOT, "  %8.2f s  p(fail) %.2f  runs %3d  %s", e.seconds(),
+                        e.failureProbability(), e.runs(), e.className()));
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package shard;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static shard.TestHistoryTest.testClass;
+import static shard.TestHistoryTest.testngResults;
+
+/**
+ * Checks how classes are packed into shards (longest first onto the shortest shard),
+ * ordered within a shard (likely failures per second first), and estimated when they
+ * have no history. Needs no server.
+ */
+public class ShardPlanTest {
+
+    private static final List<String> CLASSES = List.of("a.Ten", "a.Six", "a.Five", "a.Four");
+
+    private Path dir;
+
+    @BeforeMethod
+    public void beforeEachTest() throws IOException {
+        dir = Files.createTempDirectory("shard-plan");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void afterEachTest() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path f : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(f);
+        }
+    }
+
+    // one run: every class passed except a.Four
+    private TestHistory history() throws IOException {
+        testngResults(dir.resolve("testng-results.xml"), "2025-09-05T09:00:00Z",
+                testClass("a.Ten", 10_000, "PASS"), testClass("a.Six", 6_000, "PASS"),
+                testClass("a.Five", 5_000, "PASS"), testClass("a.Four", 4_000, "FAIL"));
+        return TestHistory.load(List.of(dir), 0.8);
+    }
+
+    private static List<String> classes(ShardPlan.Shard shard) {
+        return shard.entries().stream().map(ShardPlan.Entry::className).toList();
+    }
+
+    @Test
+    public void longestClassesGoOntoTheShortestShard() throws IOException {
+        ShardPlan plan = ShardPlan.plan(CLASSES, history(), 2, 5);
+
+        Assert.assertEquals(plan.shards().size(), 2);
+        // 10 -> shard 1, 6 -> shard 2, 5 -> shard 2 (6 < 10), 4 -> shard 1 (10 < 11)
+        Assert.assertEquals(plan.shards().get(0).seconds(), 14.0, 1e-9);
+        Assert.assertEquals(plan.shards().get(1).seconds(), 11.0, 1e-9);
+        Assert.assertEquals(plan.shards().stream().mapToInt(s -> s.entries().size()).sum(), CLASSES.size());
+    }
+
+    @Test
+    public void likelyFailuresPerSecondRunFirst() throws IOException {
+        ShardPlan plan = ShardPlan.plan(CLASSES, history(), 2, 5);
+
+        // a.Four failed and is short; among passing classes the shorter one goes first
+        Assert.assertEquals(classes(plan.shards().get(0)), List.of("a.Four", "a.Ten"));
+        Assert.assertEquals(classes(plan.shards().get(1)), List.of("a.Five", "a.Six"));
+    }
+
+    @Test
+    public void classWithoutHistoryTakesTheMedianAndThePrior() throws IOException {
+        ShardPlan plan = ShardPlan.plan(List.of("a.Ten", "a.Six", "a.Five", "a.Four", "a.New"), history(), 1, 5);
+
+        ShardPlan.Entry fresh = plan.shards().get(0).entries().stream()
+                .filter(e -> e.className().equals("a.New")).findFirst().orElseThrow();
+        Assert.assertEquals(fresh.seconds(), 6.0, 1e-9, "median of 4, 5, 6 and 10");
+        Assert.assertEquals(fresh.failureProbability(), 0.1, 1e-9);
+        Assert.assertEquals(fresh.runs(), 0);
+
+        ShardPlan empty = ShardPlan.plan(List.of("a.New"), TestHistory.load(List.of(), 0.8), 3, 5);
+        Assert.assertEquals(empty.shards().size(), 3);
+        Assert.assertEquals(empty.shards().get(0).entries().get(0).seconds(), 5.0, 1e-9, "SHARD_DEFAULT_SECONDS");
+        Assert.assertTrue(empty.shards().get(1).entries().isEmpty());
+    }
+}
@@ -0,0 +1,135 @@
+package shard;
+
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Duration-aware sharding of the test suite; see {@link ShardPlan} and {@link ShardConfig}.
+ *
+ * <pre>
+ * java -cp ... shard.ShardPlanner plan             # target/shards/shard-N.xml from past results
+ * java -cp ... shard.ShardPlanner record [dir...]  # archive this run's testng-results.xml as history
+ * </pre>
+ *
+ * "plan" shards every compiled test class (any class with a TestNG @Test), so classes
+ * without history are never left out.
+ */
+public class ShardPlanner {
+
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    public static void main(String[] args) throws IOException {
+        ShardConfig config = ShardConfig.fromEnv();
+        String command = args.length > 0 ? args[0] : "plan";
+        switch (command) {
+            case "plan" -> plan(config);
+            case "record" -> {
+                List<Path> dirs = new ArrayList<>();
+                for (int i = 1; i < args.length; i++) dirs.add(Paths.get(args[i]));
+                if (dirs.isEmpty()) dirs = defaultResultDirs();
+                record(config, dirs);
+            }
+            default -> System.out.println("usage: ShardPlanner plan | record [results dir...]");
+        }
+    }
+
+    static void plan(ShardConfig config) throws IOException {
+        List<String> classes = testClasses(config.classesDir);
+        if (classes.isEmpty()) {
+            throw new IllegalStateException("No TestNG classes under " + config.classesDir + "; run mvn test-compile first");
+        }
+        TestHistory history = TestHistory.load(config.history, config.decay);
+        ShardPlan plan = ShardPlan.plan(classes, history, config.shards, config.defaultSeconds);
+        plan.print(System.out);
+        plan.writeSuites(config.outputDir);
+        System.out.println("Shard suites written to " + config.outputDir + "; run one with mvn test -Pshard -Dshard=<n>");
+    }
+
+    /**
+     * Copies each dir's testng-results.xml into one run-&lt;time&gt; directory of the archive
+     * (the shards of one build are one run) and drops all but the newest keepRuns runs.
+     */
+    static void record(ShardConfig config, List<Path> resultDirs) throws IOException {
+        Path run = config.archiveDir.resolve("run-" + LocalDateTime.now().format(STAMP));
+        int n = 0;
+        for (Path dir : resultDirs) {
+            Path results = dir.resolve("testng-results.xml");
+            if (!Files.exists(results)) continue;
+            Files.createDirectories(run);
+            Path target = run.resolve("testng-results-" + (++n) + ".xml");
+            Files.copy(results, target, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Recorded " + results + " as " + target);
+        }
+        if (n == 0) {
+            System.out.println("No testng-results.xml in " + resultDirs + "; nothing recorded");
+            return;
+        }
+        List<Path> runs;
+        try (Stream<Path> dirs = Files.list(config.archiveDir)) {
+            runs = dirs.filter(p -> Files.isDirectory(p) && p.getFileName().toString().startsWith("run-"))
+                    .sorted(Comparator.comparing((Path p) -> p.getFileName().toString()).reversed()).toList();
+        }
+        for (Path old : runs.subList(Math.min(config.keepRuns, runs.size()), runs.size())) {
+            try (Stream<Path> files = Files.walk(old)) {
+                for (Path f : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(f);
+            }
+        }
+    }
+
+    // target/surefire-reports plus the per-shard report dirs of the shard profile
+    private static List<Path> defaultResultDirs() throws IOException {
+        List<Path> dirs = new ArrayList<>();
+        dirs.add(Paths.get("target/surefire-reports"));
+        Path target = Paths.get("target");
+        if (Files.isDirectory(target)) {
+            try (Stream<Path> list = Files.list(target)) {
+                list.filter(p -> p.getFileName().toString().matches("shard-\\d+-reports")).sorted().forEach(dirs::add);
+            }
+        }
+        return dirs;
+    }
+
+    static List<String> testClasses(Path classesDir) throws IOException {
+        if (!Files.isDirectory(classesDir)) return List.of();
+        List<String> names;
+        try (Stream<Path> walk = Files.walk(classesDir)) {
+            names = walk.map(p -> classesDir.relativize(p).toString())
+                    .filter(p -> p.endsWith(".class") && !p.contains("$"))
+                    .map(p -> p.substring(0, p.length() - ".class".length()).replace(File.separatorChar, '.'))
+                    .sorted().toList();
+        }
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        List<String> tests = new ArrayList<>();
+        for (String name : names) {
+            try {
+                Class<?> c = Class.forName(name, false, loader);
+                if (!Modifier.isAbstract(c.getModifiers()) && isTestClass(c)) tests.add(name);
+            } catch (ClassNotFoundException | LinkageError e) {
+                // not loadable with this classpath (e.g. JMH sources); not a suite class either
+            }
+        }
+        return tests;
+    }
+
+    private static boolean isTestClass(Class<?> c) {
+        if (c.isAnnotationPresent(Test.class)) return true;
+        for (Method m : c.getMethods()) {
+            if (m.isAnnotationPresent(Test.class)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,230 @@
+package shard;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Per-class wall-clock time and failure history, read from past TestNG runs:
+ * testng-results.xml (which includes configuration methods such as @BeforeClass) or,
+ * for runs that have none, the JUnit-style TEST-*.xml reports. Newer runs count more:
+ * the n-th newest run is weighted decay^n. The result files of one archived run
+ * directory (run-*, see {@link ShardPlanner#record}) count as a single run, since
+ * they are the shards of one build. A file with the same content as one read before
+ * (such as the surefire report that "record" just archived) is skipped, so a run is
+ * never counted twice.
+ */
+public class TestHistory {
+
+    // Beta(1, 9) prior: a class never seen before is taken to fail 10% of the time
+    private static final double PRIOR_FAILURES = 1;
+    private static final double PRIOR_RUNS = 10;
+
+    /** Weighted history of one test class. */
+    public static final class ClassStats {
+        private int runs;
+        private int failures;
+        private double weight;
+        private double weightedFailures;
+        private double weightedSeconds;
+
+        public int runs() {
+            return runs;
+        }
+
+        public int failures() {
+            return failures;
+        }
+
+        /** Smoothed chance that the next run of this class fails. */
+        public double failureProbability() {
+            return (weightedFailures + PRIOR_FAILURES) / (weight + PRIOR_RUNS);
+        }
+
+        /** Weighted mean wall-clock seconds, including configuration methods where known. */
+        public double expectedSeconds() {
+            return weight == 0 ? 0 : weightedSeconds / weight;
+        }
+    }
+
+    private record RunResult(double seconds, boolean failed) {
+    }
+
+    private final Map<String, ClassStats> classes = new HashMap<>();
+    private int runs;
+
+    public static TestHistory load(List<Path> sources, double decay) throws IOException {
+        Map<Path, List<Path>> byRun = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+        for (Path source : sources) {
+            for (Path file : resultFiles(source)) {
+                if (seen.add(digest(file))) byRun.computeIfAbsent(runOf(file), k -> new ArrayList<>()).add(file);
+            }
+        }
+        List<Path> runs = new ArrayList<>(byRun.keySet());
+        // newest first, so the weight of a run is decay^(its age in runs)
+        runs.sort(Comparator.comparingLong(TestHistory::lastModified).reversed());
+        TestHistory history = new TestHistory();
+        double weight = 1;
+        for (Path runKey : runs) {
+            Map<String, RunResult> run = new HashMap<>();
+            for (Path file : byRun.get(runKey)) {
+                run.putAll(file.getFileName().toString().startsWith("TEST-") ? readJUnit(file) : readTestNg(file));
+            }
+            if (run.isEmpty()) continue;
+            history.add(run, weight);
+            weight *= decay;
+        }
+        return history;
+    }
+
+    public ClassStats get(String className) {
+        return classes.get(className);
+    }
+
+    public int runs() {
+        return runs;
+    }
+
+    private void add(Map<String, RunResult> run, double weight) {
+        runs++;
+        run.forEach((className, result) -> {
+            ClassStats s = classes.computeIfAbsent(className, k -> new ClassStats());
+            s.runs++;
+            s.weight += weight;
+            s.weightedSeconds += weight * result.seconds();
+            if (result.failed()) {
+                s.failures++;
+                s.weightedFailures += weight;
+            }
+        });
+    }
+
+    private static Path runOf(Path file) {
+        Path dir = file.getParent();
+        return dir != null && dir.getFileName().toString().startsWith("run-") ? dir : file;
+    }
+
+    // testng-results.xml anywhere below source, plus TEST-*.xml reports not already covered by one
+    private static List<Path> resultFiles(Path source) throws IOException {
+        if (!Files.exists(source)) return List.of();
+        if (Files.isRegularFile(source)) return List.of(source);
+        try (Stream<Path> walk = Files.walk(source)) {
+            return walk.filter(Files::isRegularFile).filter(p -> {
+                String name = p.getFileName().toString();
+                if (name.equals("testng-results.xml") || (name.startsWith("testng-results-") && name.endsWith(".xml"))) return true;
+                if (!name.startsWith("TEST-") || !name.endsWith(".xml") || name.equals("TEST-TestSuite.xml")) return false;
+                Path dir = p.getParent();
+                return !Files.exists(dir.resolve("testng-results.xml"))
+                        && (dir.getParent() == null || !Files.exists(dir.getParent().resolve("testng-results.xml")));
+            }).toList();
+        }
+    }
+
+    // one <class> can appear under several <test> elements; its methods' durations add up
+    private static Map<String, RunResult> readTestNg(Path file) throws IOException {
+        Map<String, double[]> seconds = new HashMap<>();
+        Map<String, Boolean> failed = new HashMap<>();
+        read(file, xml -> {
+            String currentClass = null;
+            while (xml.hasNext()) {
+                if (xml.next() != XMLStreamConstants.START_ELEMENT) continue;
+                switch (xml.getLocalName()) {
+                    case "class" -> currentClass = xml.getAttributeValue(null, "name");
+                    case "test-method" -> {
+                        if (currentClass == null) break;
+                        String ms = xml.getAttributeValue(null, "duration-ms");
+                        seconds.computeIfAbsent(currentClass, k -> new double[1])[0] += ms == null ? 0 : Long.parseLong(ms) / 1000.0;
+                        boolean fail = "FAIL".equals(xml.getAttributeValue(null, "status"));
+                        failed.merge(currentClass, fail, Boolean::logicalOr);
+                    }
+                    default -> {
+                    }
+                }
+            }
+        });
+        Map<String, RunResult> run = new HashMap<>();
+        seconds.forEach((k, v) -> run.put(k, new RunResult(v[0], failed.getOrDefault(k, false))));
+        return run;
+    }
+
+    private static Map<String, RunResult> readJUnit(Path file) throws IOException {
+        Map<String, double[]> seconds = new HashMap<>();
+        Map<String, Boolean> failed = new HashMap<>();
+        read(file, xml -> {
+            String currentClass = null;
+            while (xml.hasNext()) {
+                if (xml.next() != XMLStreamConstants.START_ELEMENT) continue;
+                switch (xml.getLocalName()) {
+                    case "testcase" -> {
+                        currentClass = xml.getAttributeValue(null, "classname");
+                        if (currentClass == null) break;
+                        String time = xml.getAttributeValue(null, "time");
+                        seconds.computeIfAbsent(currentClass, k -> new double[1])[0] += time == null ? 0 : Double.parseDouble(time);
+                        failed.putIfAbsent(currentClass, false);
+                    }
+                    case "failure", "error" -> {
+                        if (currentClass != null) failed.put(currentClass, true);
+                    }
+                    default -> {
+                    }
+                }
+            }
+        });
+        Map<String, RunResult> run = new HashMap<>();
+        seconds.forEach((k, v) -> run.put(k, new RunResult(v[0], failed.getOrDefault(k, false))));
+        return run;
+    }
+
+    private interface XmlVisitor {
+        void visit(XMLStreamReader xml) throws XMLStreamException;
+    }
+
+    private static void read(Path file, XmlVisitor visitor) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        try (InputStream in = Files.newInputStream(file)) {
+            XMLStreamReader xml = factory.createXMLStreamReader(in);
+            try {
+                visitor.visit(xml);
+            } finally {
+                xml.close();
+            }
+        } catch (XMLStreamException | NumberFormatException e) {
+            System.out.println("Skipping unreadable result file " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static String digest(Path file) throws IOException {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long lastModified(Path p) {
+        try {
+            return Files.getLastModifiedTime(p).toMillis();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package shard;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Checks how past result files become per-class history: TestNG and JUnit-style parsing,
+ * shard files of one archived run counting once, newer runs weighing more, and a copied
+ * report not counting twice. Needs no server.
+ */
+public class TestHistoryTest {
+
+    private Path dir;
+
+    @BeforeMethod
+    public void beforeEachTest() throws IOException {
+        dir = Files.createTempDirectory("test-history");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void afterEachTest() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path f : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(f);
+        }
+    }
+
+    // one <class> element with a single test method
+    static String testClass(String name, long durationMs, String status) {
+        return "<class name=\"" + name + "\"><test-method status=\"" + status + "\" name=\"m\" duration-ms=\""
+                + durationMs + "\"/></class>";
+    }
+
+    static Path testngResults(Path file, String startedAt, String... classes) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "<testng-results><suite started-at=\"" + startedAt + "\"><test name=\"t\">"
+                + String.join("", classes) + "</test></suite></testng-results>", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse(startedAt)));
+        return file;
+    }
+
+    @Test
+    public void testNgDurationsAddUpPerClass() throws IOException {
+        Path file = dir.resolve("testng-results.xml");
+        Files.writeString(file, """
+                <testng-results><suite>
+                  <test name="one">
+                    <class name="a.First">
+                      <test-method status="PASS" name="setUp" is-config="true" duration-ms="500"/>
+                      <test-method status="PASS" name="x" duration-ms="1000"/>
+                      <test-method status="FAIL" name="y" duration-ms="250"/>
+                    </class>
+                  </test>
+                  <test name="two">
+                    <class name="a.First"><test-method status="PASS" name="z" duration-ms="250"/></class>
+                    <class name="a.Second"><test-method status="SKIP" name="w" duration-ms="0"/></class>
+                  </test>
+                </suite></testng-results>
+                """, StandardCharsets.UTF_8);
+
+        TestHistory history = TestHistory.load(List.of(dir), 0.8);
+
+        Assert.assertEquals(history.runs(), 1);
+        Assert.assertEquals(history.get("a.First").expectedSeconds(), 2.0, 1e-9, "configuration methods included");
+        Assert.assertEquals(history.get("a.First").failures(), 1);
+        Assert.assertEquals(history.get("a.Second").failures(), 0);
+        Assert.assertNull(history.get("a.Third"));
+    }
+
+    @Test
+    public void junitReportsCountOnlyWithoutTestNgResults() throws IOException {
+        Path junit = dir.resolve("junit");
+        Files.createDirectories(junit);
+        Files.writeString(junit.resolve("TEST-a.First.xml"), """
+                <testsuite name="a.First">
+                  <testcase classname="a.First" name="x" time="1.5"/>
+                  <testcase classname="a.First" name="y" time="0.5"><error message="boom"/></testcase>
+                </testsuite>
+                """, StandardCharsets.UTF_8);
+        Files.writeString(junit.resolve("TEST-TestSuite.xml"), """
+                <testsuite name="TestSuite"><testcase classname="a.First" name="x" time="99"/></testsuite>
+                """, StandardCharsets.UTF_8);
+
+        TestHistory history = TestHistory.load(List.of(dir), 0.8);
+        Assert.assertEquals(history.get("a.First").expectedSeconds(), 2.0, 1e-9, "TEST-TestSuite.xml ignored");
+        Assert.assertEquals(history.get("a.First").failures(), 1);
+
+        testngResults(junit.resolve("testng-results.xml"), "2025-09-05T09:00:00Z", testClass("a.First", 3_000, "PASS"));
+        history = TestHistory.load(List.of(dir), 0.8);
+        Assert.assertEquals(history.runs(), 1);
+        Assert.assertEquals(history.get("a.First").expectedSeconds(), 3.0, 1e-9, "testng-results.xml wins");
+        Assert.assertEquals(history.get("a.First").failures(), 0);
+    }
+
+    @Test
+    public void newerRunsWeighMore() throws IOException {
+        testngResults(dir.resolve("run-1/testng-results-1.xml"), "2025-09-01T09:00:00Z",
+                testClass("a.First", 1_000, "FAIL"));
+        testngResults(dir.resolve("run-1/testng-results-2.xml"), "2025-09-01T09:00:01Z",
+                testClass("a.Second", 4_000, "PASS"));
+        testngResults(dir.resolve("run-2/testng-results-1.xml"), "2025-09-02T09:00:00Z",
+                testClass("a.First", 3_000, "PASS"), testClass("a.Second", 2_000, "PASS"));
+        Files.setLastModifiedTime(dir.resolve("run-1"), FileTime.from(Instant.parse("2025-09-01T10:00:00Z")));
+        Files.setLastModifiedTime(dir.resolve("run-2"), FileTime.from(Instant.parse("2025-09-02T10:00:00Z")));
+
+        TestHistory history = TestHistory.load(List.of(dir), 0.5);
+
+        Assert.assertEquals(history.runs(), 2, "the shard files of run-1 are one run");
+        TestHistory.ClassStats first = history.get("a.First");
+        Assert.assertEquals(first.runs(), 2);
+        // run-2 weighs 1, run-1 0.5
+        Assert.assertEquals(first.expectedSeconds(), (3.0 + 0.5 * 1.0) / 1.5, 1e-9);
+        Assert.assertEquals(first.failureProbability(), (0.5 + 1) / (1.5 + 10), 1e-9);
+        Assert.assertEquals(history.get("a.Second").expectedSeconds(), (2.0 + 0.5 * 4.0) / 1.5, 1e-9);
+    }
+
+    @Test
+    public void recordedCopyOfTheLatestRunCountsOnce() throws IOException {
+        Path archive = dir.resolve("test-history");
+        Path surefire = dir.resolve("surefire-reports");
+        testngResults(archive.resolve("run-1/testng-results-1.xml"), "2025-09-01T09:00:00Z",
+                testClass("a.First", 1_000, "PASS"));
+        Path latest = testngResults(surefire.resolve("testng-results.xml"), "2025-09-02T09:00:00Z",
+                testClass("a.First", 3_000, "FAIL"));
+        // what "record" does: a copy with a fresh modification time
+        Files.copy(latest, Files.createDirectories(archive.resolve("run-2")).resolve("testng-results-1.xml"));
+
+        TestHistory history = TestHistory.load(List.of(archive, surefire), 0.8);
+
+        Assert.assertEquals(history.runs(), 2);
+        Assert.assertEquals(history.get("a.First").runs(), 2);
+        Assert.assertEquals(history.get("a.First").failures(), 1);
+    }
+}
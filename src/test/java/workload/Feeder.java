@@ -0,0 +1,55 @@
+package workload;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Source of variable values for one iteration of a virtual user. Implementations are
+ * shared by all virtual users and must be thread-safe.
+ */
+public interface Feeder {
+
+    Map<String, String> next();
+
+    /**
+     * Rows of a CSV file with a header line (no quoting), in order and wrapping around,
+     * or picked at random.
+     */
+    static Feeder csv(Path file, boolean random) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        lines.removeIf(String::isBlank);
+        if (lines.size() < 2) throw new IllegalArgumentException(file + " has no data rows");
+        String[] header = lines.get(0).split(",", -1);
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (String line : lines.subList(1, lines.size())) {
+            String[] cells = line.split(",", -1);
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < header.length && i < cells.length; i++) row.put(header[i].trim(), cells[i].trim());
+            rows.add(Map.copyOf(row));
+        }
+        AtomicLong cursor = new AtomicLong();
+        return random
+                ? () -> rows.get(ThreadLocalRandom.current().nextInt(rows.size()))
+                : () -> rows.get((int) (cursor.getAndIncrement() % rows.size()));
+    }
+
+    /** Random productId and slot from the given lists, a fixed qty and deliveryDate. */
+    static Feeder generated(List<String> productIds, List<String> slots, int qty, String deliveryDate) {
+        String q = String.valueOf(qty);
+        return () -> {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            return Map.of("productId", productIds.get(rnd.nextInt(productIds.size())),
+                    "slot", slots.get(rnd.nextInt(slots.size())),
+                    "qty", q,
+                    "deliveryDate", deliveryDate);
+        };
+    }
+}
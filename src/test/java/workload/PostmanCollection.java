@@ -0,0 +1,154 @@
+package workload;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads a Postman v2.1 collection (folders included) into {@link RequestTemplate}s.
+ *
+ * The host part of each URL is dropped so requests go to the client's BASE_URL.
+ * Path variables (":id") become {{id}}, defaulting to the value in url.variable. Our
+ * collection hard-codes its bodies, so top-level JSON body fields whose names are in
+ * {@code parameterize} (e.g. productId, qty) are turned into {{field}} placeholders;
+ * the literal in the collection becomes the variable's default.
+ */
+public final class PostmanCollection {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String MARK = "\u0000var:";
+
+    private final String name;
+    private final List<RequestTemplate> requests;
+    private final Map<String, String> defaults;
+
+    private PostmanCollection(String name, List<RequestTemplate> requests, Map<String, String> defaults) {
+        this.name = name;
+        this.requests = requests;
+        this.defaults = defaults;
+    }
+
+    public static PostmanCollection load(Path file, Set<String> parameterize) throws IOException {
+        JsonNode root = MAPPER.readTree(file.toFile());
+        String schema = root.path("info").path("schema").asText("");
+        if (!schema.contains("v2.1") && !schema.contains("v2.0")) {
+            throw new IllegalArgumentException(file + " is not a Postman v2.x collection (schema " + schema + ")");
+        }
+        Map<String, String> defaults = new LinkedHashMap<>();
+        for (JsonNode v : root.path("variable")) {
+            if (!v.path("disabled").asBoolean(false)) defaults.put(v.path("key").asText(), v.path("value").asText());
+        }
+        List<RequestTemplate> requests = new ArrayList<>();
+        collect(root.path("item"), "", parameterize, requests, defaults);
+        return new PostmanCollection(root.path("info").path("name").asText(file.getFileName().toString()), requests, defaults);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public List<RequestTemplate> requests() {
+        return requests;
+    }
+
+    /** Collection variables plus the literals replaced by placeholders, as fallback values. */
+    public Map<String, String> defaults() {
+        return defaults;
+    }
+
+    // ---------------- parsing ----------------
+
+    private static void collect(JsonNode items, String folder, Set<String> parameterize, List<RequestTemplate> out,
+                                Map<String, String> defaults) throws IOException {
+        for (JsonNode item : items) {
+            String name = folder + item.path("name").asText("request " + (out.size() + 1));
+            if (item.has("item")) {
+                collect(item.path("item"), name + "/", parameterize, out, defaults);
+            } else if (item.has("request")) {
+                out.add(compile(name, item.path("request"), parameterize, defaults));
+            }
+        }
+    }
+
+    private static RequestTemplate compile(String name, JsonNode request, Set<String> parameterize,
+                                           Map<String, String> defaults) throws IOException {
+        String method = request.path("method").asText("GET").toUpperCase();
+        JsonNode url = request.path("url");
+
+        StringBuilder path = new StringBuilder();
+        Iterable<JsonNode> segments = url.isTextual() ? List.of() : url.path("path");
+        for (JsonNode seg : segments) {
+            String s = seg.asText();
+            path.append('/').append(s.startsWith(":") ? "{{" + s.substring(1) + "}}" : s);
+        }
+        if (url.isTextual()) path.append(pathOf(url.asText()));
+        for (JsonNode v : url.path("variable")) {
+            defaults.putIfAbsent(v.path("key").asText(), v.path("value").asText());
+        }
+
+        Map<String, Template> query = new LinkedHashMap<>();
+        for (JsonNode q : url.path("query")) {
+            if (!q.path("disabled").asBoolean(false)) query.put(q.path("key").asText(), Template.parse(q.path("value").asText("")));
+        }
+        Map<String, Template> headers = new LinkedHashMap<>();
+        for (JsonNode h : request.path("header")) {
+            if (!h.path("disabled").asBoolean(false)) headers.put(h.path("key").asText(), Template.parse(h.path("value").asText("")));
+        }
+
+        Template body = null;
+        JsonNode b = request.path("body");
+        if ("raw".equals(b.path("mode").asText()) && !b.path("raw").asText("").isBlank() && !"GET".equals(method)) {
+            body = Template.parse(parameterizeBody(b.path("raw").asText(), parameterize, defaults), true);
+        }
+        return new RequestTemplate(name, method, Template.parse(path.length() == 0 ? "/" : path.toString()), query,
+                headers, body);
+    }
+
+    /**
+     * Compacts a raw JSON body and swaps the chosen top-level fields for placeholders:
+     * {"qty": 2} becomes {"qty":{{qty}}} and {"slot": "evening"} becomes {"slot":"{{slot}}"}.
+     * Bodies that are not JSON objects are kept as written.
+     */
+    static String parameterizeBody(String raw, Collection<String> parameterize, Map<String, String> defaults) {
+        JsonNode node;
+        try {
+            node = MAPPER.readTree(raw);
+        } catch (IOException e) {
+            return raw;
+        }
+        if (node == null || !node.isObject()) return raw;
+        ObjectNode obj = (ObjectNode) node;
+        Map<String, Boolean> replaced = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = obj.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> f = fields.next();
+            if (!parameterize.contains(f.getKey()) || !f.getValue().isValueNode()) continue;
+            defaults.putIfAbsent(f.getKey(), f.getValue().asText());
+            replaced.put(f.getKey(), f.getValue().isTextual());
+        }
+        for (Map.Entry<String, Boolean> r : replaced.entrySet()) obj.put(r.getKey(), MARK + r.getKey());
+        String json = obj.toString();
+        for (Map.Entry<String, Boolean> r : replaced.entrySet()) {
+            String marker = "\"" + MARK.replace("\u0000", "\\u0000") + r.getKey() + "\"";
+            json = json.replace(marker, r.getValue() ? "\"{{" + r.getKey() + "}}\"" : "{{" + r.getKey() + "}}");
+        }
+        return json;
+    }
+
+    private static String pathOf(String rawUrl) {
+        String s = rawUrl.replaceFirst("^[a-zA-Z]+://[^/]*", "").replaceFirst("^\\{\\{[^}]+}}", "");
+        int q = s.indexOf('?');
+        if (q >= 0) s = s.substring(0, q);
+        return s.replaceAll("/:([A-Za-z0-9_]+)", "/{{$1}}");
+    }
+}
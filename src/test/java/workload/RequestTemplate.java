@@ -0,0 +1,77 @@
+package workload;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One request of a Postman collection, compiled once: method, path, query, headers
+ * and body as {@link Template}s. A body without variables is encoded to bytes up front.
+ */
+public final class RequestTemplate {
+
+    private final String name;
+    private final String method;
+    private final Template path;
+    private final Map<String, Template> query;
+    private final Map<String, Template> headers;
+    private final Template body;
+    private final byte[] staticBody;
+    private final Set<String> variables = new LinkedHashSet<>();
+
+    RequestTemplate(String name, String method, Template path, Map<String, Template> query,
+                    Map<String, Template> headers, Template body) {
+        this.name = name;
+        this.method = method;
+        this.path = path;
+        this.query = query;
+        this.headers = headers;
+        this.body = body;
+        this.staticBody = body != null && body.isStatic() ? body.render(v -> null).getBytes(StandardCharsets.UTF_8) : null;
+        variables.addAll(path.variables());
+        query.values().forEach(t -> variables.addAll(t.variables()));
+        headers.values().forEach(t -> variables.addAll(t.variables()));
+        if (body != null) variables.addAll(body.variables());
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public Template path() {
+        return path;
+    }
+
+    public Map<String, Template> query() {
+        return query;
+    }
+
+    public Map<String, Template> headers() {
+        return headers;
+    }
+
+    /** Body template, or null for requests without a body. */
+    public Template body() {
+        return body;
+    }
+
+    /** Pre-encoded body when it has no variables, else null. */
+    public byte[] staticBody() {
+        return staticBody;
+    }
+
+    /** Every variable used anywhere in the request. */
+    public Set<String> variables() {
+        return variables;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path + (body == null ? "" : " " + body) + "  [" + name + "]";
+    }
+}
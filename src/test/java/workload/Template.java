@@ -0,0 +1,83 @@
+package workload;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A string with Postman-style {{variable}} placeholders, split into literal and
+ * variable parts once so rendering is a single StringBuilder pass.
+ */
+public final class Template {
+
+    private final String[] literals;   // literals[i] comes before variables[i]; one extra trailing literal
+    private final String[] variables;
+    private final boolean jsonEscape;
+
+    private Template(String[] literals, String[] variables, boolean jsonEscape) {
+        this.literals = literals;
+        this.variables = variables;
+        this.jsonEscape = jsonEscape;
+    }
+
+    public static Template parse(String text) {
+        return parse(text, false);
+    }
+
+    /** With {@code jsonEscape}, substituted values are escaped for use inside a JSON document. */
+    public static Template parse(String text, boolean jsonEscape) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int from = 0;
+        int open;
+        while ((open = text.indexOf("{{", from)) >= 0) {
+            int close = text.indexOf("}}", open + 2);
+            if (close < 0) break;
+            literals.add(text.substring(from, open));
+            variables.add(text.substring(open + 2, close).trim());
+            from = close + 2;
+        }
+        literals.add(text.substring(from));
+        return new Template(literals.toArray(new String[0]), variables.toArray(new String[0]), jsonEscape);
+    }
+
+    public boolean isStatic() {
+        return variables.length == 0;
+    }
+
+    public Set<String> variables() {
+        return new LinkedHashSet<>(List.of(variables));
+    }
+
+    /** Rendered text, or null when {@code lookup} has no value for one of the variables. */
+    public String render(Function<String, String> lookup) {
+        if (variables.length == 0) return literals[0];
+        StringBuilder sb = new StringBuilder(literals[0].length() + 64);
+        for (int i = 0; i < variables.length; i++) {
+            sb.append(literals[i]);
+            String value = lookup.apply(variables[i]);
+            if (value == null) return null;
+            if (jsonEscape) appendJsonEscaped(sb, value);
+            else sb.append(value);
+        }
+        return sb.append(literals[variables.length]).toString();
+    }
+
+    private static void appendJsonEscaped(StringBuilder sb, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < variables.length; i++) sb.append(literals[i]).append("{{").append(variables[i]).append("}}");
+        return sb.append(literals[variables.length]).toString();
+    }
+}
@@ -0,0 +1,81 @@
+package workload;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static config.Settings.env;
+import static config.Settings.split;
+
+/**
+ * Knobs for replaying a Postman collection as a workload, from environment variables
+ * (or -D system properties) like the load and soak modes.
+ */
+public class WorkloadConfig {
+
+    public final boolean enabled;
+    public final String collection;
+    public final int virtualUsers;
+    public final int durationSeconds;
+    public final long maxIterations;
+    public final long thinkTimeMillis;
+    public final Map<String, Double> weights;
+    public final double defaultWeight;
+    public final String feederFile;
+    public final boolean feederRandom;
+    public final Set<String> parameterize;
+    public final Set<String> capture;
+    public final List<String> productIds;
+    public final List<String> slots;
+    public final int qty;
+    public final double maxFailureRate;
+
+    private WorkloadConfig() {
+        enabled = Boolean.parseBoolean(env("WORKLOAD_MODE", "false"));
+        collection = env("WORKLOAD_COLLECTION", "EA food.postman_collection.json");
+        virtualUsers = Integer.parseInt(env("WORKLOAD_USERS", "16"));
+        durationSeconds = Integer.parseInt(env("WORKLOAD_DURATION_SECONDS", "30"));
+        maxIterations = Long.parseLong(env("WORKLOAD_ITERATIONS", "-1"));
+        thinkTimeMillis = Long.parseLong(env("WORKLOAD_THINK_MS", "0"));
+        weights = weights(env("WORKLOAD_WEIGHTS", ""));
+        defaultWeight = Double.parseDouble(env("WORKLOAD_DEFAULT_WEIGHT", "1"));
+        feederFile = env("WORKLOAD_FEEDER", "");
+        feederRandom = Boolean.parseBoolean(env("WORKLOAD_FEEDER_RANDOM", "false"));
+        parameterize = new LinkedHashSet<>(split(env("WORKLOAD_PARAMETERIZE", "productId,qty,slot,deliveryDate")));
+        capture = new LinkedHashSet<>(split(env("WORKLOAD_CAPTURE", "id")));
+        productIds = split(env("WORKLOAD_PRODUCTS", "p1,p2,p3,p4,p5,p6,p7,p8,p9,p10"));
+        slots = split(env("WORKLOAD_SLOTS", "morning,afternoon,evening"));
+        qty = Integer.parseInt(env("QTY", "1"));
+        maxFailureRate = Double.parseDouble(env("WORKLOAD_MAX_FAILURE_RATE", "0"));
+    }
+
+    public static WorkloadConfig fromEnv() {
+        return new WorkloadConfig();
+    }
+
+    /** Weight for a request name; 0 leaves the request out. */
+    public double weight(String requestName) {
+        return weights.getOrDefault(requestName, defaultWeight);
+    }
+
+    @Override
+    public String toString() {
+        return "collection=" + collection + " users=" + virtualUsers + " duration=" + durationSeconds + "s"
+                + (maxIterations > 0 ? " iterations=" + maxIterations : "") + " think=" + thinkTimeMillis + "ms"
+                + " weights=" + weights + " default=" + defaultWeight
+                + " feeder=" + (feederFile.isEmpty() ? "generated" : feederFile) + " capture=" + capture;
+    }
+
+    // "place a orders=5,get all products=1" (request names may contain spaces, not commas)
+    private static Map<String, Double> weights(String spec) {
+        Map<String, Double> out = new LinkedHashMap<>();
+        for (String pair : split(spec)) {
+            int eq = pair.lastIndexOf('=');
+            if (eq <= 0) continue;
+            out.put(pair.substring(0, eq).trim(), Double.parseDouble(pair.substring(eq + 1).trim()));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,187 @@
+package workload;
+
+import client.CallMetrics;
+import client.EaFoodsClient;
+import client.TimedCall;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.specification.RequestSpecification;
+import orders.load.EndpointStats;
+import orders.load.LoadReport;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays compiled collection requests as a weighted mix across closed-loop virtual
+ * users: each user picks a request by weight, renders it, sends it, and goes again
+ * until the duration or iteration budget runs out.
+ *
+ * Variables resolve from, in order: values this user captured from earlier responses
+ * (e.g. the id of the order it placed), the feeder row for the iteration, then the
+ * collection defaults. A captured variable is used once. A request with a variable
+ * that resolves to nothing, in its path, a header, a query parameter or the body
+ * (typically a captured one the user doesn't have yet), is skipped and counted, not sent.
+ */
+public class WorkloadEngine {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final EaFoodsClient client;
+    private final List<RequestTemplate> templates = new ArrayList<>();
+    private final double[] cumulativeWeights;
+    private final Map<String, String> defaults;
+    private final Feeder feeder;
+    private final Set<String> capture;
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final Map<String, LongAdder> skipped = new ConcurrentHashMap<>();
+
+    public WorkloadEngine(EaFoodsClient client, PostmanCollection collection, WorkloadConfig config, Feeder feeder) {
+        this.client = client;
+        this.defaults = collection.defaults();
+        this.feeder = feeder;
+        this.capture = config.capture;
+        List<Double> weights = new ArrayList<>();
+        for (RequestTemplate t : collection.requests()) {
+            double w = config.weight(t.name());
+            if (w <= 0) continue;
+            templates.add(t);
+            weights.add(w);
+            stats.put(t.name(), new EndpointStats(t.name()));
+        }
+        if (templates.isEmpty()) throw new IllegalArgumentException("Every request in the collection has weight 0");
+        cumulativeWeights = new double[weights.size()];
+        double sum = 0;
+        for (int i = 0; i < weights.size(); i++) cumulativeWeights[i] = sum += weights.get(i);
+    }
+
+    public List<RequestTemplate> templates() {
+        return templates;
+    }
+
+    /** Request name to the number of times it was picked but skipped for a missing variable. */
+    public Map<String, Long> skipped() {
+        Map<String, Long> out = new LinkedHashMap<>();
+        skipped.forEach((k, v) -> out.put(k, v.sum()));
+        return out;
+    }
+
+    public LoadReport run(int virtualUsers, int durationSeconds, long maxIterations, long thinkTimeMillis)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + durationSeconds * 1_000_000_000L;
+        AtomicLong budget = new AtomicLong(maxIterations > 0 ? maxIterations : Long.MAX_VALUE);
+        AtomicLong iterations = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(virtualUsers);
+        long start = System.nanoTime();
+        for (int u = 0; u < virtualUsers; u++) {
+            Thread t = new Thread(CallMetrics.inCurrentTest(() -> {
+                try {
+                    Map<String, String> captured = new HashMap<>();
+                    while (System.nanoTime() < deadline && budget.getAndDecrement() > 0) {
+                        iterations.incrementAndGet();
+                        iterate(captured);
+                        if (thinkTimeMillis > 0) Thread.sleep(thinkTimeMillis);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }), "vu-" + (u + 1));
+            t.setDaemon(true);
+            t.start();
+        }
+        done.await();
+        return new LoadReport(new ArrayList<>(stats.values()), System.nanoTime() - start, iterations.get());
+    }
+
+    private void iterate(Map<String, String> captured) {
+        RequestTemplate t = pick();
+        Map<String, String> row = feeder.next();
+        java.util.function.Function<String, String> lookup = v -> {
+            String c = captured.get(v);
+            if (c != null) return c;
+            if (capture.contains(v)) return null;
+            String f = row.get(v);
+            return f != null ? f : defaults.get(v);
+        };
+
+        // a null render means a variable is missing; RestAssured would throw on a null header or query value
+        String path = t.path().render(lookup);
+        if (path == null) {
+            skip(t);
+            return;
+        }
+        RequestSpecification spec = client.request();
+        for (Map.Entry<String, Template> h : t.headers().entrySet()) {
+            String value = h.getValue().render(lookup);
+            if (value == null) {
+                skip(t);
+                return;
+            }
+            spec = spec.header(h.getKey(), value);
+        }
+        for (Map.Entry<String, Template> q : t.query().entrySet()) {
+            String value = q.getValue().render(lookup);
+            if (value == null) {
+                skip(t);
+                return;
+            }
+            spec = spec.queryParam(q.getKey(), value);
+        }
+        if (t.staticBody() != null) {
+            spec = spec.body(t.staticBody());
+        } else if (t.body() != null) {
+            String body = t.body().render(lookup);
+            if (body == null) {
+                skip(t);
+                return;
+            }
+            spec = spec.body(body.getBytes(StandardCharsets.UTF_8));
+        }
+        for (String v : t.variables()) captured.remove(v);
+
+        RequestSpecification request = spec;
+        TimedCall call = TimedCall.of(() -> request.request(t.method(), path));
+        stats.get(t.name()).record(call);
+        if (!call.failed() && !capture.isEmpty() && call.status() / 100 == 2) {
+            capture(call.response().asByteArray(), captured);
+        }
+    }
+
+    private void skip(RequestTemplate t) {
+        skipped.computeIfAbsent(t.name(), k -> new LongAdder()).increment();
+    }
+
+    private RequestTemplate pick() {
+        double r = ThreadLocalRandom.current().nextDouble(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (r < cumulativeWeights[i]) return templates.get(i);
+        }
+        return templates.get(templates.size() - 1);
+    }
+
+    private void capture(byte[] body, Map<String, String> captured) {
+        if (body.length == 0 || body[0] != '{') return;
+        try {
+            JsonNode node = MAPPER.readTree(body);
+            for (String field : capture) {
+                JsonNode v = node.get(field);
+                if (v != null && v.isValueNode()) captured.put(field, v.asText());
+            }
+        } catch (IOException ignored) {
+            // not JSON after all; nothing to capture
+        }
+    }
+}